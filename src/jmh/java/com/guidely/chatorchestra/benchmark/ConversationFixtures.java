@@ -0,0 +1,56 @@
+package com.guidely.chatorchestra.benchmark;
+
+import com.guidely.chatorchestra.model.Message;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds message entities that look like a real conversation: alternating speakers
+ * and a few hundred characters of Korean text per message.
+ */
+final class ConversationFixtures {
+
+    private static final String[] SPEAKERS = {"user", "assistant"};
+    private static final String CONTENT =
+            "이 작품은 19세기 후반 인상주의 화풍의 특징을 잘 보여 줍니다. 빛의 변화에 따라 달라지는 색채를 "
+                    + "빠른 붓질로 표현했고, 야외에서 직접 관찰하며 그린 것으로 알려져 있습니다. ";
+
+    private ConversationFixtures() {
+    }
+
+    static List<Message> messages(int size) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<Message> messages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            messages.add(Message.builder()
+                    .id((long) i + 1)
+                    .seq((long) i + 1)
+                    .speaker(SPEAKERS[i % SPEAKERS.length])
+                    .content(CONTENT)
+                    .createdAt(start.plusSeconds(i))
+                    .build());
+        }
+        return messages;
+    }
+
+    /**
+     * 같은 메시지를 JDBC 조회 결과 행 형태로 만든다
+     */
+    static List<StoredMessageRow> storedRows(int size) {
+        List<StoredMessageRow> rows = new ArrayList<>(size);
+        for (Message message : messages(size)) {
+            rows.add(StoredMessageRow.builder()
+                    .id(message.getId())
+                    .conversationId(1L)
+                    .seq(message.getSeq())
+                    .speaker(message.getSpeaker())
+                    .content(message.getContent())
+                    .createdAt(message.getCreatedAt())
+                    .build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,122 @@
+package com.guidely.chatorchestra.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.guidely.chatorchestra.dto.ResponseEnvelope;
+import com.guidely.chatorchestra.dto.StreamingEnvelope;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import com.guidely.chatorchestra.mapper.ConversationJsonWriter;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.metrics.TimedJacksonHttpMessageConverter;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+import com.guidely.chatorchestra.web.converter.StreamingEnvelopeHttpMessageConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a conversation page to the response: rows mapped to DTOs and serialised by Jackson
+ * as a whole, versus rows written one by one through the streaming converter. Run with
+ * {@code -PjmhProfilers=gc} and compare {@code gc.alloc.rate.norm} (bytes allocated per response).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConversationStreamingBenchmark {
+
+    @Param({"100", "10000"})
+    public int messageCount;
+
+    private List<StoredMessageRow> rows;
+    private TimedJacksonHttpMessageConverter jacksonConverter;
+    private StreamingEnvelopeHttpMessageConverter streamingConverter;
+    private HttpOutputMessage output;
+
+    @Setup
+    public void setUp() {
+        // application.yml의 spring.jackson 설정과 Spring Boot 기본값을 그대로 재현
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rows = ConversationFixtures.storedRows(messageCount);
+        jacksonConverter = new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+        streamingConverter = new StreamingEnvelopeHttpMessageConverter(objectMapper, meterRegistry);
+        // 네트워크 대신 버리는 스트림에 써서 응답 생성 비용만 잰다
+        HttpHeaders headers = new HttpHeaders();
+        output = new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return OutputStream.nullOutputStream();
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+
+    /**
+     * 기존 경로: 행 → DTO 목록 → ResponseEnvelope → Jackson
+     */
+    @Benchmark
+    public void buffered() throws IOException {
+        List<GetConversationResponse.MessageDto> dtos = new ArrayList<>(rows.size());
+        for (StoredMessageRow row : rows) {
+            dtos.add(GetConversationResponse.MessageDto.builder()
+                    .messageId(row.getId())
+                    .seq(row.getSeq())
+                    .role(MessageMapper.toRole(row.getSpeaker()))
+                    .content(row.getContent())
+                    .createdAt(MessageMapper.toInstant(row.getCreatedAt()))
+                    .build());
+        }
+        GetConversationResponse response = GetConversationResponse.builder()
+                .sessionId(1L)
+                .status("ACTIVE")
+                .messages(dtos)
+                .total(dtos.size())
+                .nextCursor(dtos.get(dtos.size() - 1).getMessageId())
+                .prevCursor(dtos.get(0).getMessageId())
+                .hasMore(false)
+                .build();
+        jacksonConverter.write(ResponseEnvelope.success(response), MediaType.APPLICATION_JSON, output);
+    }
+
+    /**
+     * 스트리밍 경로: 커서에서 나오는 행을 바로 생성기로 쓴다
+     */
+    @Benchmark
+    public void streamed() throws IOException {
+        StreamingEnvelope.DataWriter data = generator -> {
+            ConversationJsonWriter.writeStart(generator, 1L, "ACTIVE");
+            for (StoredMessageRow row : rows) {
+                ConversationJsonWriter.writeMessage(generator, row);
+            }
+            ConversationJsonWriter.writeEnd(generator, rows.size(),
+                    rows.get(rows.size() - 1).getId(), rows.get(0).getId(), false);
+        };
+        streamingConverter.write(StreamingEnvelope.success(data), MediaType.APPLICATION_JSON, output);
+    }
+}
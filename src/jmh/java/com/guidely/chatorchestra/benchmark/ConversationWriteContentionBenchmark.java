@@ -0,0 +1,78 @@
+package com.guidely.chatorchestra.benchmark;
+
+import com.guidely.chatorchestra.config.IngestionProperties;
+import com.guidely.chatorchestra.service.ConversationWriteLocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append throughput of 8 writers through the striped per-conversation write locks, from every
+ * writer on one conversation (user message and assistant reply racing) to writers spread over
+ * many conversations, against a single global lock. The critical section stands in for the
+ * row-lock transaction and assigns the next sequence number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class ConversationWriteContentionBenchmark {
+
+    @Param({"1", "8", "1024"})
+    public int conversations;
+
+    /**
+     * 잠금 안에서 하는 일의 양 (Blackhole.consumeCPU 토큰)
+     */
+    @Param({"0", "500"})
+    public long work;
+
+    private ConversationWriteLocks stripedLocks;
+    private ReentrantLock globalLock;
+    private AtomicLongArray sequences;
+
+    @Setup
+    public void setUp() {
+        stripedLocks = new ConversationWriteLocks(new IngestionProperties(), new SimpleMeterRegistry());
+        globalLock = new ReentrantLock(true);
+        sequences = new AtomicLongArray(conversations);
+    }
+
+    @Benchmark
+    public long striped() {
+        int conversation = ThreadLocalRandom.current().nextInt(conversations);
+        return stripedLocks.withLock((long) conversation + 1, () -> append(conversation));
+    }
+
+    @Benchmark
+    public long global() {
+        int conversation = ThreadLocalRandom.current().nextInt(conversations);
+        globalLock.lock();
+        try {
+            return append(conversation);
+        } finally {
+            globalLock.unlock();
+        }
+    }
+
+    private long append(int conversation) {
+        Blackhole.consumeCPU(work);
+        // 잠금 안에서만 읽고 쓰므로 get/lazySet으로 충분하다
+        long next = sequences.get(conversation) + 1;
+        sequences.lazySet(conversation, next);
+        return next;
+    }
+}
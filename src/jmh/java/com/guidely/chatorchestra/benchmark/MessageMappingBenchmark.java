@@ -0,0 +1,66 @@
+package com.guidely.chatorchestra.benchmark;
+
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.model.Message;
+import com.guidely.chatorchestra.model.enums.MessageRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-request cost of turning message entities into response DTOs, and of the two
+ * per-message conversions it is built from.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageMappingBenchmark {
+
+    @Param({"10", "100", "10000"})
+    public int messageCount;
+
+    private List<Message> messages;
+
+    @Setup
+    public void setUp() {
+        messages = ConversationFixtures.messages(messageCount);
+    }
+
+    /**
+     * getSession의 stream 매핑 전체
+     */
+    @Benchmark
+    public List<MessageDto> mapToDtos() {
+        return messages.stream()
+                .map(MessageMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void speakerToRole(Blackhole blackhole) {
+        for (Message message : messages) {
+            MessageRole role = MessageMapper.toRole(message.getSpeaker());
+            blackhole.consume(role);
+        }
+    }
+
+    @Benchmark
+    public void createdAtToInstant(Blackhole blackhole) {
+        for (Message message : messages) {
+            Instant instant = MessageMapper.toInstant(message.getCreatedAt());
+            blackhole.consume(instant);
+        }
+    }
+}
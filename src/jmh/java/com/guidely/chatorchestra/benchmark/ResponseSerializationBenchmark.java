@@ -0,0 +1,81 @@
+package com.guidely.chatorchestra.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.guidely.chatorchestra.dto.ResponseEnvelope;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.model.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of serialising the conversation response with the same Jackson settings
+ * as the application (SNAKE_CASE, NON_NULL, ISO-8601 instants).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "100", "10000"})
+    public int messageCount;
+
+    private ObjectMapper objectMapper;
+    private List<Message> messages;
+    private ResponseEnvelope<GetConversationResponse> envelope;
+
+    @Setup
+    public void setUp() {
+        // application.yml의 spring.jackson 설정과 Spring Boot 기본값을 그대로 재현
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        messages = ConversationFixtures.messages(messageCount);
+        envelope = ResponseEnvelope.success(response(messages));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+
+    /**
+     * 엔티티 매핑부터 직렬화까지 getConversation 응답 생성 전체
+     */
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ResponseEnvelope.success(response(messages)));
+    }
+
+    private static GetConversationResponse response(List<Message> messages) {
+        List<GetConversationResponse.MessageDto> dtos = messages.stream()
+                .map(MessageMapper::toDto)
+                .collect(Collectors.toList());
+        return GetConversationResponse.builder()
+                .sessionId(1L)
+                .status("ACTIVE")
+                .messages(dtos)
+                .total(dtos.size())
+                .nextCursor(dtos.isEmpty() ? null : dtos.get(dtos.size() - 1).getMessageId())
+                .prevCursor(dtos.isEmpty() ? null : dtos.get(0).getMessageId())
+                .hasMore(false)
+                .build();
+    }
+}
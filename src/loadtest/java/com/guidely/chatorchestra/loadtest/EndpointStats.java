@@ -0,0 +1,51 @@
+package com.guidely.chatorchestra.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples of one endpoint, collected per worker and merged at the end of a run
+ */
+final class EndpointStats {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private int errors;
+
+    void record(long nanos, boolean ok) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    void merge(EndpointStats other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.samples[i], true);
+        }
+        errors += other.errors;
+    }
+
+    Summary summarize(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new Summary(size, errors, size / elapsedSeconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * 결과 JSON 한 항목 (지연 시간은 ms)
+     */
+    record Summary(int requests, int errors, double throughput, double p50, double p95, double p99) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.guidely.chatorchestra.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.guidely.chatorchestra.ChatOrchestraApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Boots the application against an in-memory H2 database in MySQL mode and drives the
+ * client workflow (start, post N messages, read history, end) at a fixed concurrency.
+ * Prints per-endpoint throughput and p50/p95/p99, writes them as JSON and exits non-zero
+ * when a result regresses past the stored baseline. Run with {@code ./gradlew loadTest}.
+ *
+ * <p>Settings are system properties: {@code loadtest.concurrency}, {@code loadtest.sessions},
+ * {@code loadtest.messages}, {@code loadtest.tolerance}, {@code loadtest.baseline},
+ * {@code loadtest.output} and {@code loadtest.updateBaseline}.
+ *
+ * <p>{@code loadtest.virtualThreads} runs the application with the {@code virtual-threads} profile (Java 21)
+ * and {@code loadtest.dbLatencyMs} delays each connection checkout; the virtual-thread run keeps its own
+ * baseline and results file so the two modes can be compared side by side.
+ */
+public final class LoadTestRunner {
+
+    static final String START = "POST /api/conversations";
+    static final String POST_MESSAGE = "POST /api/conversations/{id}/messages";
+    static final String GET = "GET /api/conversations/{id}";
+    static final String END = "PUT /api/conversations/{id}/end";
+    private static final List<String> ENDPOINTS = List.of(START, POST_MESSAGE, GET, END);
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    private final int sessions = Integer.getInteger("loadtest.sessions", 2_000);
+    private final int messages = Integer.getInteger("loadtest.messages", 10);
+    private final int warmupSessions = Integer.getInteger("loadtest.warmupSessions", 200);
+    private final double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.20"));
+    private final boolean virtualThreads = Boolean.getBoolean("loadtest.virtualThreads");
+    private final long dbLatencyMs = Long.getLong("loadtest.dbLatencyMs", 0);
+    private final String suffix = virtualThreads ? "-virtual" : "";
+    private final Path baseline = Path.of(System.getProperty("loadtest.baseline",
+            "src/loadtest/baseline" + suffix + ".json"));
+    private final Path output = Path.of(System.getProperty("loadtest.output",
+            "build/reports/loadtest/results" + suffix + ".json"));
+    private final boolean updateBaseline = Boolean.getBoolean("loadtest.updateBaseline");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private HttpClient client;
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadTestRunner().run());
+    }
+
+    private int run() throws Exception {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            System.err.println("loadtest.virtualThreads needs a Java 21 runtime, found " + Runtime.version());
+            return 2;
+        }
+        Map<String, EndpointStats.Summary> results;
+        try (ConfigurableApplicationContext context = startApplication()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port + "/api/conversations";
+            client = HttpClient.newBuilder()
+                    .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 4)))
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            System.out.printf("Warming up with %d sessions...%n", warmupSessions);
+            drive(warmupSessions);
+            System.out.printf("Running %d sessions x %d messages at concurrency %d (%s threads, %d ms DB latency)...%n",
+                    sessions, messages, concurrency, virtualThreads ? "virtual" : "platform", dbLatencyMs);
+            results = drive(sessions);
+        }
+
+        print(results);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output);
+
+        if (updateBaseline) {
+            objectMapper.writeValue(baseline.toFile(), results);
+            System.out.println("Baseline written to " + baseline);
+            return 0;
+        }
+        if (!Files.exists(baseline)) {
+            // 기준치 없이 통과하면 회귀를 놓치므로, 새 기준치는 명시적으로만 만든다
+            System.err.println("No baseline at " + baseline + "; rerun with -PupdateBaseline to record one");
+            return 1;
+        }
+        return compare(results, objectMapper.readTree(baseline.toFile()));
+    }
+
+    private ConfigurableApplicationContext startApplication() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ChatOrchestraApplication.class);
+        if (dbLatencyMs > 0) {
+            builder.sources(SlowDataSourceConfig.class);
+        }
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+        // application.yml보다 우선하도록 기본 속성이 아니라 명령줄 인수로 넘긴다
+        return builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--chat-orchestra.search.directory=build/loadtest/search-index",
+                "--chat-orchestra.archive.directory=build/loadtest/archive",
+                // 단일 클라이언트에서 부하를 주므로 요청 제한은 끈다
+                "--chat-orchestra.rate-limit.enabled=false",
+                "--chat-orchestra.rate-limit.concurrency-limit-enabled=false",
+                "--logging.level.com.guidely.chatorchestra=WARN");
+    }
+
+    private Map<String, EndpointStats.Summary> drive(int sessionCount) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        Map<String, EndpointStats> merged = new LinkedHashMap<>();
+        ENDPOINTS.forEach(endpoint -> merged.put(endpoint, new EndpointStats()));
+
+        long started = System.nanoTime();
+        try {
+            List<Future<Map<String, EndpointStats>>> futures = new ArrayList<>(concurrency);
+            for (int w = 0; w < concurrency; w++) {
+                int share = sessionCount / concurrency + (w < sessionCount % concurrency ? 1 : 0);
+                futures.add(workers.submit(() -> runSessions(share)));
+            }
+            for (Future<Map<String, EndpointStats>> future : futures) {
+                future.get().forEach((endpoint, stats) -> merged.get(endpoint).merge(stats));
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, EndpointStats.Summary> summaries = new LinkedHashMap<>();
+        merged.forEach((endpoint, stats) -> summaries.put(endpoint, stats.summarize(elapsedSeconds)));
+        return summaries;
+    }
+
+    /**
+     * 한 워커가 담당 세션들을 순서대로 실행 (시작 → 메시지 N개 → 조회 → 종료)
+     */
+    private Map<String, EndpointStats> runSessions(int count) throws IOException, InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        ENDPOINTS.forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+
+        for (int s = 0; s < count; s++) {
+            HttpResponse<String> started = call(stats.get(START), HttpRequest.newBuilder(URI.create(baseUrl))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            if (started.statusCode() != 201) {
+                continue;
+            }
+            long id = objectMapper.readTree(started.body()).path("data").path("session_id").asLong();
+            String conversationUrl = baseUrl + "/" + id;
+
+            for (int m = 0; m < messages; m++) {
+                String role = m % 2 == 0 ? "USER" : "ASSISTANT";
+                String body = "{\"role\":\"" + role + "\",\"content\":\"load test message " + m + " 이 작품은 누가 그렸나요?\"}";
+                call(stats.get(POST_MESSAGE), HttpRequest.newBuilder(URI.create(conversationUrl + "/messages"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)));
+            }
+            call(stats.get(GET), HttpRequest.newBuilder(URI.create(conversationUrl)).GET());
+            call(stats.get(END), HttpRequest.newBuilder(URI.create(conversationUrl + "/end"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"reason\":\"load test\"}")));
+        }
+        return stats;
+    }
+
+    private HttpResponse<String> call(EndpointStats stats, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        long t0 = System.nanoTime();
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        stats.record(System.nanoTime() - t0, response.statusCode() < 400);
+        return response;
+    }
+
+    private static void print(Map<String, EndpointStats.Summary> results) {
+        System.out.printf("%-42s %8s %7s %10s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50(ms)", "p95(ms)", "p99(ms)");
+        results.forEach((endpoint, s) -> System.out.printf("%-42s %8d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                endpoint, s.requests(), s.errors(), s.throughput(), s.p50(), s.p95(), s.p99()));
+    }
+
+    /**
+     * 기준치 대비 p95/p99가 tolerance 이상 늘었거나 처리량이 그만큼 줄었으면 실패
+     */
+    private int compare(Map<String, EndpointStats.Summary> results, JsonNode base) {
+        List<String> regressions = new ArrayList<>();
+        results.forEach((endpoint, current) -> {
+            JsonNode previous = base.path(endpoint);
+            if (previous.isMissingNode()) {
+                return;
+            }
+            if (current.errors() > 0) {
+                regressions.add(endpoint + ": " + current.errors() + " failed requests");
+            }
+            checkUpperBound(regressions, endpoint, "p95", current.p95(), previous.path("p95").asDouble());
+            checkUpperBound(regressions, endpoint, "p99", current.p99(), previous.path("p99").asDouble());
+            double baseThroughput = previous.path("throughput").asDouble();
+            if (current.throughput() < baseThroughput * (1 - tolerance)) {
+                regressions.add(String.format("%s: throughput %.1f req/s < baseline %.1f req/s",
+                        endpoint, current.throughput(), baseThroughput));
+            }
+        });
+
+        if (regressions.isEmpty()) {
+            System.out.printf("No regression beyond %.0f%% of %s%n", tolerance * 100, baseline);
+            return 0;
+        }
+        System.err.println("Performance regression against " + baseline + ":");
+        regressions.forEach(r -> System.err.println("  " + r));
+        return 1;
+    }
+
+    private void checkUpperBound(List<String> regressions, String endpoint, String name, double current, double base) {
+        if (base > 0 && current > base * (1 + tolerance)) {
+            regressions.add(String.format("%s: %s %.2f ms > baseline %.2f ms", endpoint, name, current, base));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.guidely.chatorchestra.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Delays every connection checkout by {@code loadtest.dbLatencyMs} to stand in for the round trip
+ * to a remote database, so request threads spend most of their time blocked as they would in production
+ */
+@Configuration(proxyBeanMethods = false)
+class SlowDataSourceConfig {
+
+    @Bean
+    static BeanPostProcessor slowDataSourcePostProcessor() {
+        long latencyMs = Long.getLong("loadtest.dbLatencyMs", 0);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        try {
+                            Thread.sleep(latencyMs);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return super.getConnection();
+                    }
+                };
+            }
+        };
+    }
+}
@@ -2,11 +2,13 @@ package com.guidely.chatorchestra;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main application class for Chat-Orchestra
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ChatOrchestraApplication {
 
     public static void main(String[] args) {
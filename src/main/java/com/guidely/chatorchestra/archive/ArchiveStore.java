@@ -0,0 +1,449 @@
+package com.guidely.chatorchestra.archive;
+
+import com.guidely.chatorchestra.config.ArchiveProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only store of archived conversations on local disk, one immutable record per
+ * conversation. Segment files are memory-mapped and records are decoded straight from
+ * the mapping, so a read does not copy the record into a heap buffer first.
+ *
+ * <p>Record layout: magic (4), payload length (4), CRC32 of the payload (4), payload.
+ * Payload: version (1), conversation id (8), started/ended at in epoch micros (8 + 8),
+ * message count (4), then per message: id (8), seq (8), speaker (2 + UTF-8), created at (8),
+ * content (4 + UTF-8). A torn record at the end of the last segment, left by a crash
+ * mid-append, is truncated on startup.
+ *
+ * <p>Removing a conversation appends a tombstone record (version byte 0x7F, then the conversation
+ * id). {@link #compact()} copies the live records of every segment that holds removed
+ * or superseded records into new segments and deletes the old files oldest first, so a tombstone
+ * is never deleted before the record it hides.
+ */
+@Component
+@Slf4j
+public class ArchiveStore {
+
+    private static final int MAGIC = 0x41524348; // "ARCH"
+    // 2: 메시지마다 순번(seq) 추가. 1로 쓴 레코드는 저장 순서로 순번을 매겨 읽는다
+    private static final byte VERSION = 2;
+    private static final byte VERSION_WITHOUT_SEQ = 1;
+    private static final byte TOMBSTONE = 0x7F;
+    private static final int TOMBSTONE_SIZE = 1 + 8;
+    // 버전(1) + 대화 id(8) + 시작 시각(8) 다음에 종료 시각이 있다
+    private static final int ENDED_AT_OFFSET = 1 + 8 + 8;
+    private static final int HEADER_SIZE = 12;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final String SEGMENT_PREFIX = "archive-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final ArchiveProperties properties;
+    private final Timer readLatency;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Long, Location> locations = new ConcurrentHashMap<>();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private Segment active;
+
+    public ArchiveStore(ArchiveProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.readLatency = Timer.builder("chat.archive.read.latency")
+                .description("Time to read an archived conversation from its segment")
+                .register(meterRegistry);
+        Gauge.builder("chat.archive.bytes", segments, list -> list.stream().mapToLong(s -> s.size).sum())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("chat.archive.conversations", locations, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Maps the existing segments. With archiving disabled nothing is created: a missing directory
+     * leaves the store empty, and an existing one is opened only so that conversations archived
+     * earlier stay readable.
+     */
+    @PostConstruct
+    void open() throws IOException {
+        if (!properties.isEnabled() && !Files.isDirectory(properties.getDirectory())) {
+            return;
+        }
+        Files.createDirectories(properties.getDirectory());
+        List<Path> files;
+        try (Stream<Path> list = Files.list(properties.getDirectory())) {
+            files = list.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (int i = 0; i < files.size(); i++) {
+            // 압축으로 앞 번호 파일이 지워질 수 있으므로 번호는 파일 이름에서 읽는다
+            Segment segment = new Segment(segmentNumber(files.get(i)), files.get(i));
+            scan(segment, i == files.size() - 1);
+            segments.add(segment);
+        }
+        if (properties.isEnabled()) {
+            active = segments.isEmpty() ? newSegment() : segments.get(segments.size() - 1);
+        }
+        log.info("Opened archive with {} conversations in {} segments", locations.size(), segments.size());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+    }
+
+    public boolean contains(Long conversationId) {
+        return locations.containsKey(conversationId);
+    }
+
+    public Optional<ArchivedConversation> read(Long conversationId) {
+        Location location = locations.get(conversationId);
+        if (location == null) {
+            return Optional.empty();
+        }
+        return Optional.of(readLatency.record(() -> decode(location.segment.slice(location.offset, location.length))));
+    }
+
+    /**
+     * Appends one conversation. Call {@link #sync()} before deleting the source rows.
+     */
+    public void append(Long conversationId, LocalDateTime startedAt, LocalDateTime endedAt,
+                       List<StoredMessageRow> messages) throws IOException {
+        byte[] payload = encode(conversationId, startedAt, endedAt, messages);
+        writeLock.lock();
+        try {
+            locations.put(conversationId, write(payload));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every conversation that ended before {@code endedBefore}, appending a tombstone for each
+     * and syncing before returning. Returns the number removed; the space is reclaimed by {@link #compact()}.
+     */
+    public int deleteEndedBefore(LocalDateTime endedBefore) throws IOException {
+        long cutoff = toMicros(endedBefore);
+        writeLock.lock();
+        try {
+            List<Long> expired = locations.entrySet().stream()
+                    .filter(entry -> {
+                        Location location = entry.getValue();
+                        long endedAt = location.segment.slice(location.offset + ENDED_AT_OFFSET, 8).getLong();
+                        return endedAt != NO_TIME && endedAt < cutoff;
+                    })
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            for (Long conversationId : expired) {
+                write(ByteBuffer.allocate(TOMBSTONE_SIZE).put(TOMBSTONE).putLong(conversationId).array());
+                locations.remove(conversationId);
+            }
+            if (!expired.isEmpty()) {
+                active.channel.force(false);
+            }
+            return expired.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites the segments that hold removed or superseded records and returns the bytes reclaimed.
+     * Live records are copied and synced before any old file is deleted, and old files are deleted
+     * in segment order, so a crash part-way leaves at worst duplicate live records (the later copy wins).
+     */
+    public long compact() throws IOException {
+        writeLock.lock();
+        try {
+            Map<Segment, Long> liveBytes = new HashMap<>();
+            locations.values().forEach(location ->
+                    liveBytes.merge(location.segment, (long) HEADER_SIZE + location.length, Long::sum));
+            List<Segment> dirty = segments.stream()
+                    .filter(segment -> liveBytes.getOrDefault(segment, 0L) < segment.size)
+                    .collect(Collectors.toList());
+            if (dirty.isEmpty()) {
+                return 0;
+            }
+            if (dirty.contains(active)) {
+                active.channel.force(false);
+                active = newSegment();
+            }
+
+            // 원래 순서대로 옮겨 같은 대화의 중복 기록이 있어도 나중 기록이 이긴다
+            List<Map.Entry<Long, Location>> moving = locations.entrySet().stream()
+                    .filter(entry -> dirty.contains(entry.getValue().segment))
+                    .sorted(Comparator.comparingInt((Map.Entry<Long, Location> entry) -> entry.getValue().segment.number)
+                            .thenComparingLong(entry -> entry.getValue().offset))
+                    .collect(Collectors.toList());
+            Map<Long, Location> moved = new HashMap<>();
+            for (Map.Entry<Long, Location> entry : moving) {
+                Location location = entry.getValue();
+                byte[] payload = new byte[location.length];
+                location.segment.slice(location.offset, location.length).get(payload);
+                moved.put(entry.getKey(), write(payload));
+            }
+            active.channel.force(false);
+            locations.putAll(moved);
+
+            long reclaimed = 0;
+            for (Segment segment : dirty) {
+                reclaimed += segment.size - liveBytes.getOrDefault(segment, 0L);
+                segments.remove(segment);
+                // 이미 매핑된 버퍼는 파일을 지운 뒤에도 유효하므로 진행 중인 읽기는 끝까지 읽는다
+                segment.channel.close();
+                Files.delete(segment.path);
+            }
+            log.info("Compacted {} archive segments, reclaimed {} bytes", dirty.size(), reclaimed);
+            return reclaimed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Forces appended records to disk
+     */
+    public void sync() throws IOException {
+        writeLock.lock();
+        try {
+            active.channel.force(false);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends one record to the active segment, rolling to a new one when full. Caller holds the write lock.
+     */
+    private Location write(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .putInt(MAGIC)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        if (active.size > 0 && active.size + record.remaining() > properties.getMaxSegmentSize().toBytes()) {
+            active.channel.force(false);
+            active = newSegment();
+        }
+        long offset = active.size;
+        while (record.hasRemaining()) {
+            active.channel.write(record, offset + record.position());
+        }
+        active.size += HEADER_SIZE + payload.length;
+        return new Location(active, offset + HEADER_SIZE, payload.length);
+    }
+
+    private void scan(Segment segment, boolean last) throws IOException {
+        long fileSize = segment.channel.size();
+        long position = 0;
+        while (position + HEADER_SIZE <= fileSize) {
+            ByteBuffer header = segment.slice(position, HEADER_SIZE);
+            int magic = header.getInt();
+            int length = header.getInt();
+            int expectedCrc = header.getInt();
+            if (magic != MAGIC || length <= 0 || position + HEADER_SIZE + length > fileSize) {
+                break;
+            }
+            ByteBuffer payload = segment.slice(position + HEADER_SIZE, length);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+            if (payload.get(payload.position()) == TOMBSTONE) {
+                locations.remove(readConversationId(payload));
+            } else {
+                // 같은 대화가 두 번 기록됐다면(아카이브 도중 재시작, 압축 도중 재시작) 나중 기록을 사용
+                locations.put(readConversationId(payload), new Location(segment, position + HEADER_SIZE, length));
+            }
+            position += HEADER_SIZE + length;
+        }
+        segment.size = position;
+        if (position < fileSize) {
+            if (last) {
+                log.warn("Truncating torn archive record at {} in {}", position, segment.path);
+                segment.channel.truncate(position);
+            } else {
+                log.error("Corrupt archive record at {} in {}; later records in this segment are unreadable",
+                        position, segment.path);
+            }
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        int number = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).number + 1;
+        Segment segment = new Segment(number, properties.getDirectory().resolve(
+                String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX)));
+        segments.add(segment);
+        return segment;
+    }
+
+    private static int segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encode(Long conversationId, LocalDateTime startedAt, LocalDateTime endedAt,
+                                 List<StoredMessageRow> messages) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + messages.size() * 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(VERSION);
+        out.writeLong(conversationId);
+        out.writeLong(toMicros(startedAt));
+        out.writeLong(toMicros(endedAt));
+        out.writeInt(messages.size());
+        for (StoredMessageRow message : messages) {
+            byte[] speaker = message.getSpeaker().getBytes(StandardCharsets.UTF_8);
+            byte[] content = message.getContent().getBytes(StandardCharsets.UTF_8);
+            out.writeLong(message.getId());
+            out.writeLong(message.getSeq());
+            out.writeShort(speaker.length);
+            out.write(speaker);
+            out.writeLong(toMicros(message.getCreatedAt()));
+            out.writeInt(content.length);
+            out.write(content);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static long readConversationId(ByteBuffer payload) {
+        return payload.getLong(payload.position() + 1);
+    }
+
+    private static ArchivedConversation decode(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        byte version = in.get();
+        if (version != VERSION && version != VERSION_WITHOUT_SEQ) {
+            throw new IllegalStateException("Unknown archive record version: " + version);
+        }
+        Long conversationId = in.getLong();
+        LocalDateTime startedAt = fromMicros(in.getLong());
+        LocalDateTime endedAt = fromMicros(in.getLong());
+        int count = in.getInt();
+        List<MessageDto> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = in.getLong();
+            long seq = version == VERSION ? in.getLong() : i + 1;
+            String speaker = readString(in, in.getShort());
+            LocalDateTime createdAt = fromMicros(in.getLong());
+            String content = readString(in, in.getInt());
+            messages.add(MessageDto.builder()
+                    .messageId(id)
+                    .seq(seq)
+                    .role(MessageMapper.toRole(speaker))
+                    .content(content)
+                    .createdAt(MessageMapper.toInstant(createdAt))
+                    .build());
+        }
+        return ArchivedConversation.builder()
+                .id(conversationId)
+                .startedAt(startedAt)
+                .endedAt(endedAt)
+                .messages(messages)
+                .build();
+    }
+
+    /**
+     * 매핑된 버퍼에서 바로 디코딩 (힙 배열로 복사하지 않음)
+     */
+    private static String readString(ByteBuffer in, int length) {
+        ByteBuffer bytes = in.slice(in.position(), length);
+        in.position(in.position() + length);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NO_TIME;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private record Location(Segment segment, long offset, int length) {
+    }
+
+    private static final class Segment {
+        private final int number;
+        private final Path path;
+        private final FileChannel channel;
+        private final ReentrantLock mapLock = new ReentrantLock();
+        private volatile MappedByteBuffer mapped;
+        private volatile long size;
+
+        private Segment(int number, Path path) throws IOException {
+            this.number = number;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        /**
+         * Read-only view of a byte range, remapping once the file has grown past the current mapping
+         */
+        private ByteBuffer slice(long offset, int length) {
+            MappedByteBuffer current = mapped;
+            if (current == null || offset + length > current.capacity()) {
+                mapLock.lock();
+                try {
+                    current = mapped;
+                    if (current == null || offset + length > current.capacity()) {
+                        current = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                        mapped = current;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    mapLock.unlock();
+                }
+            }
+            return current.slice((int) offset, length);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.guidely.chatorchestra.archive;
+
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A conversation read back from the archive, messages in id order
+ */
+@Value
+@Builder
+public class ArchivedConversation {
+    Long id;
+    LocalDateTime startedAt;
+    LocalDateTime endedAt;
+    List<MessageDto> messages;
+}
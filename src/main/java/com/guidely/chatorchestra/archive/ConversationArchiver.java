@@ -0,0 +1,174 @@
+package com.guidely.chatorchestra.archive;
+
+import com.guidely.chatorchestra.cache.ConversationCache;
+import com.guidely.chatorchestra.config.ArchiveProperties;
+import com.guidely.chatorchestra.config.IdProperties;
+import com.guidely.chatorchestra.jobs.DutyCycleThrottle;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository.ArchivableConversationRow;
+import com.guidely.chatorchestra.repository.JobCheckpointRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+import com.guidely.chatorchestra.search.MessageSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves the messages of long-ended conversations out of the database into the
+ * {@link ArchiveStore}. Each chunk is appended and synced to disk before its rows are
+ * deleted, and conversations are selected by {@code archived_at IS NULL}, so a run that
+ * is interrupted at any point resumes where it stopped on the next tick. The deleted message
+ * ids are tombstoned in the {@link MessageSearchIndex}.
+ *
+ * <p>Segments live on the local disk of the instance that wrote them, so only one instance may
+ * archive. The first instance to run claims the job by storing its worker id in the
+ * {@code archive-writer} row of {@code job_checkpoints} under a row lock; every other instance skips.
+ */
+@Component
+@Slf4j
+public class ConversationArchiver {
+
+    static final String WRITER_JOB = "archive-writer";
+
+    private final ArchiveProperties properties;
+    private final ArchiveStore archiveStore;
+    private final ConversationJdbcRepository conversationJdbcRepository;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversationCache conversationCache;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final MessageSearchIndex messageSearchIndex;
+    private final int workerId;
+    private final Counter archivedConversations;
+    private final Counter archivedMessages;
+    private final Timer chunkDuration;
+
+    public ConversationArchiver(ArchiveProperties properties,
+                                ArchiveStore archiveStore,
+                                ConversationJdbcRepository conversationJdbcRepository,
+                                MessageJdbcRepository messageJdbcRepository,
+                                TransactionTemplate transactionTemplate,
+                                ConversationCache conversationCache,
+                                JobCheckpointRepository jobCheckpointRepository,
+                                MessageSearchIndex messageSearchIndex,
+                                IdProperties idProperties,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.archiveStore = archiveStore;
+        this.conversationJdbcRepository = conversationJdbcRepository;
+        this.messageJdbcRepository = messageJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.conversationCache = conversationCache;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.messageSearchIndex = messageSearchIndex;
+        this.workerId = idProperties.getWorkerId();
+        this.archivedConversations = Counter.builder("chat.archive.moved")
+                .tag("type", "conversation")
+                .register(meterRegistry);
+        this.archivedMessages = Counter.builder("chat.archive.moved")
+                .tag("type", "message")
+                .register(meterRegistry);
+        this.chunkDuration = Timer.builder("chat.archive.chunk.duration")
+                .description("Time to archive one chunk of conversations")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${chat-orchestra.archive.interval:10m}")
+    public void run() {
+        if (!properties.isEnabled() || !isWriter()) {
+            return;
+        }
+        DutyCycleThrottle throttle = new DutyCycleThrottle(properties.getDutyCycle());
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getAfter());
+        int total = 0;
+        try {
+            for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+                long started = System.nanoTime();
+                int archived = archiveChunk(cutoff);
+                long elapsed = System.nanoTime() - started;
+                chunkDuration.record(elapsed, TimeUnit.NANOSECONDS);
+                total += archived;
+                if (archived < properties.getChunkSize()) {
+                    break;
+                }
+                throttle.pause(elapsed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.error("Archive run stopped after {} conversations", total, e);
+            return;
+        }
+        if (total > 0) {
+            log.info("Archived {} conversations ended before {}", total, cutoff);
+        }
+    }
+
+    /**
+     * Claims the archive for this instance if no instance has, and reports whether this instance owns it
+     */
+    boolean isWriter() {
+        long owner;
+        try {
+            owner = transactionTemplate.execute(status ->
+                    jobCheckpointRepository.findForUpdateOrSave(WRITER_JOB, workerId));
+        } catch (DuplicateKeyException e) {
+            // 다른 인스턴스가 동시에 먼저 차지했다
+            owner = jobCheckpointRepository.find(WRITER_JOB).orElseThrow(() -> e);
+        }
+        if (owner != workerId) {
+            log.debug("Skipping archive run: segments are written by worker {}", owner);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Archives one chunk and returns how many conversations it selected
+     */
+    int archiveChunk(LocalDateTime cutoff) throws IOException {
+        List<ArchivableConversationRow> chunk =
+                conversationJdbcRepository.findArchivable(cutoff, properties.getChunkSize());
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        long messages = 0;
+        for (ArchivableConversationRow conversation : chunk) {
+            // 이전 실행이 세그먼트 기록 후 DB 삭제 전에 멈췄다면 이미 들어 있다
+            if (archiveStore.contains(conversation.getId())) {
+                continue;
+            }
+            List<StoredMessageRow> rows = messageJdbcRepository.findByConversation(conversation.getId());
+            archiveStore.append(conversation.getId(), conversation.getStartedAt(), conversation.getEndedAt(), rows);
+            messages += rows.size();
+        }
+        // 디스크에 내려간 뒤에만 원본을 지운다
+        archiveStore.sync();
+
+        List<Long> ids = chunk.stream().map(ArchivableConversationRow::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> messageIds = transactionTemplate.execute(status -> {
+            List<Long> deleted = messageJdbcRepository.deleteByConversations(ids);
+            conversationJdbcRepository.markArchived(ids, now);
+            return deleted;
+        });
+        ids.forEach(conversationCache::evict);
+        messageSearchIndex.delete(messageIds);
+
+        archivedConversations.increment(chunk.size());
+        archivedMessages.increment(messages);
+        return chunk.size();
+    }
+}
@@ -0,0 +1,108 @@
+package com.guidely.chatorchestra.cache;
+
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a conversation's metadata and most recent messages.
+ * The tail holds every message with an id greater than {@code boundaryId}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class CachedConversation {
+    Long id;
+    LocalDateTime startedAt;
+    LocalDateTime endedAt;
+    long total;
+    long boundaryId;
+    @Builder.Default
+    List<MessageDto> tail = List.of();
+    // 캐시에 없던 대화에 쓰기가 발생했음을 표시 (동시에 진행 중인 DB 조회 결과로 덮어쓰지 않도록)
+    boolean stale;
+
+    /**
+     * Id of the newest message known to this entry, or 0 if there is none
+     */
+    public long lastMessageId() {
+        return tail.isEmpty() ? boundaryId : tail.get(tail.size() - 1).getMessageId();
+    }
+
+    static CachedConversation staleMarker() {
+        return CachedConversation.builder().stale(true).build();
+    }
+
+    /**
+     * Adds a committed message. Idempotent: a message this entry already counts (one at or below
+     * the boundary, or one in the tail) returns the entry unchanged, so a write that lands after a
+     * concurrent read already populated it is not counted twice.
+     */
+    CachedConversation append(MessageDto message, int tailSize) {
+        // 같은 대화의 id는 순번 순서이므로 경계 이하의 메시지는 이미 total에 들어 있다
+        if (message.getMessageId() <= boundaryId) {
+            return this;
+        }
+        List<MessageDto> next = new ArrayList<>(tail.size() + 1);
+        next.addAll(tail);
+        int position = next.size();
+        while (position > 0 && next.get(position - 1).getMessageId() > message.getMessageId()) {
+            position--;
+        }
+        if (position > 0 && next.get(position - 1).getMessageId().equals(message.getMessageId())) {
+            return this;
+        }
+        next.add(position, message);
+
+        long boundary = boundaryId;
+        while (next.size() > tailSize) {
+            boundary = next.remove(0).getMessageId();
+        }
+        return toBuilder()
+                .tail(List.copyOf(next))
+                .total(total + 1)
+                .boundaryId(boundary)
+                .build();
+    }
+
+    /**
+     * Returns the requested page, or null when the tail does not cover it
+     */
+    HistorySlice slice(Long before, Long after, int limit) {
+        List<MessageDto> candidates = new ArrayList<>();
+        if (before != null) {
+            for (MessageDto message : tail) {
+                if (message.getMessageId() < before) {
+                    candidates.add(message);
+                }
+            }
+            boolean hasMore = candidates.size() > limit;
+            if (!hasMore && boundaryId != 0) {
+                return null;
+            }
+            return HistorySlice.builder()
+                    .messages(candidates.subList(Math.max(0, candidates.size() - limit), candidates.size()))
+                    .hasMore(hasMore)
+                    .total(total)
+                    .build();
+        }
+
+        long cursor = after != null ? after : 0L;
+        if (cursor < boundaryId) {
+            return null;
+        }
+        for (MessageDto message : tail) {
+            if (message.getMessageId() > cursor) {
+                candidates.add(message);
+            }
+        }
+        return HistorySlice.builder()
+                .messages(candidates.subList(0, Math.min(limit, candidates.size())))
+                .hasMore(candidates.size() > limit)
+                .total(total)
+                .build();
+    }
+}
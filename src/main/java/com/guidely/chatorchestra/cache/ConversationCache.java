@@ -0,0 +1,143 @@
+package com.guidely.chatorchestra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.guidely.chatorchestra.config.ConversationCacheProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded in-memory cache of active conversations' metadata and recent messages.
+ * Writes go through to the cache after they commit; reads are served from it when
+ * the cached tail covers the requested page. An entry only knows this node's writes,
+ * so callers check it against the conversation's database counters before serving from it.
+ */
+@Component
+public class ConversationCache {
+
+    private final ConversationCacheProperties properties;
+    private final Cache<Long, CachedConversation> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ConversationCache(ConversationCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Counter evictions = Counter.builder("chat.conversation.cache.evictions")
+                .description("Entries removed because of size or TTL")
+                .register(meterRegistry);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxConversations())
+                .expireAfterWrite(properties.getTtl())
+                .removalListener((Long id, CachedConversation entry, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("chat.conversation.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("chat.conversation.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("chat.conversation.cache.size", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the raw entry, which is also the token to pass to {@link #populate}
+     */
+    public CachedConversation get(Long conversationId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return cache.getIfPresent(conversationId);
+    }
+
+    /**
+     * Serves a page from the given entry, or returns null on a miss
+     */
+    public HistorySlice read(CachedConversation entry, Long before, Long after, int limit) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        HistorySlice slice = entry != null && !entry.isStale() ? entry.slice(before, after, limit) : null;
+        (slice != null ? hits : misses).increment();
+        return slice;
+    }
+
+    /**
+     * Stores a freshly read entry unless a write happened since {@code observed} was read
+     */
+    public void populate(Long conversationId, CachedConversation observed, CachedConversation fresh) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        cache.asMap().compute(conversationId, (id, current) -> current == observed ? trim(fresh) : current);
+    }
+
+    /**
+     * Caches a conversation that was just created
+     */
+    public void putNew(Long conversationId, LocalDateTime startedAt) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        cache.put(conversationId, CachedConversation.builder()
+                .id(conversationId)
+                .startedAt(startedAt)
+                .build());
+    }
+
+    public void appendMessage(Long conversationId, MessageDto message) {
+        update(conversationId, entry -> entry.append(message, properties.getTailSize()));
+    }
+
+    public void appendMessages(Long conversationId, List<MessageDto> messages) {
+        update(conversationId, entry -> {
+            CachedConversation next = entry;
+            for (MessageDto message : messages) {
+                next = next.append(message, properties.getTailSize());
+            }
+            return next;
+        });
+    }
+
+    public void markEnded(Long conversationId, LocalDateTime endedAt) {
+        update(conversationId, entry -> entry.toBuilder().endedAt(endedAt).build());
+    }
+
+    public void evict(Long conversationId) {
+        cache.invalidate(conversationId);
+    }
+
+    private void update(Long conversationId, UnaryOperator<CachedConversation> change) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // 캐시에 없던 대화라면 새 마커를 남겨 진행 중인 조회가 오래된 결과를 채우지 못하게 한다
+        cache.asMap().compute(conversationId, (id, current) ->
+                current == null || current.isStale() ? CachedConversation.staleMarker() : change.apply(current));
+    }
+
+    private CachedConversation trim(CachedConversation entry) {
+        List<MessageDto> tail = entry.getTail();
+        int tailSize = properties.getTailSize();
+        if (tail.size() <= tailSize) {
+            return entry;
+        }
+        int cut = tail.size() - tailSize;
+        return entry.toBuilder()
+                .boundaryId(tail.get(cut - 1).getMessageId())
+                .tail(List.copyOf(tail.subList(cut, tail.size())))
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.guidely.chatorchestra.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.guidely.chatorchestra.config.ResponseCacheProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded cache of ended conversations' response {@code data}, already serialised to JSON.
+ * An ended conversation never changes, so a page is serialised once and later requests write the
+ * stored bytes as they are. Entries are keyed by the version tag (the ETag) as well, so a stale
+ * version read can never be answered with a body from a different history.
+ */
+@Component
+public class ConversationResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, ByteBuffer> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ConversationResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        Counter evictions = Counter.builder("chat.conversation.response.cache.evictions")
+                .description("Serialised responses removed to stay within the size budget")
+                .register(meterRegistry);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, ByteBuffer body) -> body.capacity())
+                // 크기 초과분을 쓰는 스레드에서 바로 제거해 예산을 넘는 버퍼가 쌓이지 않게 한다
+                .executor(Runnable::run)
+                .removalListener((Key key, ByteBuffer body, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("chat.conversation.response.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("chat.conversation.response.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("chat.conversation.response.cache.bytes", cache, ConversationResponseCache::weightedSize)
+                .description("Bytes of serialised responses held")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("chat.conversation.response.cache.size", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Returns the serialised page of an ended conversation, loading and serialising it on a miss.
+     * The returned buffer is the caller's own view and can be consumed freely.
+     */
+    public ByteBuffer get(Long conversationId, String versionTag, Long before, Long after, Integer limit,
+                          Supplier<GetConversationResponse> loader) {
+        Key key = new Key(conversationId, versionTag, before, after, limit);
+        ByteBuffer cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached.duplicate();
+        }
+        misses.increment();
+        // 같은 키를 동시에 놓친 요청은 각자 읽는다 (DB 조회를 캐시 잠금 안에서 하지 않기 위해)
+        ByteBuffer body = store(serialise(loader.get()));
+        cache.put(key, body);
+        return body.duplicate();
+    }
+
+    private byte[] serialise(GetConversationResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ByteBuffer store(byte[] json) {
+        if (!properties.isOffHeap()) {
+            return ByteBuffer.wrap(json);
+        }
+        return ByteBuffer.allocateDirect(json.length).put(json).flip();
+    }
+
+    private static long weightedSize(Cache<Key, ByteBuffer> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private record Key(Long conversationId, String versionTag, Long before, Long after, Integer limit) {
+    }
+}
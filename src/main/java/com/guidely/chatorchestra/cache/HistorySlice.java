@@ -0,0 +1,18 @@
+package com.guidely.chatorchestra.cache;
+
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of conversation history, oldest message first
+ */
+@Value
+@Builder
+public class HistorySlice {
+    List<GetConversationResponse.MessageDto> messages;
+    boolean hasMore;
+    long total;
+}
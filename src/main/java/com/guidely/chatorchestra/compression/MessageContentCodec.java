@@ -0,0 +1,164 @@
+package com.guidely.chatorchestra.compression;
+
+import com.guidely.chatorchestra.config.CompressionProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes message contents into the {@code content} / {@code content_blob} column pair.
+ * Short contents stay in {@code content} as before; long ones are deflated into
+ * {@code content_blob} and {@code content} is left empty. A row with no blob is read
+ * as plain text, so rows written before compression existed keep working.
+ *
+ * <p>Blob layout: format version (1 byte), codec id (1 byte), original UTF-8 length
+ * (4 bytes, big-endian), compressed payload.
+ */
+@Component
+public class MessageContentCodec {
+
+    static final byte FORMAT_VERSION = 1;
+    static final byte CODEC_DEFLATE = 1;
+    private static final int HEADER_SIZE = 6;
+    // MySQL TEXT / MEDIUMBLOB 최대 바이트 수
+    static final int MAX_CONTENT_BYTES = 65_535;
+    static final int MAX_BLOB_BYTES = 16_777_215;
+
+    private final CompressionProperties properties;
+    private final DistributionSummary compressionRatio;
+    private final Timer encodeTimer;
+    private final Timer decodeTimer;
+
+    public MessageContentCodec(CompressionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.compressionRatio = DistributionSummary.builder("chat.message.compression.ratio")
+                .description("Compressed size divided by original size for compressed messages")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("chat.message.compression.encode")
+                .description("Time to compress a message content")
+                .register(meterRegistry);
+        this.decodeTimer = Timer.builder("chat.message.compression.decode")
+                .description("Time to decompress a message content")
+                .register(meterRegistry);
+    }
+
+    public Encoded encode(String content) {
+        if (!properties.isEnabled() || content == null || content.length() < properties.getMinLength()) {
+            return Encoded.plain(content);
+        }
+        long started = System.nanoTime();
+        byte[] original = content.getBytes(StandardCharsets.UTF_8);
+        byte[] blob = deflate(original);
+        encodeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        // 압축해도 줄지 않으면 원문 그대로 저장
+        if (blob.length >= original.length) {
+            return Encoded.plain(content);
+        }
+        compressionRatio.record((double) blob.length / original.length);
+        return new Encoded("", blob);
+    }
+
+    /**
+     * Rejects content the columns cannot hold, so it fails the request instead of a later write:
+     * text that is not valid Unicode (unpaired surrogates), or that is longer than {@code content}
+     * allows and does not compress into {@code content_blob}
+     */
+    public void requireStorable(String content) {
+        int length;
+        try {
+            length = StandardCharsets.UTF_8.newEncoder().encode(CharBuffer.wrap(content)).remaining();
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("Content is not valid Unicode text");
+        }
+        if (length <= MAX_CONTENT_BYTES) {
+            return;
+        }
+        Encoded encoded = encode(content);
+        if (encoded.blob() == null || encoded.blob().length > MAX_BLOB_BYTES) {
+            throw new IllegalArgumentException("Content is too long: " + length + " bytes");
+        }
+    }
+
+    public String decode(String content, byte[] blob) {
+        if (blob == null || blob.length == 0) {
+            return content;
+        }
+        long started = System.nanoTime();
+        try {
+            return inflate(blob);
+        } finally {
+            decodeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private byte[] deflate(byte[] original) {
+        Deflater deflater = new Deflater(properties.getLevel());
+        try {
+            deflater.setInput(original);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + original.length / 2);
+            out.write(FORMAT_VERSION);
+            out.write(CODEC_DEFLATE);
+            out.writeBytes(ByteBuffer.allocate(4).putInt(original.length).array());
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] blob) {
+        if (blob.length < HEADER_SIZE || blob[0] != FORMAT_VERSION) {
+            throw new IllegalStateException("Unknown message content format: " + (blob.length > 0 ? blob[0] : -1));
+        }
+        if (blob[1] != CODEC_DEFLATE) {
+            throw new IllegalStateException("Unknown message content codec: " + blob[1]);
+        }
+        int length = ByteBuffer.wrap(blob, 2, 4).getInt();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(blob, HEADER_SIZE, blob.length - HEADER_SIZE);
+            byte[] original = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(original, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IllegalStateException("Truncated message content: expected " + length + " bytes but got " + read);
+            }
+            return new String(original, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt message content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Values for the {@code content} and {@code content_blob} columns
+     */
+    public record Encoded(String content, byte[] blob) {
+        static Encoded plain(String content) {
+            return new Encoded(content, null);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for moving ended conversations to the local cold-storage segments
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.archive")
+public class ArchiveProperties {
+
+    /**
+     * 아카이브 작업 실행 여부 (꺼져 있어도 이미 아카이브된 대화는 읽는다)
+     */
+    private boolean enabled = false;
+
+    /**
+     * 아카이브 세그먼트 파일 디렉터리. 여러 인스턴스가 읽으려면 공유 볼륨이어야 한다
+     */
+    private Path directory = Path.of("data", "archive");
+
+    /**
+     * 종료 후 이 기간이 지난 대화를 아카이브
+     */
+    private Duration after = Duration.ofDays(30);
+
+    /**
+     * 작업 실행 주기
+     */
+    private Duration interval = Duration.ofMinutes(10);
+
+    /**
+     * 한 청크(한 트랜잭션)에서 옮기는 대화 수
+     */
+    private int chunkSize = 50;
+
+    /**
+     * 한 번 실행할 때 처리하는 최대 청크 수
+     */
+    private int maxChunksPerRun = 100;
+
+    /**
+     * 작업이 차지하는 시간 비율 (0.2면 청크 처리 시간의 4배만큼 쉰다)
+     */
+    private double dutyCycle = 0.2;
+
+    /**
+     * 세그먼트 파일 하나의 최대 크기
+     */
+    private DataSize maxSegmentSize = DataSize.ofMegabytes(256);
+}
@@ -0,0 +1,27 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for compressing large message contents at rest
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.compression")
+public class CompressionProperties {
+
+    /**
+     * 꺼져 있어도 이미 압축 저장된 메시지는 정상적으로 읽는다
+     */
+    private boolean enabled = false;
+
+    /**
+     * 이 길이(문자 수) 이상인 본문만 압축
+     */
+    private int minLength = 1_024;
+
+    /**
+     * Deflate 압축 레벨 (1: 빠름 ~ 9: 작게)
+     */
+    private int level = 6;
+}
@@ -0,0 +1,31 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the in-memory hot conversation cache
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.cache")
+public class ConversationCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 캐시에 유지할 최대 대화 수
+     */
+    private long maxConversations = 10_000;
+
+    /**
+     * 마지막 쓰기 이후 항목을 유지하는 시간 (다른 인스턴스의 쓰기는 조회 시 DB 카운터와 비교해 걸러낸다)
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * 대화당 보관하는 최근 메시지 수
+     */
+    private int tailSize = 200;
+}
@@ -18,6 +18,7 @@ public class CorsConfig implements WebMvcConfigurer {
 				)
 				.allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
 				.allowedHeaders("*")
+				.exposedHeaders("ETag")
 				.allowCredentials(true)
 				.maxAge(3600);
 	}
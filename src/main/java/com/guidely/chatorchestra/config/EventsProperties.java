@@ -0,0 +1,29 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for Server-Sent Events subscriptions
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.events")
+public class EventsProperties {
+
+    /**
+     * 구독 연결의 최대 유지 시간 (클라이언트는 Last-Event-ID로 재연결)
+     */
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    /**
+     * 끊긴 연결을 감지하기 위한 heartbeat 주기
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Last-Event-ID로 재연결할 때 다시 보내는 최대 메시지 수
+     */
+    private int maxReplay = 1_000;
+}
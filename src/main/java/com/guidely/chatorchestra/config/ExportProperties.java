@@ -0,0 +1,22 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the NDJSON conversation export
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.export")
+public class ExportProperties {
+
+    /**
+     * DB 커서가 한 번에 가져오는 행 수 (MySQL은 useCursorFetch=true일 때 적용)
+     */
+    private int fetchSize = 500;
+
+    /**
+     * 이 행 수마다 응답 버퍼를 flush
+     */
+    private int flushEveryRows = 1_000;
+}
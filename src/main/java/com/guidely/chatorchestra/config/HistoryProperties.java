@@ -0,0 +1,34 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for conversation history paging
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.history")
+public class HistoryProperties {
+
+    /**
+     * limit 파라미터가 없을 때 한 번에 돌려주는 메시지 수
+     */
+    private int defaultLimit = 50;
+
+    /**
+     * 요청 가능한 최대 limit
+     */
+    private int maxLimit = 200;
+
+    /**
+     * 종료된 대화 조회 응답의 Cache-Control max-age (종료 후에는 내용이 바뀌지 않는다)
+     */
+    private Duration endedMaxAge = Duration.ofDays(30);
+
+    /**
+     * 활성 대화 조회 응답을 DTO 목록으로 만들지 않고 DB 커서에서 읽는 대로 JSON으로 쓴다
+     */
+    private boolean streamingEnabled = false;
+}
@@ -0,0 +1,42 @@
+package com.guidely.chatorchestra.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidely.chatorchestra.metrics.TimedJacksonHttpMessageConverter;
+import com.guidely.chatorchestra.web.converter.SerializedEnvelopeHttpMessageConverter;
+import com.guidely.chatorchestra.web.converter.StreamingEnvelopeHttpMessageConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Registers the JSON response converters, each timing its writes: Jackson-built bodies,
+ * streamed conversation pages and cached, already serialised responses
+ */
+@Configuration
+public class HttpMessageConverterConfig {
+
+    /**
+     * Replaces Spring Boot's default Jackson converter, keeping the auto-configured ObjectMapper
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    /**
+     * Spring Boot places converter beans ahead of the defaults, so the envelope converters are asked before Jackson
+     */
+    @Bean
+    public StreamingEnvelopeHttpMessageConverter streamingEnvelopeHttpMessageConverter(ObjectMapper objectMapper,
+                                                                                       MeterRegistry meterRegistry) {
+        return new StreamingEnvelopeHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public SerializedEnvelopeHttpMessageConverter serializedEnvelopeHttpMessageConverter(ObjectMapper objectMapper,
+                                                                                         MeterRegistry meterRegistry) {
+        return new SerializedEnvelopeHttpMessageConverter(objectMapper, meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.guidely.chatorchestra.config;
+
+import com.guidely.chatorchestra.id.IdGenerator;
+import com.guidely.chatorchestra.id.TimeOrderedIdGenerator;
+import com.guidely.chatorchestra.id.TsidGenerator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the id generator shared by JPA entities and JDBC batch inserts
+ */
+@Configuration
+public class IdConfig {
+
+    @Bean
+    public IdGenerator idGenerator(IdProperties properties) {
+        return new TsidGenerator(properties.getWorkerId(), properties.getEpoch());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorHibernatePropertiesCustomizer(IdGenerator idGenerator) {
+        return properties -> properties.put(TimeOrderedIdGenerator.SETTING, idGenerator);
+    }
+}
@@ -0,0 +1,24 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Instant;
+
+/**
+ * Configuration for application-assigned conversation and message ids
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.id")
+public class IdProperties {
+
+    /**
+     * 인스턴스마다 달라야 하는 작업자 번호 (0~31). 같은 번호를 쓰는 인스턴스가 둘이면 id가 충돌할 수 있다
+     */
+    private int workerId = 0;
+
+    /**
+     * id 시간 부분의 기준 시각. 운영 중에 바꾸면 id 순서가 깨지므로 고정한다
+     */
+    private Instant epoch = Instant.parse("2024-01-01T00:00:00Z");
+}
@@ -0,0 +1,34 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for Idempotency-Key handling on conversation and message creation
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * 메모리 중복 제거 창 사용 여부 (꺼도 DB 유니크 인덱스로 중복 저장은 막힌다)
+     */
+    private boolean enabled = true;
+
+    /**
+     * 처리한 키의 응답을 메모리에 보관하는 시간
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * 메모리에 보관하는 최대 키 수
+     */
+    private long maxEntries = 100_000;
+
+    /**
+     * 허용하는 키의 최대 길이 (DB 컬럼 길이)
+     */
+    private int maxKeyLength = 128;
+}
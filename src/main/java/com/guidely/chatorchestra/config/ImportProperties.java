@@ -0,0 +1,27 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits for the bulk message and conversation import endpoints
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.import")
+public class ImportProperties {
+
+    /**
+     * 요청 하나에 담을 수 있는 최대 메시지 수
+     */
+    private int maxMessages = 5_000;
+
+    /**
+     * 요청 하나에 담을 수 있는 최대 대화 수
+     */
+    private int maxConversations = 500;
+
+    /**
+     * JDBC 배치 한 번에 보내는 행 수
+     */
+    private int jdbcBatchSize = 500;
+}
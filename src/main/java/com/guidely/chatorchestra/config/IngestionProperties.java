@@ -0,0 +1,39 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the micro-batched message ingestion pipeline
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.ingestion")
+public class IngestionProperties {
+
+    /**
+     * 활성화 시 appendMessage 요청을 모아서 하나의 트랜잭션으로 저장
+     */
+    private boolean enabled = false;
+
+    /**
+     * 첫 메시지가 들어온 뒤 배치를 모으는 최대 대기 시간
+     */
+    private Duration window = Duration.ofMillis(5);
+
+    /**
+     * 한 번에 커밋하는 최대 메시지 수
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * 대기열 크기 (가득 차면 호출 스레드가 대기)
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * 대화별 쓰기 잠금 스트라이프 수 (2의 거듭제곱으로 올림). 파이프라인 사용 여부와 무관하게 적용
+     */
+    private int writeLockStripes = 1024;
+}
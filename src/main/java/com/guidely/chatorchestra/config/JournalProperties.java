@@ -0,0 +1,61 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for the local write-ahead journal that acknowledges message posts before MySQL commits
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.journal")
+public class JournalProperties {
+
+    /**
+     * 활성화 시 appendMessage는 저널에 fsync한 뒤 응답하고, DB 반영은 백그라운드에서 한다
+     */
+    private boolean enabled = false;
+
+    /**
+     * 저널 세그먼트 디렉터리. 인스턴스마다 로컬 디스크에 따로 둔다
+     */
+    private Path directory = Path.of("data", "journal");
+
+    /**
+     * 세그먼트 파일 하나의 크기 (미리 할당해 메모리 매핑)
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 첫 쓰기 이후 fsync 전에 다른 쓰기를 기다리는 시간 (0이면 바로 fsync)
+     */
+    private Duration groupCommitWindow = Duration.ZERO;
+
+    /**
+     * DB에 한 트랜잭션으로 반영하는 최대 항목 수
+     */
+    private int drainBatchSize = 500;
+
+    /**
+     * 반영할 항목이 없을 때 다음 확인까지 기다리는 시간
+     */
+    private Duration drainInterval = Duration.ofMillis(20);
+
+    /**
+     * DB 반영 실패 후 다시 시도하기까지 기다리는 시간
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * 종료 시 남은 항목을 DB에 반영하며 기다리는 최대 시간 (남은 항목은 재시작 후 반영)
+     */
+    private Duration shutdownDrainTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 대화 종료 전에 그 대화의 저널 항목이 DB에 반영되기를 기다리는 최대 시간 (넘으면 503으로 재시도를 요청)
+     */
+    private Duration endDrainTimeout = Duration.ofSeconds(5);
+}
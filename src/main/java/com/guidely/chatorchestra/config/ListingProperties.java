@@ -0,0 +1,22 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the conversation listing API
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.listing")
+public class ListingProperties {
+
+    /**
+     * limit 파라미터가 없을 때 한 번에 돌려주는 대화 수
+     */
+    private int defaultLimit = 20;
+
+    /**
+     * 요청 가능한 최대 limit
+     */
+    private int maxLimit = 100;
+}
@@ -0,0 +1,36 @@
+package com.guidely.chatorchestra.config;
+
+import com.guidely.chatorchestra.ratelimit.ConcurrencyLimitInterceptor;
+import com.guidely.chatorchestra.ratelimit.MessageRateLimitInterceptor;
+import com.guidely.chatorchestra.ratelimit.RequestRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the load-shedding and rate-limit interceptors
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties properties;
+    private final RequestRateLimiter requestRateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isConcurrencyLimitEnabled()) {
+            // SSE와 내보내기는 비동기 응답이라 요청 스레드가 끝나도 계속 열려 있으므로 허가 대상에서 제외
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(properties, meterRegistry))
+                    .addPathPatterns("/api/**")
+                    .excludePathPatterns("/api/conversations/*/events", "/api/conversations/export")
+                    .order(0);
+        }
+        registry.addInterceptor(new MessageRateLimitInterceptor(requestRateLimiter))
+                .addPathPatterns("/api/conversations/*/messages")
+                .order(1);
+    }
+}
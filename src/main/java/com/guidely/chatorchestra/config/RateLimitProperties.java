@@ -0,0 +1,66 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for per-client/per-conversation rate limits and the global concurrency limit
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 메시지 추가 요청의 토큰 버킷 제한 사용 여부. 버킷은 원격 주소로 나뉘므로 프록시 뒤에서는
+     * server.forward-headers-strategy를 native/framework로 설정한 뒤에 켠다 (none이면 모든 요청이 프록시 주소 하나로 묶인다)
+     */
+    private boolean enabled = false;
+
+    /**
+     * 클라이언트(원격 주소)별 초당 허용 메시지 수
+     */
+    private double clientPermitsPerSecond = 10;
+
+    /**
+     * 클라이언트별 순간 허용량 (버킷 크기)
+     */
+    private int clientBurst = 20;
+
+    /**
+     * 대화별 초당 허용 메시지 수
+     */
+    private double conversationPermitsPerSecond = 5;
+
+    /**
+     * 대화별 순간 허용량 (버킷 크기)
+     */
+    private int conversationBurst = 10;
+
+    /**
+     * 메모리에 유지하는 최대 버킷 수 (종류별)
+     */
+    private long maxBuckets = 100_000;
+
+    /**
+     * 이 시간 동안 요청이 없던 버킷은 제거 (다시 오면 가득 찬 버킷으로 시작)
+     */
+    private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * 동시 처리 제한 사용 여부
+     */
+    private boolean concurrencyLimitEnabled = false;
+
+    /**
+     * 동시에 처리하는 최대 API 요청 수. Hikari 풀 크기(기본 10, virtual-threads 프로필은 DB_POOL_MAX_SIZE) 이하로 두어
+     * 풀이 포화되기 전에 거절한다
+     */
+    private int maxConcurrentRequests = 10;
+
+    /**
+     * 자리가 날 때까지 기다리는 최대 시간. 넘으면 503으로 거절
+     */
+    private Duration acquireTimeout = Duration.ofMillis(50);
+}
@@ -0,0 +1,25 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration for the cache of serialised ended-conversation responses
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 보관하는 직렬화 결과의 총 크기. 넘으면 오래 쓰이지 않은 항목부터 제거한다
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 직렬화 결과를 힙 밖(direct buffer)에 둘지 여부. 켜면 -XX:MaxDirectMemorySize를 maxSize보다 넉넉하게 둔다
+     */
+    private boolean offHeap = false;
+}
@@ -0,0 +1,54 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the job that deletes expired conversations and their messages
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.retention")
+public class RetentionProperties {
+
+    /**
+     * 보존 기간 삭제 작업 실행 여부
+     */
+    private boolean enabled = false;
+
+    /**
+     * 종료 후 이 기간이 지난 대화를 삭제
+     */
+    private Duration retainFor = Duration.ofDays(365);
+
+    /**
+     * 작업 실행 주기
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * 한 번에 선택하는 만료 대화 수
+     */
+    private int conversationBatchSize = 100;
+
+    /**
+     * DELETE 한 문장(한 트랜잭션)이 지우는 최대 메시지 행 수
+     */
+    private int deleteBatchSize = 2000;
+
+    /**
+     * 작업이 차지하는 시간 비율 (0.2면 DELETE 시간의 4배만큼 쉰다)
+     */
+    private double dutyCycle = 0.2;
+
+    /**
+     * 초당 삭제 행 수 상한. 복제 지연이 쌓이지 않도록 바이너리 로그 생성 속도를 제한한다
+     */
+    private int maxRowsPerSecond = 5000;
+
+    /**
+     * 한 번 실행할 때의 최대 시간. 남은 대화는 체크포인트부터 다음 실행에서 이어서 처리
+     */
+    private Duration maxRunTime = Duration.ofMinutes(10);
+}
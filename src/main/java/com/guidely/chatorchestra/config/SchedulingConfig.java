@@ -0,0 +1,13 @@
+package com.guidely.chatorchestra.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs. They share Boot's task scheduler, whose pool is sized by
+ * {@code spring.task.scheduling.pool.size} so one slow job does not hold up the others.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
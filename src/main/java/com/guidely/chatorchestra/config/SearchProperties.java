@@ -0,0 +1,75 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for the in-process message search index
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.search")
+public class SearchProperties {
+
+    /**
+     * 켜면 기동 시 세그먼트 이후의 메시지를 DB에서 모두 읽어 색인한다 (세그먼트가 없으면 messages 전체)
+     */
+    private boolean enabled = false;
+
+    /**
+     * 인덱스 세그먼트 파일을 저장하는 로컬 디렉터리
+     */
+    private Path directory = Path.of("data", "search-index");
+
+    /**
+     * 메모리에 쌓인 새 메시지를 세그먼트로 내리는 주기
+     */
+    private Duration flushInterval = Duration.ofSeconds(30);
+
+    /**
+     * 메모리 버퍼가 이 메시지 수에 도달하면 주기와 관계없이 flush
+     */
+    private int flushThreshold = 2_000;
+
+    /**
+     * 다른 인스턴스가 저장한 메시지를 DB에서 읽어 오는 주기
+     */
+    private Duration pollInterval = Duration.ofSeconds(10);
+
+    /**
+     * 주기 확인 때 마지막으로 읽은 위치보다 이 시간만큼 앞의 id부터 다시 읽는다.
+     * 다른 인스턴스나 느린 트랜잭션이 더 작은 id를 늦게 커밋해도 놓치지 않도록 최대 커밋 지연보다 길게 둔다
+     */
+    private Duration pollLag = Duration.ofSeconds(30);
+
+    /**
+     * 세그먼트가 이 개수를 넘으면 하나로 병합
+     */
+    private int maxSegments = 8;
+
+    /**
+     * 시작 시 DB에서 읽어 오는 배치 크기
+     */
+    private int rebuildBatchSize = 1_000;
+
+    /**
+     * 시작 시 세그먼트의 마지막 id보다 이만큼 앞에서부터 다시 읽는다 (커밋 순서가 id 순서와 다를 수 있음)
+     */
+    private long rebuildOverlap = 10_000;
+
+    private int defaultLimit = 20;
+
+    private int maxLimit = 100;
+
+    /**
+     * 한 번의 검색에서 DB로 본문을 확인하는 최대 후보 수
+     */
+    private int maxCandidates = 2_000;
+
+    /**
+     * 스니펫 길이 (문자 수)
+     */
+    private int snippetLength = 80;
+}
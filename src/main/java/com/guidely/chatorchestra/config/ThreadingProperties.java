@@ -0,0 +1,24 @@
+package com.guidely.chatorchestra.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Diagnostics for the virtual-thread execution mode
+ */
+@Data
+@ConfigurationProperties(prefix = "chat-orchestra.threads")
+public class ThreadingProperties {
+
+    /**
+     * 가상 스레드 모드에서 JFR로 pinning 이벤트를 수집할지 여부
+     */
+    private boolean pinningMonitorEnabled = true;
+
+    /**
+     * 이 시간 이상 carrier 스레드에 고정된 경우만 기록
+     */
+    private Duration pinningThreshold = Duration.ofMillis(20);
+}
@@ -1,22 +1,36 @@
 package com.guidely.chatorchestra.controller;
 
+import com.guidely.chatorchestra.cache.ConversationResponseCache;
+import com.guidely.chatorchestra.config.HistoryProperties;
 import com.guidely.chatorchestra.dto.ResponseEnvelope;
+import com.guidely.chatorchestra.dto.SerializedEnvelope;
+import com.guidely.chatorchestra.dto.StreamingEnvelope;
 import com.guidely.chatorchestra.dto.conversation.*;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.metrics.ConversationMetrics;
 import com.guidely.chatorchestra.model.Conversation;
 import com.guidely.chatorchestra.model.enums.MessageRole;
 import com.guidely.chatorchestra.service.ConversationService; // Added import
+import com.guidely.chatorchestra.service.ConversationVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
+import java.nio.ByteBuffer;
+import java.time.Instant;
 import java.time.ZoneOffset;
 
 /**
@@ -30,15 +44,23 @@ import java.time.ZoneOffset;
 @Tag(name = "Conversation", description = "Conversation management endpoints")
 public class ConversationController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final ConversationService conversationService;
+    private final HistoryProperties historyProperties;
+    private final ConversationMetrics conversationMetrics;
+    private final ConversationResponseCache conversationResponseCache;
 
     @PostMapping
-    @Operation(summary = "Start a new conversation", description = "Creates a new conversation session")
-    public ResponseEntity<ResponseEnvelope<StartConversationResponse>> startConversation() {
+    @Operation(summary = "Start a new conversation", 
+            description = "Creates a new conversation session; retries with the same Idempotency-Key return the same session")
+    public ResponseEntity<ResponseEnvelope<StartConversationResponse>> startConversation(
+            @Parameter(description = "Client-generated key identifying this request across retries") 
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         
         log.info("Starting new conversation");
         
-        Conversation conversation = conversationService.startSession();
+        Conversation conversation = conversationService.startSession(idempotencyKey);
         
         StartConversationResponse response = StartConversationResponse.builder()
                 .sessionId(conversation.getId())
@@ -51,22 +73,55 @@ public class ConversationController {
                 .body(ResponseEnvelope.success(response));
     }
     
+    @GetMapping
+    @Operation(summary = "List conversations", 
+            description = "Lists conversations newest first with time-range and status filters and cursor pagination")
+    public ResponseEntity<ResponseEnvelope<ListConversationsResponse>> listConversations(
+            @Parameter(description = "Filter by status: active or ended") 
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Started at or after this instant (ISO-8601)") 
+            @RequestParam(name = "started_from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startedFrom,
+            @Parameter(description = "Started before this instant (ISO-8601)") 
+            @RequestParam(name = "started_to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startedTo,
+            @Parameter(description = "Ended at or after this instant (ISO-8601)") 
+            @RequestParam(name = "ended_from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endedFrom,
+            @Parameter(description = "Ended before this instant (ISO-8601)") 
+            @RequestParam(name = "ended_to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endedTo,
+            @Parameter(description = "next_cursor from the previous page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of conversations to return") 
+            @RequestParam(required = false) Integer limit) {
+        
+        log.info("Listing conversations, status: {}, cursor: {}", status, cursor);
+        
+        ListConversationsResponse response = conversationService.listSessions(status,
+                MessageMapper.toLocalDateTime(startedFrom), MessageMapper.toLocalDateTime(startedTo),
+                MessageMapper.toLocalDateTime(endedFrom), MessageMapper.toLocalDateTime(endedTo),
+                cursor, limit);
+        
+        return ResponseEntity.ok(ResponseEnvelope.success(response));
+    }
+    
     @PostMapping("/{conversationId}/messages")
-    @Operation(summary = "Post a message", description = "Adds a message to the conversation")
+    @Operation(summary = "Post a message", 
+            description = "Adds a message to the conversation; retries with the same Idempotency-Key return the original message")
     public ResponseEntity<ResponseEnvelope<PostMessageResponse>> postMessage(
             @Parameter(description = "Conversation ID") @PathVariable Long conversationId,
+            @Parameter(description = "Client-generated key identifying this request across retries") 
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody PostMessageRequest request) {
         
         log.info("Posting message to conversation: {}, role: {}", conversationId, request.getRole());
         
         // MessageRole을 String으로 변환 (ERD에서는 speaker가 varchar)
-        String speaker = request.getRole().name().toLowerCase();
+        String speaker = MessageMapper.toSpeaker(request.getRole());
         
         PostMessageResponse response = conversationService.appendMessage(
                 conversationId,
                 speaker,
                 request.getContent(),
-                "Mock assistant preview" // 임시
+                "Mock assistant preview", // 임시
+                idempotencyKey
         );
         
         return ResponseEntity.ok(ResponseEnvelope.success(response));
@@ -76,16 +131,81 @@ public class ConversationController {
     
 
 
+    /**
+     * ETag는 메시지 수/마지막 메시지 id/종료 여부로 만든다. If-None-Match가 일치하면 메시지를 읽거나
+     * 직렬화하지 않고 304를 돌려준다. 종료된 대화는 바뀌지 않으므로 오래 캐시하도록 하고,
+     * 서버에서도 직렬화한 본문을 보관해 다시 만들지 않는다.
+     */
     @GetMapping("/{conversationId}")
-    @Operation(summary = "Get conversation", description = "Retrieves conversation details with messages")
-    public ResponseEntity<ResponseEnvelope<GetConversationResponse>> getConversation(
-            @Parameter(description = "Conversation ID") @PathVariable Long conversationId) {
+    @Operation(summary = "Get conversation", 
+            description = "Retrieves conversation details with a cursor-paginated slice of messages; "
+                    + "supports If-None-Match")
+    public ResponseEntity<?> getConversation(
+            @Parameter(description = "Conversation ID") @PathVariable Long conversationId,
+            @Parameter(description = "Return messages older than this message ID") 
+            @RequestParam(required = false) Long before,
+            @Parameter(description = "Return messages newer than this message ID (use next_cursor for polling)") 
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of messages to return") 
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "ETag of a previously received response") 
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         log.info("Getting conversation: {}", conversationId);
         
-        GetConversationResponse response = conversationService.getSession(conversationId);
+        ConversationVersion version = conversationService.getSessionVersion(conversationId);
+        String etag = toETag(version);
+        CacheControl cacheControl = version.isEnded()
+                ? CacheControl.maxAge(historyProperties.getEndedMaxAge()).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+        if (ifNoneMatch != null) {
+            boolean notModified = matchesETag(ifNoneMatch, etag);
+            conversationMetrics.recordConditionalRead(notModified);
+            if (notModified) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .build();
+            }
+        }
         
-        return ResponseEntity.ok(ResponseEnvelope.success(response));
+        if (version.isEnded() && conversationResponseCache.isEnabled()) {
+            ByteBuffer data = conversationResponseCache.get(conversationId, etag, before, after, limit,
+                    () -> conversationService.getSession(conversationId, before, after, limit));
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .body(SerializedEnvelope.success(data));
+        }
+        
+        // 버전을 먼저 읽었으므로 본문이 ETag보다 새로울 수는 있어도 오래될 수는 없다
+        if (historyProperties.isStreamingEnabled()) {
+            // 메시지는 응답을 쓰는 동안 DB 커서에서 읽는다
+            StreamingEnvelope.DataWriter data = conversationService.streamSession(conversationId, before, after, limit);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .body(StreamingEnvelope.success(data));
+        }
+        GetConversationResponse response = conversationService.getSession(conversationId, before, after, limit);
+        
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(ResponseEnvelope.success(response));
+    }
+    
+    @GetMapping(value = "/{conversationId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to conversation events", 
+            description = "Server-Sent Events stream of new messages; resume with the Last-Event-ID header")
+    public SseEmitter subscribe(
+            @Parameter(description = "Conversation ID") @PathVariable Long conversationId,
+            @Parameter(description = "ID of the last message received before reconnecting") 
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        
+        log.info("Subscribing to conversation events: {}, Last-Event-ID: {}", conversationId, lastEventId);
+        
+        return conversationService.subscribe(conversationId, lastEventId);
     }
     
     @PutMapping("/{conversationId}/end")
@@ -110,8 +230,29 @@ public class ConversationController {
         
         return ResponseEntity.ok(ResponseEnvelope.success(response));
     }
+    
+    private static String toETag(ConversationVersion version) {
+        return "W/\"" + version.getConversationId() + "-" + version.getMessageCount() + "-"
+                + version.getLastMessageId() + (version.isEnded() ? "-e" : "-a") + "\"";
+    }
+    
+    /**
+     * Weak comparison against every entity tag in an If-None-Match header
+     */
+    static boolean matchesETag(String ifNoneMatch, String etag) {
+        String expected = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
-
-
-
-
@@ -0,0 +1,55 @@
+package com.guidely.chatorchestra.controller;
+
+import com.guidely.chatorchestra.service.ConversationExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+
+/**
+ * REST controller for streaming transcript exports
+ */
+@RestController
+@RequestMapping("/api/conversations")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Conversation Export", description = "Streaming export for analytics")
+public class ConversationExportController {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ConversationExportService conversationExportService;
+
+    @GetMapping("/export")
+    @Operation(summary = "Export conversations as NDJSON", 
+            description = "Streams one line per conversation followed by one line per message, filtered by started_at")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Include conversations started at or after this instant (ISO-8601)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Include conversations started before this instant (ISO-8601)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        
+        log.info("Exporting conversations, from: {}, to: {}", from, to);
+        
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        
+        StreamingResponseBody body = out -> conversationExportService.export(from, to, out);
+        
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,63 @@
+package com.guidely.chatorchestra.controller;
+
+import com.guidely.chatorchestra.dto.ResponseEnvelope;
+import com.guidely.chatorchestra.dto.conversation.BatchPostMessagesRequest;
+import com.guidely.chatorchestra.dto.conversation.BatchPostMessagesResponse;
+import com.guidely.chatorchestra.dto.conversation.BulkCreateConversationsRequest;
+import com.guidely.chatorchestra.dto.conversation.BulkCreateConversationsResponse;
+import com.guidely.chatorchestra.service.MessageImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for bulk imports of conversations and messages
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+@Tag(name = "Conversation Import", description = "Batch endpoints for offline kiosks and transcript replay")
+public class ConversationImportController {
+
+    private final MessageImportService messageImportService;
+
+    @PostMapping("/conversations/{conversationId}/messages:batch")
+    @Operation(summary = "Post messages in batch", 
+            description = "Adds an ordered list of messages in one transaction and returns their IDs in order")
+    public ResponseEntity<ResponseEnvelope<BatchPostMessagesResponse>> postMessages(
+            @Parameter(description = "Conversation ID") @PathVariable Long conversationId,
+            @Valid @RequestBody BatchPostMessagesRequest request) {
+        
+        log.info("Posting {} messages to conversation: {}", request.getMessages().size(), conversationId);
+        
+        BatchPostMessagesResponse response = messageImportService.appendMessages(conversationId, request.getMessages());
+        
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ResponseEnvelope.success(response));
+    }
+    
+    @PostMapping("/conversations:batch")
+    @Operation(summary = "Create conversations in batch", 
+            description = "Creates conversations together with their messages in one transaction")
+    public ResponseEntity<ResponseEnvelope<BulkCreateConversationsResponse>> createConversations(
+            @Valid @RequestBody BulkCreateConversationsRequest request) {
+        
+        log.info("Creating {} conversations in batch", request.getConversations().size());
+        
+        BulkCreateConversationsResponse response = BulkCreateConversationsResponse.builder()
+                .conversations(messageImportService.createConversations(request.getConversations()))
+                .build();
+        
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ResponseEnvelope.success(response));
+    }
+}
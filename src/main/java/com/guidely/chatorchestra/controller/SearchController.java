@@ -0,0 +1,44 @@
+package com.guidely.chatorchestra.controller;
+
+import com.guidely.chatorchestra.dto.ResponseEnvelope;
+import com.guidely.chatorchestra.dto.search.SearchMessagesResponse;
+import com.guidely.chatorchestra.service.MessageSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for searching message content
+ */
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Search", description = "Full-text search over messages")
+public class SearchController {
+
+    private final MessageSearchService messageSearchService;
+
+    @GetMapping("/messages")
+    @Operation(summary = "Search messages", 
+            description = "Finds messages containing all query words, newest first, with snippets")
+    public ResponseEntity<ResponseEnvelope<SearchMessagesResponse>> searchMessages(
+            @Parameter(description = "Search words (Korean matched by syllable bigrams)") 
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Return messages older than this message ID (use next_cursor)") 
+            @RequestParam(required = false) Long before,
+            @Parameter(description = "Maximum number of hits to return") 
+            @RequestParam(required = false) Integer limit) {
+        
+        SearchMessagesResponse response = messageSearchService.search(q, before, limit);
+        
+        return ResponseEntity.ok(ResponseEnvelope.success(response));
+    }
+}
@@ -0,0 +1,44 @@
+package com.guidely.chatorchestra.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Warns at startup when the export and history streams would be buffered in memory. MySQL
+ * Connector/J ignores {@code setFetchSize} and reads the whole result set into the heap unless
+ * the connection has {@code useCursorFetch=true}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CursorFetchCheck {
+
+    private static final String HIKARI_PROPERTY = "spring.datasource.hikari.data-source-properties.useCursorFetch";
+
+    private final Environment environment;
+
+    @PostConstruct
+    void check() {
+        String url = environment.getProperty("spring.datasource.url", "");
+        if (!streams(url, environment.getProperty(HIKARI_PROPERTY))) {
+            log.warn("MySQL datasource without useCursorFetch=true: conversation export and streamed history "
+                    + "will load the whole result set into memory. Add useCursorFetch=true to the JDBC URL.");
+        }
+    }
+
+    /**
+     * False only for a MySQL URL that enables cursor fetch neither in its query string nor through Hikari
+     */
+    static boolean streams(String url, String hikariUseCursorFetch) {
+        String lower = url.toLowerCase(Locale.ROOT);
+        if (!lower.startsWith("jdbc:mysql")) {
+            return true;
+        }
+        return lower.contains("usecursorfetch=true") || Boolean.parseBoolean(hikariUseCursorFetch);
+    }
+}
@@ -0,0 +1,30 @@
+package com.guidely.chatorchestra.dto;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * Successful {@link ResponseEnvelope} whose {@code data} is already serialised JSON. Written by
+ * {@code SerializedEnvelopeHttpMessageConverter} in the same format Jackson gives the envelope.
+ */
+@Getter
+public class SerializedEnvelope {
+
+    private final ByteBuffer data;
+    private final Instant timestamp;
+
+    private SerializedEnvelope(ByteBuffer data, Instant timestamp) {
+        this.data = data;
+        this.timestamp = timestamp;
+    }
+
+    public static SerializedEnvelope success(ByteBuffer data) {
+        return new SerializedEnvelope(data, Instant.now());
+    }
+
+    public static SerializedEnvelope success(ByteBuffer data, Instant timestamp) {
+        return new SerializedEnvelope(data, timestamp);
+    }
+}
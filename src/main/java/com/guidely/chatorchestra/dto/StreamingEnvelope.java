@@ -0,0 +1,40 @@
+package com.guidely.chatorchestra.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Successful {@link ResponseEnvelope} whose {@code data} is written straight to the JSON generator
+ * while the response is being sent, instead of being built in memory first. Written by
+ * {@code StreamingEnvelopeHttpMessageConverter} in the same format Jackson gives the envelope.
+ */
+@Getter
+public class StreamingEnvelope {
+
+    private final DataWriter data;
+    private final Instant timestamp;
+
+    private StreamingEnvelope(DataWriter data, Instant timestamp) {
+        this.data = data;
+        this.timestamp = timestamp;
+    }
+
+    public static StreamingEnvelope success(DataWriter data) {
+        return new StreamingEnvelope(data, Instant.now());
+    }
+
+    public static StreamingEnvelope success(DataWriter data, Instant timestamp) {
+        return new StreamingEnvelope(data, timestamp);
+    }
+
+    /**
+     * Writes exactly one JSON value, the envelope's {@code data}
+     */
+    @FunctionalInterface
+    public interface DataWriter {
+        void writeTo(JsonGenerator generator) throws IOException;
+    }
+}
@@ -0,0 +1,25 @@
+package com.guidely.chatorchestra.dto.conversation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for posting an ordered batch of messages to one conversation
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchPostMessagesRequest {
+    @NotEmpty(message = "Messages are required")
+    @Valid
+    private List<PostMessageRequest> messages;
+}
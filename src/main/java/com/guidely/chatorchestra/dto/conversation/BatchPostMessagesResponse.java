@@ -0,0 +1,22 @@
+package com.guidely.chatorchestra.dto.conversation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a message batch, ids in request order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchPostMessagesResponse {
+    private Long sessionId;
+    private List<Long> messageIds;
+}
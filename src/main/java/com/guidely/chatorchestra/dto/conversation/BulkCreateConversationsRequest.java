@@ -0,0 +1,39 @@
+package com.guidely.chatorchestra.dto.conversation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Request DTO for creating many conversations with their messages in one call
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkCreateConversationsRequest {
+    @NotEmpty(message = "Conversations are required")
+    @Valid
+    private List<ConversationImport> conversations;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ConversationImport {
+        // 비어 있으면 요청 시각으로 기록
+        private Instant startedAt;
+        private Instant endedAt;
+        @Valid
+        private List<PostMessageRequest> messages;
+    }
+}
@@ -23,6 +23,12 @@ public class GetConversationResponse {
     private String status;
     private List<MessageDto> messages;
     private long total;
+    // 다음 조회(after)에 사용할 커서: 응답의 마지막 메시지 ID
+    private Long nextCursor;
+    // 이전 조회(before)에 사용할 커서: 응답의 첫 메시지 ID
+    private Long prevCursor;
+    // 요청한 방향으로 더 조회할 메시지가 있는지 여부
+    private boolean hasMore;
 
     @Data
     @Builder
@@ -31,6 +37,8 @@ public class GetConversationResponse {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class MessageDto {
         private Long messageId;
+        // 대화 안의 순번 (1부터, 빈틈 없음)
+        private Long seq;
         private MessageRole role;
         private String content;
         private Instant createdAt;
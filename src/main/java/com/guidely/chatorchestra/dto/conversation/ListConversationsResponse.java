@@ -0,0 +1,39 @@
+package com.guidely.chatorchestra.dto.conversation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response DTO for listing conversations
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ListConversationsResponse {
+    private List<ConversationSummary> conversations;
+    // 다음 페이지 조회에 그대로 넘기는 불투명 커서 (마지막 페이지면 null)
+    private String nextCursor;
+    private boolean hasMore;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ConversationSummary {
+        private Long sessionId;
+        private String status;
+        private Instant startedAt;
+        private Instant endedAt;
+        private long messageCount;
+        private Instant lastMessageAt;
+    }
+}
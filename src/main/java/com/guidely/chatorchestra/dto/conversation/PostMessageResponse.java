@@ -19,6 +19,8 @@ import java.time.Instant;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class PostMessageResponse {
     private Long messageId;
+    // 대화 안의 순번 (1부터, 빈틈 없음)
+    private Long seq;
     private Long sessionId;
     private MessageRole role;
     private String content;
@@ -0,0 +1,41 @@
+package com.guidely.chatorchestra.dto.search;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.guidely.chatorchestra.model.enums.MessageRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response DTO for message search
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchMessagesResponse {
+    private List<Hit> hits;
+    // 다음 페이지 조회(before)에 사용할 커서: 마지막으로 확인한 메시지 ID
+    private Long nextCursor;
+    private boolean hasMore;
+    // 기동 직후 재색인이 끝나지 않았으면 false (결과가 일부 누락될 수 있음)
+    private boolean complete;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Hit {
+        private Long messageId;
+        private Long sessionId;
+        private MessageRole role;
+        private String snippet;
+        private Instant createdAt;
+    }
+}
@@ -0,0 +1,14 @@
+package com.guidely.chatorchestra.event;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Published once a conversation has been ended
+ */
+@Value
+public class ConversationEndedEvent {
+    Long conversationId;
+    Instant endedAt;
+}
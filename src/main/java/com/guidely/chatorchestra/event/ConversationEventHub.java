@@ -0,0 +1,339 @@
+package com.guidely.chatorchestra.event;
+
+import com.guidely.chatorchestra.config.EventsProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * Fans out committed messages to Server-Sent Events subscribers.
+ * Emitters are async, so an idle subscriber holds no request thread; sends run on the
+ * application task executor rather than on the committing thread.
+ * Each subscriber drains its own queue with at most one task at a time, so events reach it in the
+ * order they were published, and a sequence gap is filled from the database instead of skipped.
+ */
+@Component
+@Slf4j
+public class ConversationEventHub {
+
+    /**
+     * Passed as the last sent sequence number when it is not known; the first event then backfills
+     */
+    public static final long UNKNOWN_SEQ = -1;
+
+    private final EventsProperties properties;
+    private final AsyncTaskExecutor taskExecutor;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Timer fanoutLag;
+    private final Counter sentEvents;
+
+    public ConversationEventHub(EventsProperties properties,
+                                @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.taskExecutor = taskExecutor;
+        this.fanoutLag = Timer.builder("chat.events.fanout.lag")
+                .description("Time from commit to the event being written to a subscriber")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentEvents = Counter.builder("chat.events.sent")
+                .register(meterRegistry);
+        Gauge.builder("chat.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open SSE subscriptions on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a subscriber positioned after {@code lastSentId} and replays what {@code messagesAfter}
+     * returns from there while holding its lock, so events committed during the replay are queued behind
+     * it and de-duplicated by message id. {@code messagesAfter} is also used to fill sequence gaps later.
+     */
+    public SseEmitter subscribe(Long conversationId, long lastSentId, long lastSentSeq,
+                                LongFunction<List<MessageDto>> messagesAfter) {
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(conversationId, emitter, lastSentId, lastSentSeq, messagesAfter);
+
+        subscriber.lock.lock();
+        try {
+            subscribers.computeIfAbsent(conversationId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            subscriberCount.incrementAndGet();
+            emitter.onCompletion(() -> remove(subscriber));
+            emitter.onTimeout(() -> remove(subscriber));
+            emitter.onError(e -> remove(subscriber));
+
+            subscriber.backfill();
+        } finally {
+            subscriber.lock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * Sends an "ended" event to a subscriber of an already ended conversation and closes it
+     */
+    public SseEmitter ended(Long conversationId, List<MessageDto> backlog) {
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(conversationId, emitter, 0, UNKNOWN_SEQ, null);
+        subscriber.lock.lock();
+        try {
+            for (MessageDto message : backlog) {
+                subscriber.sendMessage(message);
+            }
+            subscriber.sendEndedAndComplete();
+        } finally {
+            subscriber.lock.unlock();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageAppended(MessageAppendedEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.getConversationId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        Pending pending = new Pending(event.getMessage(), event.getPublishedAtNanos());
+        targets.forEach(subscriber -> subscriber.enqueue(pending));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConversationEnded(ConversationEndedEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.getConversationId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        // 같은 큐에 넣으므로 먼저 발행된 메시지 이벤트를 앞지르지 않는다
+        targets.forEach(subscriber -> subscriber.enqueue(Pending.ENDED));
+    }
+
+    /**
+     * Queues a heartbeat behind each subscriber's pending events, so the scheduler thread never
+     * blocks on a slow client's socket
+     */
+    @Scheduled(fixedDelayString = "${chat-orchestra.events.heartbeat-interval:15s}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::enqueueHeartbeat));
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> set = subscribers.get(subscriber.conversationId);
+        if (set != null && set.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            if (set.isEmpty()) {
+                subscribers.remove(subscriber.conversationId, set);
+            }
+        }
+    }
+
+    /**
+     * An event waiting in a subscriber's queue; {@link #ENDED} marks the end of the conversation
+     * and {@link #HEARTBEAT} a keep-alive comment
+     */
+    private record Pending(MessageDto message, long publishedAtNanos) {
+        private static final Pending ENDED = new Pending(null, 0);
+        private static final Pending HEARTBEAT = new Pending(null, 0);
+    }
+
+    /**
+     * Sends are serialised with a ReentrantLock rather than a monitor: they block on socket I/O,
+     * and a monitor held across I/O pins a virtual thread to its carrier.
+     */
+    private final class Subscriber {
+        private final Long conversationId;
+        private final SseEmitter emitter;
+        private final LongFunction<List<MessageDto>> messagesAfter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean heartbeatQueued = new AtomicBoolean();
+        private long lastSentId;
+        private long lastSentSeq;
+        private boolean closed;
+
+        private Subscriber(Long conversationId, SseEmitter emitter, long lastSentId, long lastSentSeq,
+                           LongFunction<List<MessageDto>> messagesAfter) {
+            this.conversationId = conversationId;
+            this.emitter = emitter;
+            this.lastSentId = lastSentId;
+            this.lastSentSeq = lastSentSeq;
+            this.messagesAfter = messagesAfter;
+        }
+
+        private void enqueue(Pending event) {
+            pending.add(event);
+            scheduleDrain();
+        }
+
+        /**
+         * 보내지 못한 heartbeat가 큐에 있으면 더 쌓지 않는다
+         */
+        private void enqueueHeartbeat() {
+            if (heartbeatQueued.compareAndSet(false, true)) {
+                enqueue(Pending.HEARTBEAT);
+            }
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                taskExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                lock.lock();
+                try {
+                    fail(e);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * 구독자마다 한 작업만 큐를 비우므로 발행 순서대로 보낸다
+         */
+        private void drain() {
+            lock.lock();
+            try {
+                Pending event;
+                while ((event = pending.poll()) != null) {
+                    if (event == Pending.ENDED) {
+                        // 종료 전에 커밋됐지만 이벤트가 아직 오지 않은 메시지를 먼저 보낸다
+                        backfill();
+                        sendEndedAndComplete();
+                    } else if (event == Pending.HEARTBEAT) {
+                        heartbeatQueued.set(false);
+                        sendHeartbeat();
+                    } else {
+                        deliver(event);
+                    }
+                }
+            } finally {
+                lock.unlock();
+                draining.set(false);
+            }
+            // draining을 내리기 전에 들어온 항목은 스케줄되지 않았으므로 다시 확인한다
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void deliver(Pending event) {
+            MessageDto message = event.message();
+            if (closed || message.getMessageId() <= lastSentId) {
+                return;
+            }
+            if (lastSentSeq == UNKNOWN_SEQ || (message.getSeq() != null && message.getSeq() > lastSentSeq + 1)) {
+                // 앞선 메시지의 이벤트가 늦었거나 다른 노드에서 커밋됨: 버리지 않고 DB에서 채운다
+                backfill();
+            }
+            if (sendMessage(message)) {
+                fanoutLag.record(System.nanoTime() - event.publishedAtNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Sends the committed messages after the last one sent. If they cannot be read, the subscriber
+         * is closed so the client reconnects with Last-Event-ID rather than silently missing messages.
+         */
+        private void backfill() {
+            if (closed || messagesAfter == null) {
+                return;
+            }
+            List<MessageDto> messages;
+            try {
+                messages = messagesAfter.apply(lastSentId);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            for (MessageDto message : messages) {
+                sendMessage(message);
+            }
+        }
+
+        private boolean sendMessage(MessageDto message) {
+            lock.lock();
+            try {
+                if (closed || message.getMessageId() <= lastSentId) {
+                    return false;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(message.getMessageId()))
+                        .name("message")
+                        .data(message, MediaType.APPLICATION_JSON));
+                lastSentId = message.getMessageId();
+                if (message.getSeq() != null) {
+                    lastSentSeq = message.getSeq();
+                }
+                sentEvents.increment();
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                fail(e);
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sendEndedAndComplete() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                emitter.send(SseEmitter.event().name("ended").data(""));
+                closed = true;
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                fail(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sendHeartbeat() {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Exception e) {
+            log.debug("Dropping SSE subscriber for conversation {}: {}", conversationId, e.getMessage());
+            closed = true;
+            emitter.completeWithError(e);
+            remove(this);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.guidely.chatorchestra.event;
+
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import lombok.Value;
+
+/**
+ * Published once a message has been committed
+ */
+@Value
+public class MessageAppendedEvent {
+    Long conversationId;
+    GetConversationResponse.MessageDto message;
+    long publishedAtNanos = System.nanoTime();
+}
@@ -2,12 +2,14 @@ package com.guidely.chatorchestra.exception;
 
 import com.guidely.chatorchestra.dto.ResponseEnvelope;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -72,6 +74,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
     
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ResponseEnvelope<Void>> handleRateLimitExceededException(RateLimitExceededException ex) {
+        log.debug("Rate limited: {}", ex.getMessage());
+        
+        ResponseEnvelope<Void> response = ResponseEnvelope.error(
+                "RATE_LIMITED", 
+                ex.getMessage()
+        );
+        
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.getRetryAfter()))
+                .body(response);
+    }
+    
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ResponseEnvelope<Void>> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        log.debug("Shedding request: {}", ex.getMessage());
+        
+        ResponseEnvelope<Void> response = ResponseEnvelope.error(
+                "OVERLOADED", 
+                ex.getMessage()
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.getRetryAfter()))
+                .body(response);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseEnvelope<Void>> handleGenericException(Exception ex) {
         log.error("Unexpected error occurred", ex);
@@ -83,6 +113,12 @@ public class GlobalExceptionHandler {
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
+    
+    // Retry-After는 초 단위 정수이므로 올림 (최소 1초)
+    private static String retryAfterSeconds(Duration retryAfter) {
+        long millis = retryAfter.toMillis();
+        return String.valueOf(Math.max(1, (millis + 999) / 1000));
+    }
 }
 
 
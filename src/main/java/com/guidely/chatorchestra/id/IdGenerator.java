@@ -0,0 +1,29 @@
+package com.guidely.chatorchestra.id;
+
+import java.time.Instant;
+
+/**
+ * Source of primary keys assigned by the application before insert
+ */
+public interface IdGenerator {
+
+    /**
+     * Returns a new id, greater than every id this generator returned before
+     */
+    long nextId();
+
+    /**
+     * Makes every later {@link #nextId()} greater than {@code id}, which may come from another node.
+     * Generators that cannot order themselves against foreign ids may ignore it.
+     */
+    default void observe(long id) {
+    }
+
+    /**
+     * Smallest id this generator assigns at {@code time}, for re-reading rows that committed out of
+     * id order within a time window. Generators whose ids carry no time return 0.
+     */
+    default long lowestIdAt(Instant time) {
+        return 0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.guidely.chatorchestra.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Hibernate side of {@link TimeOrderedId}. The {@link IdGenerator} bean is handed over through the
+ * {@value #SETTING} property (see {@code IdConfig}) so JPA and JDBC inserts share one sequence.
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    public static final String SETTING = "chat_orchestra.id_generator";
+
+    private final IdGenerator idGenerator;
+
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object configured = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings()
+                .get(SETTING);
+        if (!(configured instanceof IdGenerator generator)) {
+            throw new IllegalStateException("No IdGenerator in Hibernate setting " + SETTING + " for " + member);
+        }
+        this.idGenerator = generator;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return idGenerator.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
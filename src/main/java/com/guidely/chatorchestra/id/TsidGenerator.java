@@ -0,0 +1,103 @@
+package com.guidely.chatorchestra.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered ids: milliseconds since the epoch (41 bits), worker id (5 bits) and a per-millisecond
+ * sequence (7 bits). Ids from one generator strictly increase. The sequence is taken with a CAS on the
+ * last issued value; when a millisecond runs out of sequence numbers, or the clock steps back, the
+ * generator borrows the next millisecond instead of waiting, and the wall clock catches up later.
+ * The ids stay below 2^53 so JavaScript clients read them exactly.
+ */
+public class TsidGenerator implements IdGenerator {
+
+    static final int SEQUENCE_BITS = 7;
+    static final int WORKER_BITS = 5;
+    static final int TIME_BITS = 41;
+
+    public static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIME = (1L << TIME_BITS) - 1;
+    private static final int TIME_SHIFT = WORKER_BITS + SEQUENCE_BITS;
+
+    private final long epochMillis;
+    private final long workerBits;
+    private final LongSupplier clock;
+    // 마지막으로 발급한 (시간 << SEQUENCE_BITS | 순번). 작업자 비트는 붙이지 않는다
+    private final AtomicLong last = new AtomicLong();
+
+    public TsidGenerator(int workerId, Instant epoch) {
+        this(workerId, epoch, System::currentTimeMillis);
+    }
+
+    TsidGenerator(int workerId, Instant epoch, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + ": " + workerId);
+        }
+        if (epoch.toEpochMilli() > clock.getAsLong()) {
+            throw new IllegalArgumentException("Id epoch is in the future: " + epoch);
+        }
+        this.epochMillis = epoch.toEpochMilli();
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        long floor = (clock.getAsLong() - epochMillis) << SEQUENCE_BITS;
+        return compose(advance(floor));
+    }
+
+    /**
+     * 다른 노드가 만든 id의 시간 다음 밀리초로 당겨 이후 id가 항상 더 크게 한다 (시계가 뒤처진 노드 대비)
+     */
+    @Override
+    public void observe(long id) {
+        long time = id >>> TIME_SHIFT;
+        if (time >= MAX_TIME) {
+            return;
+        }
+        long floor = (time + 1) << SEQUENCE_BITS;
+        long current;
+        do {
+            current = last.get();
+            if (current >= floor - 1) {
+                return;
+            }
+        } while (!last.compareAndSet(current, floor - 1));
+    }
+
+    /**
+     * The wall-clock time encoded in an id from this generator
+     */
+    public Instant timestampOf(long id) {
+        return Instant.ofEpochMilli(epochMillis + (id >>> TIME_SHIFT));
+    }
+
+    @Override
+    public long lowestIdAt(Instant time) {
+        long millis = time.toEpochMilli() - epochMillis;
+        return millis <= 0 ? 0 : Math.min(millis, MAX_TIME) << TIME_SHIFT;
+    }
+
+    private long advance(long floor) {
+        long current;
+        long next;
+        do {
+            current = last.get();
+            next = Math.max(floor, current + 1);
+        } while (!last.compareAndSet(current, next));
+        return next;
+    }
+
+    private long compose(long timeAndSequence) {
+        long time = timeAndSequence >>> SEQUENCE_BITS;
+        if (time > MAX_TIME) {
+            throw new IllegalStateException("Id time component overflowed, the epoch must be moved");
+        }
+        return (time << TIME_SHIFT) | workerBits | (timeAndSequence & SEQUENCE_MASK);
+    }
+}
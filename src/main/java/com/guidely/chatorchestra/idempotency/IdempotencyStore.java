@@ -0,0 +1,106 @@
+package com.guidely.chatorchestra.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.guidely.chatorchestra.config.IdempotencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring map from idempotency key to the result of the first request that used it.
+ * A retry that arrives while the first request is still running waits for its result instead
+ * of running the action again. Failed actions are forgotten so the client can retry them.
+ *
+ * <p>Entries are per node and expire after the TTL; callers keep a unique index on the key
+ * as the guarantee across nodes and restarts.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyProperties properties;
+    private final Cache<String, CompletableFuture<Object>> results;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter databaseHits;
+
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        this.hits = Counter.builder("chat.idempotency.requests")
+                .description("Requests with an Idempotency-Key, by whether the in-memory window had it")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("chat.idempotency.requests")
+                .description("Requests with an Idempotency-Key, by whether the in-memory window had it")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.databaseHits = Counter.builder("chat.idempotency.database.hits")
+                .description("Retries caught by the unique index after missing the in-memory window")
+                .register(meterRegistry);
+        Gauge.builder("chat.idempotency.keys", results, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code action} once per {@code scope}/{@code key} within the window and returns its result,
+     * or the result of the earlier call for a repeated key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Supplier<T> action) {
+        validate(key);
+        if (!properties.isEnabled()) {
+            return action.get();
+        }
+        String cacheKey = scope + ':' + key;
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = results.asMap().putIfAbsent(cacheKey, created);
+        if (existing != null) {
+            hits.increment();
+            return (T) await(existing);
+        }
+        misses.increment();
+        try {
+            T result = action.get();
+            created.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            results.asMap().remove(cacheKey, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Records a retry that the database unique index caught
+     */
+    public void recordDatabaseHit() {
+        databaseHits.increment();
+    }
+
+    private void validate(String key) {
+        if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be 1 to " + properties.getMaxKeyLength() + " characters");
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
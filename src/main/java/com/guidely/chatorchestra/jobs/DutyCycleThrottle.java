@@ -0,0 +1,43 @@
+package com.guidely.chatorchestra.jobs;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces a background job so that it is busy for at most the given fraction of wall time.
+ * After each unit of work taking {@code t}, the caller sleeps {@code t * (1 - d) / d}.
+ */
+public final class DutyCycleThrottle {
+
+    private final double dutyCycle;
+
+    public DutyCycleThrottle(double dutyCycle) {
+        if (dutyCycle <= 0 || dutyCycle > 1) {
+            throw new IllegalArgumentException("dutyCycle must be in (0, 1]");
+        }
+        this.dutyCycle = dutyCycle;
+    }
+
+    /**
+     * Sleeps after a unit of work that took {@code workNanos}
+     */
+    public void pause(long workNanos) throws InterruptedException {
+        pause(workNanos, 0);
+    }
+
+    /**
+     * Sleeps after a unit of work so that it also takes at least {@code minPeriodNanos} in total,
+     * and returns the time slept
+     */
+    public long pause(long workNanos, long minPeriodNanos) throws InterruptedException {
+        long sleepNanos = Math.max(sleepNanos(workNanos), minPeriodNanos - workNanos);
+        if (sleepNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            return sleepNanos;
+        }
+        return 0;
+    }
+
+    long sleepNanos(long workNanos) {
+        return (long) (workNanos * (1 - dutyCycle) / dutyCycle);
+    }
+}
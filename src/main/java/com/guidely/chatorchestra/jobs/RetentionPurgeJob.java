@@ -0,0 +1,203 @@
+package com.guidely.chatorchestra.jobs;
+
+import com.guidely.chatorchestra.archive.ArchiveStore;
+import com.guidely.chatorchestra.cache.ConversationCache;
+import com.guidely.chatorchestra.config.ArchiveProperties;
+import com.guidely.chatorchestra.config.RetentionProperties;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.JobCheckpointRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.search.MessageSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes conversations that ended more than the retention period ago, together with their
+ * messages, using bounded set-based DELETEs in short transactions. Nothing goes through JPA,
+ * so no message entity is loaded however long a conversation is. The deleted message ids are
+ * tombstoned in the {@link MessageSearchIndex}.
+ *
+ * <p>Conversations are walked in id order and the last fully deleted id is checkpointed, so
+ * a restart resumes the pass where it stopped. When a pass reaches the end the checkpoint is
+ * reset and the next run starts over with a newer cutoff.
+ *
+ * <p>On the instance that writes the archive, archived conversations past the cutoff are also
+ * tombstoned in the {@link ArchiveStore} by their ended time, and its segments are compacted.
+ */
+@Component
+@Slf4j
+public class RetentionPurgeJob {
+
+    static final String JOB_NAME = "retention-purge";
+
+    private final RetentionProperties properties;
+    private final ArchiveProperties archiveProperties;
+    private final ConversationJdbcRepository conversationJdbcRepository;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final ConversationCache conversationCache;
+    private final ArchiveStore archiveStore;
+    private final MessageSearchIndex messageSearchIndex;
+    private final Counter deletedMessages;
+    private final Counter deletedConversations;
+    private final Counter deletedArchived;
+    private final Timer deleteDuration;
+    private final Timer throttled;
+    private final AtomicLong checkpoint = new AtomicLong();
+
+    public RetentionPurgeJob(RetentionProperties properties,
+                             ArchiveProperties archiveProperties,
+                             ConversationJdbcRepository conversationJdbcRepository,
+                             MessageJdbcRepository messageJdbcRepository,
+                             JobCheckpointRepository jobCheckpointRepository,
+                             ConversationCache conversationCache,
+                             ArchiveStore archiveStore,
+                             MessageSearchIndex messageSearchIndex,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.archiveProperties = archiveProperties;
+        this.conversationJdbcRepository = conversationJdbcRepository;
+        this.messageJdbcRepository = messageJdbcRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.conversationCache = conversationCache;
+        this.archiveStore = archiveStore;
+        this.messageSearchIndex = messageSearchIndex;
+        this.deletedMessages = Counter.builder("chat.retention.deleted")
+                .description("Rows deleted by the retention job")
+                .tag("table", "messages")
+                .register(meterRegistry);
+        this.deletedConversations = Counter.builder("chat.retention.deleted")
+                .description("Rows deleted by the retention job")
+                .tag("table", "conversations")
+                .register(meterRegistry);
+        this.deletedArchived = Counter.builder("chat.retention.deleted")
+                .description("Rows deleted by the retention job")
+                .tag("table", "archive")
+                .register(meterRegistry);
+        this.deleteDuration = Timer.builder("chat.retention.delete.duration")
+                .description("Time spent in one bounded DELETE")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.throttled = Timer.builder("chat.retention.throttle")
+                .description("Time the retention job slept between DELETEs")
+                .register(meterRegistry);
+        Gauge.builder("chat.retention.checkpoint", checkpoint, AtomicLong::get)
+                .description("Last conversation id the current pass has fully deleted")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${chat-orchestra.retention.interval:1h}")
+    public void run() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            purge();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Retention run stopped at conversation {}", checkpoint.get(), e);
+        }
+    }
+
+    void purge() throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetainFor());
+        long deadline = System.nanoTime() + properties.getMaxRunTime().toNanos();
+        DutyCycleThrottle throttle = new DutyCycleThrottle(properties.getDutyCycle());
+        long position = jobCheckpointRepository.find(JOB_NAME).orElse(0L);
+        checkpoint.set(position);
+        long conversations = 0;
+
+        while (System.nanoTime() < deadline) {
+            List<Long> ids = conversationJdbcRepository.findEndedIdsAfter(
+                    position, cutoff, properties.getConversationBatchSize());
+            if (ids.isEmpty()) {
+                // 한 바퀴를 다 돌았으므로 다음 실행은 처음부터 새 기준 시각으로 시작
+                position = 0;
+                jobCheckpointRepository.save(JOB_NAME, position);
+                checkpoint.set(position);
+                break;
+            }
+            if (!deleteMessages(ids, deadline, throttle)) {
+                break;
+            }
+            long started = System.nanoTime();
+            int deleted = conversationJdbcRepository.deleteEnded(ids, cutoff);
+            pace(throttle, deleted, System.nanoTime() - started);
+            deletedConversations.increment(deleted);
+            ids.forEach(conversationCache::evict);
+            conversations += deleted;
+
+            position = ids.get(ids.size() - 1);
+            jobCheckpointRepository.save(JOB_NAME, position);
+            checkpoint.set(position);
+        }
+        if (conversations > 0) {
+            log.info("Retention deleted {} conversations ended before {}", conversations, cutoff);
+        }
+        // 아카이브 세그먼트는 이 인스턴스만 쓰므로 아카이브를 쓰는 인스턴스에서만 정리한다
+        if (archiveProperties.isEnabled()) {
+            purgeArchive(cutoff);
+        }
+    }
+
+    /**
+     * Tombstones archived conversations that ended before the cutoff and compacts the segments.
+     * Goes by the ended time stored in the archive, so it does not depend on which run deleted the rows.
+     */
+    private void purgeArchive(LocalDateTime cutoff) {
+        try {
+            int deleted = archiveStore.deleteEndedBefore(cutoff);
+            deletedArchived.increment(deleted);
+            archiveStore.compact();
+            if (deleted > 0) {
+                log.info("Retention deleted {} archived conversations ended before {}", deleted, cutoff);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to purge the archive", e);
+        }
+    }
+
+    /**
+     * Deletes the conversations' messages in bounded batches; false if the run ran out of time first
+     */
+    private boolean deleteMessages(List<Long> conversationIds, long deadline, DutyCycleThrottle throttle)
+            throws InterruptedException {
+        int batchSize = properties.getDeleteBatchSize();
+        while (true) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            long started = System.nanoTime();
+            List<Long> deleted = messageJdbcRepository.deleteBatchByConversations(conversationIds, batchSize);
+            pace(throttle, deleted.size(), System.nanoTime() - started);
+            deletedMessages.increment(deleted.size());
+            messageSearchIndex.delete(deleted);
+            if (deleted.size() < batchSize) {
+                return true;
+            }
+        }
+    }
+
+    private void pace(DutyCycleThrottle throttle, int rows, long workNanos) throws InterruptedException {
+        deleteDuration.record(workNanos, TimeUnit.NANOSECONDS);
+        int maxRowsPerSecond = properties.getMaxRowsPerSecond();
+        long minPeriodNanos = maxRowsPerSecond > 0 ? rows * 1_000_000_000L / maxRowsPerSecond : 0;
+        long slept = throttle.pause(workNanos, minPeriodNanos);
+        if (slept > 0) {
+            throttled.record(slept, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.guidely.chatorchestra.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidely.chatorchestra.cache.ConversationCache;
+import com.guidely.chatorchestra.config.JournalProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import com.guidely.chatorchestra.event.MessageAppendedEvent;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository.AppendState;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.NewMessageRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies journaled messages to the database in batches, one transaction per batch, in journal order.
+ * Entries already stored under their idempotency key are skipped, so replaying the journal after a
+ * restart or retrying a batch whose commit outcome was unknown never writes a message twice.
+ * Entries journaled at or before a conversation's end are still applied: the client was acknowledged
+ * before the end committed.
+ *
+ * <p>A batch that fails for a reason other than the database being unavailable is retried one entry
+ * at a time, so a single entry the database will never accept cannot hold back the rest. Such an
+ * entry is written to {@code dead-letter.ndjson} in the journal directory, counted, and released.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JournalDrainer {
+
+    private static final long JOIN_MARGIN_MS = 1_000;
+    private static final String DEAD_LETTER_FILE = "dead-letter.ndjson";
+
+    private final JournalProperties properties;
+    private final MessageJournal messageJournal;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final ConversationJdbcRepository conversationJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversationCache conversationCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private Thread drainer;
+    private volatile boolean running;
+    private volatile long stopRequestedAt;
+
+    private Timer drainLag;
+    private Counter applied;
+    private Counter duplicates;
+    private Counter rejected;
+    private Counter deadLettered;
+    private Counter failures;
+    // 저널 위치는 증가하므로 마지막으로 dead letter 한 위치만 기억하면 된다
+    private long deadLetteredThrough = -1;
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        drainLag = Timer.builder("chat.journal.drain.lag")
+                .description("Time from journal acknowledgement to the message being committed to the database")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        applied = Counter.builder("chat.journal.drained")
+                .tag("result", "applied")
+                .register(meterRegistry);
+        duplicates = Counter.builder("chat.journal.drained")
+                .tag("result", "duplicate")
+                .register(meterRegistry);
+        rejected = Counter.builder("chat.journal.drained")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        deadLettered = Counter.builder("chat.journal.drained")
+                .tag("result", "dead_lettered")
+                .register(meterRegistry);
+        failures = Counter.builder("chat.journal.drain.failures")
+                .description("Batches that failed to apply and will be retried")
+                .register(meterRegistry);
+
+        running = true;
+        drainer = new Thread(this::runLoop, "message-journal-drain");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * 종료 시 남은 항목을 제한 시간 동안 반영한다 (못 한 항목은 재시작 후 저널에서 다시 읽는다)
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (drainer == null) {
+            return;
+        }
+        stopRequestedAt = System.nanoTime();
+        running = false;
+        drainer.join(properties.getShutdownDrainTimeout().toMillis() + JOIN_MARGIN_MS);
+    }
+
+    private void runLoop() {
+        long shutdownTimeoutNanos = properties.getShutdownDrainTimeout().toNanos();
+        while (true) {
+            List<JournalEntry> batch = messageJournal.peek(properties.getDrainBatchSize());
+            if (!running && (batch.isEmpty() || System.nanoTime() - stopRequestedAt > shutdownTimeoutNanos)) {
+                log.info("Message journal drainer stopped with {} entries left", messageJournal.depth());
+                return;
+            }
+            if (batch.isEmpty()) {
+                if (!pause(properties.getDrainInterval())) {
+                    return;
+                }
+                continue;
+            }
+
+            Drained drained;
+            try {
+                drained = apply(batch);
+            } catch (RuntimeException e) {
+                failures.increment();
+                drained = unavailable(e) ? null : applyOneByOne(batch, e);
+                if (drained == null) {
+                    log.warn("Failed to apply {} journal entries, retrying in {}: {}",
+                            batch.size(), properties.getRetryBackoff(), e.getMessage());
+                    if (!pause(properties.getRetryBackoff())) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            publish(drained);
+            try {
+                messageJournal.release();
+            } catch (IOException e) {
+                // 반영은 끝났으므로 다음 실행에서 중복으로 건너뛴다
+                log.warn("Failed to delete a drained journal segment: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Locks the batch's conversation rows, skips entries already stored and inserts the rest with
+     * consecutive sequence numbers in journal order
+     */
+    private Drained apply(List<JournalEntry> batch) {
+        return transactionTemplate.execute(status -> {
+            Set<Long> conversationIds = batch.stream()
+                    .map(JournalEntry::getConversationId)
+                    .collect(Collectors.toSet());
+            Map<Long, AppendState> states = conversationJdbcRepository.lockForAppend(conversationIds);
+            Map<Long, Set<String>> stored = new HashMap<>(messageJdbcRepository.findIdempotencyKeys(conversationIds,
+                    batch.stream().map(JournalEntry::getIdempotencyKey).collect(Collectors.toSet())));
+
+            Map<Long, Long> nextSeq = new HashMap<>();
+            List<JournalEntry> accepted = new ArrayList<>(batch.size());
+            List<NewMessageRow> rows = new ArrayList<>(batch.size());
+            int duplicateCount = 0;
+            int rejectedCount = 0;
+            for (JournalEntry entry : batch) {
+                Long conversationId = entry.getConversationId();
+                if (!stored.computeIfAbsent(conversationId, id -> new HashSet<>()).add(entry.getIdempotencyKey())) {
+                    duplicateCount++;
+                    continue;
+                }
+                AppendState state = states.get(conversationId);
+                if (state == null || endedBefore(state, entry)) {
+                    // 저널에 쓸 때 DB를 확인하지 못했던 항목. 이미 응답했으므로 로그로만 남긴다
+                    rejectedCount++;
+                    log.warn("Dropping journal entry {} for {} conversation {}",
+                            entry.getLsn(), state == null ? "missing" : "ended", conversationId);
+                    continue;
+                }
+                long seq = nextSeq.merge(conversationId, state.nextSeq(), (current, first) -> current + 1);
+                rows.add(NewMessageRow.builder()
+                        .conversationId(conversationId)
+                        .seq(seq)
+                        .speaker(entry.getSpeaker())
+                        .content(entry.getContent())
+                        .createdAt(entry.getCreatedAt())
+                        .idempotencyKey(entry.getIdempotencyKey())
+                        .build());
+                accepted.add(entry);
+            }
+
+            List<Long> ids = messageJdbcRepository.insertAll(rows);
+            conversationJdbcRepository.incrementMessageCounters(rows, ids);
+            List<MessageDto> messages = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                NewMessageRow row = rows.get(i);
+                messages.add(MessageDto.builder()
+                        .messageId(ids.get(i))
+                        .seq(row.getSeq())
+                        .role(MessageMapper.toRole(row.getSpeaker()))
+                        .content(row.getContent())
+                        .createdAt(MessageMapper.toInstant(row.getCreatedAt()))
+                        .build());
+            }
+            return new Drained(accepted, messages, duplicateCount, rejectedCount, 0);
+        });
+    }
+
+    /**
+     * Applies each entry in its own transaction and dead-letters the ones that still fail. Returns null,
+     * after publishing what was applied, if the database became unavailable part way: the batch is then
+     * retried whole and the applied entries are skipped as duplicates.
+     */
+    private Drained applyOneByOne(List<JournalEntry> batch, RuntimeException batchFailure) {
+        log.warn("Failed to apply {} journal entries, retrying one by one: {}", batch.size(), batchFailure.getMessage());
+        Drained drained = Drained.EMPTY;
+        for (JournalEntry entry : batch) {
+            if (entry.getLsn() <= deadLetteredThrough) {
+                // DB가 끊겨 배치를 다시 시도하는 중: 이미 파일에 남긴 항목
+                continue;
+            }
+            try {
+                drained = drained.plus(apply(List.of(entry)));
+            } catch (RuntimeException e) {
+                if (unavailable(e) || !deadLetter(entry, e)) {
+                    publish(drained);
+                    return null;
+                }
+                drained = drained.plus(new Drained(List.of(), List.of(), 0, 0, 1));
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * 응답을 이미 보낸 메시지이므로 버리지 않고 파일에 남긴다 (기록하지 못하면 false, 항목은 다음에 다시 시도)
+     */
+    private boolean deadLetter(JournalEntry entry, RuntimeException cause) {
+        Path file = properties.getDirectory().resolve(DEAD_LETTER_FILE);
+        try {
+            byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+            Files.write(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            log.error("Failed to dead-letter journal entry {}", entry.getLsn(), e);
+            return false;
+        }
+        deadLetteredThrough = entry.getLsn();
+        log.error("Dead-lettered journal entry {} for conversation {} to {}: {}",
+                entry.getLsn(), entry.getConversationId(), file, cause.getMessage());
+        return true;
+    }
+
+    /**
+     * DB에 닿지 않는 경우: 항목 탓이 아니므로 같은 배치를 나중에 다시 시도한다
+     */
+    private static boolean unavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof NonTransientDataAccessResourceException
+                || e instanceof TransactionException;
+    }
+
+    /**
+     * 커밋 이후 캐시와 구독자에 반영한다 (저널 모드에서는 응답 시점에 메시지 id가 없으므로 여기서 알린다)
+     */
+    private void publish(Drained drained) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < drained.entries().size(); i++) {
+            JournalEntry entry = drained.entries().get(i);
+            MessageDto message = drained.messages().get(i);
+            conversationCache.appendMessage(entry.getConversationId(), message);
+            eventPublisher.publishEvent(new MessageAppendedEvent(entry.getConversationId(), message));
+            drainLag.record(Duration.between(entry.getCreatedAt(), now));
+        }
+        applied.increment(drained.entries().size());
+        duplicates.increment(drained.duplicates());
+        rejected.increment(drained.rejected());
+        deadLettered.increment(drained.deadLettered());
+    }
+
+    /**
+     * 종료 전에 받은 항목은 종료 요청과 반영 사이에 끼었을 뿐이므로 종료된 대화에도 반영한다
+     */
+    private static boolean endedBefore(AppendState state, JournalEntry entry) {
+        return state.isEnded() && entry.getCreatedAt().isAfter(state.getEndedAt());
+    }
+
+    private static boolean pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Drained(List<JournalEntry> entries, List<MessageDto> messages, int duplicates, int rejected,
+                           int deadLettered) {
+        private static final Drained EMPTY = new Drained(List.of(), List.of(), 0, 0, 0);
+
+        private Drained plus(Drained other) {
+            List<JournalEntry> allEntries = new ArrayList<>(entries);
+            allEntries.addAll(other.entries);
+            List<MessageDto> allMessages = new ArrayList<>(messages);
+            allMessages.addAll(other.messages);
+            return new Drained(allEntries, allMessages, duplicates + other.duplicates, rejected + other.rejected,
+                    deadLettered + other.deadLettered);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.guidely.chatorchestra.journal;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A message accepted into the journal but not necessarily applied to the database yet
+ */
+@Value
+@Builder
+public class JournalEntry {
+    // 저널 안에서 1씩 증가하는 위치 (재시작 후에도 이어짐)
+    long lsn;
+    Long conversationId;
+    String speaker;
+    String content;
+    // 클라이언트 키가 없으면 저널이 만든 키. DB 반영을 멱등하게 만드는 기준
+    String idempotencyKey;
+    LocalDateTime createdAt;
+}
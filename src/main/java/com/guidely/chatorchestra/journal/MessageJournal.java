@@ -0,0 +1,547 @@
+package com.guidely.chatorchestra.journal;
+
+import com.guidely.chatorchestra.config.JournalProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local write-ahead journal for message posts. Records are copied into a preallocated,
+ * memory-mapped segment and {@link #append} returns once an fsync covering the record has
+ * completed; a single sync thread forces everything written since its previous fsync at once,
+ * so concurrent posts share one disk flush. One consumer reads durable entries in order with
+ * {@link #peek} and frees them with {@link #release} after applying them.
+ *
+ * <p>Record layout: magic (4), payload length (4), CRC32 of the payload (4), payload.
+ * Payload: version (1), lsn (8), conversation id (8), created at in epoch micros (8),
+ * speaker (2 + UTF-8), idempotency key (2 + UTF-8), content (4 + UTF-8). New segments are
+ * zero-filled, so scanning stops at the first zero magic; a record torn by a crash fails its
+ * CRC and ends the scan of its segment. Writes always go to a fresh segment after a restart.
+ */
+@Component
+@Slf4j
+public class MessageJournal {
+
+    private static final int MAGIC = 0x4A524E4C; // "JRNL"
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int LSN_OFFSET = 1;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final JournalProperties properties;
+    private final Timer fsyncLatency;
+    private final DistributionSummary fsyncBatch;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final Condition released = lock.newCondition();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    // 대화별로 아직 반영되지 않은 마지막 lsn (대화 종료 전에 반영을 기다리는 데 쓴다)
+    private final Map<Long, Long> pendingByConversation = new ConcurrentHashMap<>();
+
+    // lock으로 보호
+    private Segment active;
+    private long nextLsn = 1;
+    private IOException syncFailure;
+
+    private volatile long writtenLsn;
+    private volatile long durableLsn;
+    private volatile long drainedLsn;
+    private volatile boolean running;
+    private Thread syncer;
+
+    // 소비자(드레이너) 스레드 전용 커서
+    private Segment drainSegment;
+    private int drainOffset;
+    private Segment peekSegment;
+    private int peekOffset;
+    private long peekLsn;
+
+    public MessageJournal(JournalProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.fsyncLatency = Timer.builder("chat.journal.fsync.latency")
+                .description("Time of one group fsync of the message journal")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fsyncBatch = DistributionSummary.builder("chat.journal.fsync.batch")
+                .description("Journal entries made durable by one fsync")
+                .register(meterRegistry);
+        Gauge.builder("chat.journal.depth", this, MessageJournal::depth)
+                .description("Acknowledged journal entries not yet applied to the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(properties.getDirectory());
+        List<Path> files;
+        try (Stream<Path> list = Files.list(properties.getDirectory())) {
+            files = list.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparingLong(MessageJournal::segmentNumber))
+                    .collect(Collectors.toList());
+        }
+
+        long firstLsn = 0;
+        long lastLsn = 0;
+        long lastNumber = -1;
+        for (Path file : files) {
+            Segment segment = Segment.open(segmentNumber(file), file);
+            lastNumber = segment.number;
+            long[] range = scan(segment);
+            if (range[0] == 0) {
+                segment.delete();
+                continue;
+            }
+            if (firstLsn == 0) {
+                firstLsn = range[0];
+            }
+            lastLsn = range[1];
+            segments.add(segment);
+        }
+
+        nextLsn = lastLsn + 1;
+        writtenLsn = lastLsn;
+        durableLsn = lastLsn;
+        drainedLsn = firstLsn == 0 ? lastLsn : firstLsn - 1;
+        active = newSegment(lastNumber + 1);
+        drainSegment = segments.get(0);
+        peekSegment = drainSegment;
+        // 이전 실행에서 반영하지 못한 항목도 종료 대기 대상에 넣는다 (release 전이므로 드레이너 커서는 그대로)
+        for (JournalEntry entry : peek(Integer.MAX_VALUE)) {
+            pendingByConversation.put(entry.getConversationId(), entry.getLsn());
+        }
+
+        running = true;
+        syncer = new Thread(this::runSyncer, "message-journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+        log.info("Opened message journal with {} unapplied entries in {} segments", depth(), segments.size() - 1);
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        if (syncer == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            running = false;
+            written.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        syncer.join(SHUTDOWN_TIMEOUT_MS);
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Appends one message and returns once it is on disk
+     */
+    public JournalEntry append(Long conversationId, String speaker, String content, String idempotencyKey,
+                               LocalDateTime createdAt) throws IOException {
+        byte[] payload = encode(conversationId, speaker, content, idempotencyKey, createdAt);
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > properties.getSegmentSize().toBytes()) {
+            throw new IllegalArgumentException("Message is too large for the journal segment size");
+        }
+
+        long lsn;
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Message journal is closed");
+            }
+            if (syncFailure != null) {
+                throw new IOException("Message journal is unavailable after a failed fsync", syncFailure);
+            }
+            if (active.end + recordSize > active.capacity) {
+                roll();
+            }
+            lsn = nextLsn++;
+            Long previousPending = pendingByConversation.put(conversationId, lsn);
+            ByteBuffer.wrap(payload).putLong(LSN_OFFSET, lsn);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            int offset = active.end;
+            active.mapped.put(offset + HEADER_SIZE, payload);
+            active.mapped.putInt(offset + 4, payload.length);
+            active.mapped.putInt(offset + 8, (int) crc.getValue());
+            active.mapped.putInt(offset, MAGIC);
+            active.end = offset + recordSize;
+            writtenLsn = lsn;
+            written.signal();
+
+            // 그룹 fsync가 이 레코드를 덮을 때까지 기다린다 (대기 중에는 잠금을 놓으므로 다른 쓰기가 합류한다)
+            while (durableLsn < lsn && syncFailure == null) {
+                synced.awaitUninterruptibly();
+            }
+            if (durableLsn < lsn) {
+                // 응답하지 않은 항목이므로 종료 대기 대상에서 빼고, 이전 항목이 있으면 그것을 다시 기다리게 한다
+                if (previousPending != null) {
+                    pendingByConversation.replace(conversationId, lsn, previousPending);
+                } else {
+                    pendingByConversation.remove(conversationId, lsn);
+                }
+                throw new IOException("Message journal fsync failed", syncFailure);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return JournalEntry.builder()
+                .lsn(lsn)
+                .conversationId(conversationId)
+                .speaker(speaker)
+                .content(content)
+                .idempotencyKey(idempotencyKey)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    /**
+     * Up to {@code max} durable entries after the last released position, in lsn order.
+     * Single consumer only; a second call without {@link #release} returns the same entries.
+     */
+    public List<JournalEntry> peek(int max) {
+        List<JournalEntry> entries = new ArrayList<>();
+        Segment segment = drainSegment;
+        int offset = drainOffset;
+        while (entries.size() < max) {
+            // sealed를 먼저 읽어야 syncedOffset이 최종 끝 위치임이 보장된다
+            boolean sealed = segment.sealed;
+            int limit = segment.syncedOffset;
+            if (offset < limit) {
+                int length = segment.slice(offset, HEADER_SIZE).getInt(4);
+                entries.add(decode(segment.slice(offset + HEADER_SIZE, length)));
+                offset += HEADER_SIZE + length;
+                continue;
+            }
+            Segment next = sealed ? nextSegment(segment) : null;
+            if (next == null) {
+                break;
+            }
+            segment = next;
+            offset = 0;
+        }
+        peekSegment = segment;
+        peekOffset = offset;
+        peekLsn = entries.isEmpty() ? drainedLsn : entries.get(entries.size() - 1).getLsn();
+        return entries;
+    }
+
+    /**
+     * Marks the entries returned by the last {@link #peek} as applied and deletes segments that are fully applied
+     */
+    public void release() throws IOException {
+        while (drainSegment != peekSegment) {
+            Segment drained = drainSegment;
+            drainSegment = nextSegment(drained);
+            segments.remove(drained);
+            drained.delete();
+        }
+        drainOffset = peekOffset;
+        drainedLsn = peekLsn;
+        long releasedLsn = peekLsn;
+        // 값 비교 후 지우므로 그사이 새로 쓴 lsn은 남는다
+        pendingByConversation.values().removeIf(lsn -> lsn <= releasedLsn);
+        lock.lock();
+        try {
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every entry journaled so far for the conversation has been released by the consumer.
+     * Returns false if that did not happen within the configured end drain timeout.
+     */
+    public boolean awaitDrained(Long conversationId) throws InterruptedException {
+        Long lsn = pendingByConversation.get(conversationId);
+        if (lsn == null) {
+            return true;
+        }
+        long remaining = properties.getEndDrainTimeout().toNanos();
+        lock.lock();
+        try {
+            while (drainedLsn < lsn) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entries acknowledged to clients but not yet released by the consumer
+     */
+    public long depth() {
+        return writtenLsn - drainedLsn;
+    }
+
+    private void runSyncer() {
+        long windowNanos = properties.getGroupCommitWindow().toNanos();
+        while (true) {
+            lock.lock();
+            try {
+                while (writtenLsn == durableLsn) {
+                    if (!running) {
+                        return;
+                    }
+                    written.awaitUninterruptibly();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (windowNanos > 0) {
+                // 더 많은 쓰기를 한 번의 fsync에 태우기 위해 잠시 모은다
+                LockSupport.parkNanos(windowNanos);
+            }
+
+            Segment segment;
+            int from;
+            int to;
+            long target;
+            long previous;
+            lock.lock();
+            try {
+                segment = active;
+                from = segment.syncedOffset;
+                to = segment.end;
+                target = writtenLsn;
+                previous = durableLsn;
+            } finally {
+                lock.unlock();
+            }
+
+            long started = System.nanoTime();
+            IOException failure = null;
+            try {
+                if (to > from) {
+                    segment.mapped.force(from, to - from);
+                }
+            } catch (UncheckedIOException e) {
+                failure = e.getCause();
+            }
+            fsyncLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+            lock.lock();
+            try {
+                if (failure != null) {
+                    syncFailure = failure;
+                } else {
+                    segment.syncedOffset = Math.max(segment.syncedOffset, to);
+                    durableLsn = target;
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (failure != null) {
+                log.error("Message journal fsync failed; rejecting further appends", failure);
+                return;
+            }
+            fsyncBatch.record(target - previous);
+        }
+    }
+
+    /**
+     * 잠금을 쥔 채 호출. 이전 세그먼트를 통째로 fsync한 뒤 봉인한다 (드문 일이라 쓰기를 잠시 막아도 된다)
+     */
+    private void roll() throws IOException {
+        active.mapped.force();
+        active.syncedOffset = active.end;
+        active.sealed = true;
+        active = newSegment(active.number + 1);
+    }
+
+    private Segment newSegment(long number) throws IOException {
+        Path path = properties.getDirectory().resolve(
+                String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        Segment segment = Segment.create(number, path, Math.toIntExact(properties.getSegmentSize().toBytes()));
+        segments.add(segment);
+        return segment;
+    }
+
+    private Segment nextSegment(Segment segment) {
+        int index = segments.indexOf(segment);
+        return index >= 0 && index + 1 < segments.size() ? segments.get(index + 1) : null;
+    }
+
+    /**
+     * Finds the end of the written part of a segment from a previous run; returns its first and last lsn (0 if empty)
+     */
+    private static long[] scan(Segment segment) {
+        long[] range = {0, 0};
+        int position = 0;
+        while (position + HEADER_SIZE <= segment.capacity) {
+            ByteBuffer header = segment.slice(position, HEADER_SIZE);
+            int magic = header.getInt();
+            int length = header.getInt();
+            int expectedCrc = header.getInt();
+            if (magic != MAGIC || length <= 0 || position + HEADER_SIZE + length > segment.capacity) {
+                break;
+            }
+            ByteBuffer payload = segment.slice(position + HEADER_SIZE, length);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                log.warn("Ignoring torn journal record at {} in {}", position, segment.path);
+                break;
+            }
+            long lsn = payload.getLong(LSN_OFFSET);
+            if (range[0] == 0) {
+                range[0] = lsn;
+            }
+            range[1] = lsn;
+            position += HEADER_SIZE + length;
+        }
+        segment.end = position;
+        segment.syncedOffset = position;
+        segment.sealed = true;
+        return range;
+    }
+
+    private static byte[] encode(Long conversationId, String speaker, String content, String idempotencyKey,
+                                 LocalDateTime createdAt) throws IOException {
+        byte[] speakerBytes = speaker.getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = idempotencyKey.getBytes(StandardCharsets.UTF_8);
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                37 + speakerBytes.length + keyBytes.length + contentBytes.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(VERSION);
+        out.writeLong(0L); // lsn, 잠금 안에서 채운다
+        out.writeLong(conversationId);
+        out.writeLong(toMicros(createdAt));
+        out.writeShort(speakerBytes.length);
+        out.write(speakerBytes);
+        out.writeShort(keyBytes.length);
+        out.write(keyBytes);
+        out.writeInt(contentBytes.length);
+        out.write(contentBytes);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static JournalEntry decode(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        if (in.get() != VERSION) {
+            throw new IllegalStateException("Unknown journal record version");
+        }
+        return JournalEntry.builder()
+                .lsn(in.getLong())
+                .conversationId(in.getLong())
+                .createdAt(fromMicros(in.getLong()))
+                .speaker(readString(in, in.getShort()))
+                .idempotencyKey(readString(in, in.getShort()))
+                .content(readString(in, in.getInt()))
+                .build();
+    }
+
+    private static String readString(ByteBuffer in, int length) {
+        ByteBuffer bytes = in.slice(in.position(), length);
+        in.position(in.position() + length);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        private final long number;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer mapped;
+        private final int capacity;
+        // 쓰기는 lock 안에서, 드레이너는 syncedOffset(볼래타일)까지만 읽는다
+        private volatile int end;
+        private volatile int syncedOffset;
+        private volatile boolean sealed;
+
+        private Segment(long number, Path path, FileChannel channel, int capacity) throws IOException {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+            this.capacity = capacity;
+            this.mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+
+        private static Segment create(long number, Path path, int capacity) throws IOException {
+            return new Segment(number, path, FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE), capacity);
+        }
+
+        private static Segment open(long number, Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(number, path, channel, Math.toIntExact(channel.size()));
+        }
+
+        private ByteBuffer slice(int offset, int length) {
+            return mapped.slice(offset, length);
+        }
+
+        private void delete() throws IOException {
+            channel.close();
+            Files.deleteIfExists(path);
+        }
+    }
+}
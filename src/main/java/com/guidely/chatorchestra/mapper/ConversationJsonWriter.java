@@ -0,0 +1,78 @@
+package com.guidely.chatorchestra.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import com.guidely.chatorchestra.model.enums.MessageRole;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Writes a {@link GetConversationResponse} piece by piece with a JSON generator, producing the
+ * same fields, order and formats as Jackson does for the DTO (snake_case, nulls omitted,
+ * ISO-8601 instants). Call {@link #writeStart}, then {@link #writeMessage} per message, then {@link #writeEnd}.
+ */
+public final class ConversationJsonWriter {
+
+    private ConversationJsonWriter() {
+    }
+
+    public static void writeStart(JsonGenerator generator, Long sessionId, String status) throws IOException {
+        generator.writeStartObject();
+        if (sessionId != null) {
+            generator.writeNumberField("session_id", sessionId);
+        }
+        if (status != null) {
+            generator.writeStringField("status", status);
+        }
+        generator.writeArrayFieldStart("messages");
+    }
+
+    public static void writeMessage(JsonGenerator generator, StoredMessageRow row) throws IOException {
+        writeMessage(generator, row.getId(), row.getSeq(), MessageMapper.toRole(row.getSpeaker()), row.getContent(),
+                MessageMapper.toInstant(row.getCreatedAt()));
+    }
+
+    public static void writeMessage(JsonGenerator generator, MessageDto message) throws IOException {
+        writeMessage(generator, message.getMessageId(), message.getSeq(), message.getRole(), message.getContent(),
+                message.getCreatedAt());
+    }
+
+    public static void writeEnd(JsonGenerator generator, long total, Long nextCursor, Long prevCursor,
+                                boolean hasMore) throws IOException {
+        generator.writeEndArray();
+        generator.writeNumberField("total", total);
+        if (nextCursor != null) {
+            generator.writeNumberField("next_cursor", nextCursor);
+        }
+        if (prevCursor != null) {
+            generator.writeNumberField("prev_cursor", prevCursor);
+        }
+        generator.writeBooleanField("has_more", hasMore);
+        generator.writeEndObject();
+    }
+
+    private static void writeMessage(JsonGenerator generator, Long messageId, Long seq, MessageRole role,
+                                     String content, Instant createdAt) throws IOException {
+        generator.writeStartObject();
+        if (messageId != null) {
+            generator.writeNumberField("message_id", messageId);
+        }
+        if (seq != null) {
+            generator.writeNumberField("seq", seq);
+        }
+        if (role != null) {
+            generator.writeStringField("role", role.name());
+        }
+        if (content != null) {
+            generator.writeStringField("content", content);
+        }
+        if (createdAt != null) {
+            // Jackson의 InstantSerializer와 같은 ISO_INSTANT 형식
+            generator.writeStringField("created_at", createdAt.toString());
+        }
+        generator.writeEndObject();
+    }
+}
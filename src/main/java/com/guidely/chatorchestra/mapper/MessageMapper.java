@@ -0,0 +1,44 @@
+package com.guidely.chatorchestra.mapper;
+
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import com.guidely.chatorchestra.model.Message;
+import com.guidely.chatorchestra.model.enums.MessageRole;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Maps message entities to response DTOs
+ */
+public final class MessageMapper {
+
+    private MessageMapper() {
+    }
+
+    public static GetConversationResponse.MessageDto toDto(Message message) {
+        return GetConversationResponse.MessageDto.builder()
+                .messageId(message.getId())
+                .seq(message.getSeq())
+                .role(toRole(message.getSpeaker()))
+                .content(message.getContent())
+                .createdAt(toInstant(message.getCreatedAt()))
+                .build();
+    }
+
+    public static MessageRole toRole(String speaker) {
+        return MessageRole.valueOf(speaker.toUpperCase()); // 임시 변환 (ERD에서는 speaker가 varchar)
+    }
+
+    public static String toSpeaker(MessageRole role) {
+        return role.name().toLowerCase();
+    }
+
+    public static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneOffset.UTC).toInstant() : null;
+    }
+
+    public static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.guidely.chatorchestra.metrics;
+
+/**
+ * Names and tag keys of the application's own meters. These names are part of the
+ * dashboards and alerts, so keep them stable; the full list is in the README.
+ */
+public final class ChatMetrics {
+
+    public static final String SERVICE_OPERATION = "chat.conversation.operation";
+    public static final String HTTP_SERIALIZATION = "chat.http.serialization";
+    public static final String MESSAGE_CONTENT_LENGTH = "chat.message.content.length";
+    public static final String CONVERSATION_MESSAGES = "chat.conversation.messages";
+    public static final String CONDITIONAL_REQUESTS = "chat.conversation.conditional.requests";
+
+    public static final String TAG_OPERATION = "operation";
+    public static final String TAG_TYPE = "type";
+    public static final String TAG_SOURCE = "source";
+    public static final String TAG_RESULT = "result";
+
+    private ChatMetrics() {
+    }
+}
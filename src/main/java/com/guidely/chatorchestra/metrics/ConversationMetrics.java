@@ -0,0 +1,67 @@
+package com.guidely.chatorchestra.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size distributions of what clients write (message length and messages per conversation)
+ * and how often conditional reads are answered without a body
+ */
+@Component
+public class ConversationMetrics {
+
+    private final DistributionSummary singleContentLength;
+    private final DistributionSummary importContentLength;
+    private final DistributionSummary conversationMessages;
+    private final Counter notModified;
+    private final Counter modified;
+
+    public ConversationMetrics(MeterRegistry meterRegistry) {
+        this.singleContentLength = contentLength(meterRegistry, "single");
+        this.importContentLength = contentLength(meterRegistry, "import");
+        this.conversationMessages = DistributionSummary.builder(ChatMetrics.CONVERSATION_MESSAGES)
+                .description("Messages in a conversation when it ends")
+                .baseUnit("messages")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.notModified = conditionalRequests(meterRegistry, "not_modified");
+        this.modified = conditionalRequests(meterRegistry, "modified");
+    }
+
+    public void recordMessage(String content) {
+        singleContentLength.record(content.length());
+    }
+
+    public void recordImportedMessage(String content) {
+        importContentLength.record(content.length());
+    }
+
+    public void recordConversationEnded(long messageCount) {
+        conversationMessages.record(messageCount);
+    }
+
+    /**
+     * Records a conversation read that carried If-None-Match
+     */
+    public void recordConditionalRead(boolean wasNotModified) {
+        (wasNotModified ? notModified : modified).increment();
+    }
+
+    private static Counter conditionalRequests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(ChatMetrics.CONDITIONAL_REQUESTS)
+                .description("Conversation reads with If-None-Match, by outcome")
+                .tag(ChatMetrics.TAG_RESULT, result)
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary contentLength(MeterRegistry meterRegistry, String source) {
+        return DistributionSummary.builder(ChatMetrics.MESSAGE_CONTENT_LENGTH)
+                .description("Length of message content in characters")
+                .baseUnit("characters")
+                .tag(ChatMetrics.TAG_SOURCE, source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.guidely.chatorchestra.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidely.chatorchestra.dto.ResponseEnvelope;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson converter that records how long writing each response body takes, so
+ * serialisation time can be told apart from service and database time.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final MeterRegistry meterRegistry;
+    // 응답마다 Timer를 조회/등록하지 않도록 태그 값별로 한 번만 만든다
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long started = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timers.computeIfAbsent(payloadType(object), this::timer)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String type) {
+        return Timer.builder(ChatMetrics.HTTP_SERIALIZATION)
+                .description("Time spent writing JSON response bodies")
+                .tag(ChatMetrics.TAG_TYPE, type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 응답 DTO 클래스명을 태그로 사용 (봉투 자체는 모든 응답이 같으므로 data 타입 기준)
+     */
+    private static String payloadType(Object object) {
+        if (object instanceof ResponseEnvelope<?> envelope) {
+            return envelope.getData() != null ? envelope.getData().getClass().getSimpleName() : "error";
+        }
+        return object.getClass().getSimpleName();
+    }
+}
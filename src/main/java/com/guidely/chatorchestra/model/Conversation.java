@@ -1,5 +1,6 @@
 package com.guidely.chatorchestra.model;
 
+import com.guidely.chatorchestra.id.TimeOrderedId;
 import com.guidely.chatorchestra.model.enums.ConversationStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -14,15 +15,22 @@ import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "conversations")
+@Table(name = "conversations", indexes = {
+        @Index(name = "idx_conversations_started_at_id", columnList = "started_at, id"),
+        @Index(name = "idx_conversations_ended_at_started_at_id", columnList = "ended_at, started_at, id"),
+        @Index(name = "idx_conversations_archived_at_ended_at", columnList = "archived_at, ended_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_conversations_idempotency_key", columnNames = "idempotency_key")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Conversation {
     
+    // INSERT 전에 애플리케이션이 정하는 시간순 id (기존 AUTO_INCREMENT 값보다 항상 크다)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     
     @Column(name = "started_at")
@@ -31,6 +39,25 @@ public class Conversation {
     @Column(name = "ended_at")
     private LocalDateTime endedAt;
     
+    // 아래 카운터는 메시지 저장 시 DB에서 원자적으로 갱신하므로 엔티티 저장 시에는 덮어쓰지 않는다
+    @Column(name = "message_count", nullable = false, updatable = false)
+    @Builder.Default
+    private long messageCount = 0;
+    
+    @Column(name = "last_message_at", updatable = false)
+    private LocalDateTime lastMessageAt;
+    
+    @Column(name = "last_message_id", updatable = false)
+    private Long lastMessageId;
+    
+    // 아카이브 작업만 JDBC로 설정한다. 값이 있으면 메시지는 DB가 아니라 아카이브 세그먼트에 있다
+    @Column(name = "archived_at", updatable = false)
+    private LocalDateTime archivedAt;
+    
+    // 클라이언트가 보낸 Idempotency-Key (재시도 시 같은 대화를 돌려주기 위함)
+    @Column(name = "idempotency_key", length = 128, updatable = false)
+    private String idempotencyKey;
+    
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Message> messages = new ArrayList<>();
@@ -1,5 +1,6 @@
 package com.guidely.chatorchestra.model;
 
+import com.guidely.chatorchestra.id.TimeOrderedId;
 import com.guidely.chatorchestra.model.enums.MessageRole;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -11,30 +12,55 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_conversation_id_id", columnList = "conversation_id, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_messages_conversation_id_idempotency_key",
+                columnNames = {"conversation_id", "idempotency_key"}),
+        @UniqueConstraint(name = "uk_messages_conversation_id_seq", columnNames = {"conversation_id", "seq"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(MessageContentListener.class)
 public class Message {
     
+    // INSERT 전에 애플리케이션이 정하는 시간순 id (기존 AUTO_INCREMENT 값보다 항상 크다)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "conversation_id", nullable = false)
     private Conversation conversation;
     
+    // 대화 안의 순번 (1부터, 빈틈 없음). 대화 행 잠금 안에서 message_count + 1로 정해진다
+    @Column(nullable = false, updatable = false)
+    private Long seq;
+    
     @Column(nullable = false)
     private String speaker;
     
-    @Column(columnDefinition = "TEXT", nullable = false)
+    // 본문 원문. 저장 시 MessageContentListener가 아래 두 컬럼으로 나눠 기록한다
+    @Transient
     private String content;
     
+    // 압축하지 않은 본문 (압축 저장된 행은 빈 문자열)
+    @Column(name = "content", columnDefinition = "TEXT", nullable = false)
+    private String storedContent;
+    
+    // 압축된 본문 (형식 버전 + 코덱 + 원본 길이 + 데이터), 압축하지 않은 행은 null
+    @Column(name = "content_blob", columnDefinition = "MEDIUMBLOB")
+    private byte[] contentBlob;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
+    // 클라이언트가 보낸 Idempotency-Key, 대화 안에서 유일
+    @Column(name = "idempotency_key", length = 128, updatable = false)
+    private String idempotencyKey;
+    
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
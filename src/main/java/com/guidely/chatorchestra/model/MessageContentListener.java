@@ -0,0 +1,32 @@
+package com.guidely.chatorchestra.model;
+
+import com.guidely.chatorchestra.compression.MessageContentCodec;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps {@link Message#getContent()} to and from its stored columns.
+ * Hibernate resolves this listener from the Spring context, so the codec is injected.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessageContentListener {
+
+    private final MessageContentCodec codec;
+
+    @PrePersist
+    @PreUpdate
+    public void encode(Message message) {
+        MessageContentCodec.Encoded encoded = codec.encode(message.getContent());
+        message.setStoredContent(encoded.content());
+        message.setContentBlob(encoded.blob());
+    }
+
+    @PostLoad
+    public void decode(Message message) {
+        message.setContent(codec.decode(message.getStoredContent(), message.getContentBlob()));
+    }
+}
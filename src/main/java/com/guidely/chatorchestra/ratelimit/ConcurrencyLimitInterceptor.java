@@ -0,0 +1,61 @@
+package com.guidely.chatorchestra.ratelimit;
+
+import com.guidely.chatorchestra.config.RateLimitProperties;
+import com.guidely.chatorchestra.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps in-flight API requests on this node below the connection pool size, so excess load is
+ * rejected with 503 in milliseconds instead of queueing on the pool until its connection
+ * timeout and starving every other request.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Counter shed;
+
+    public ConcurrencyLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(properties.getMaxConcurrentRequests());
+        this.acquireTimeoutNanos = properties.getAcquireTimeout().toNanos();
+        this.shed = Counter.builder("chat.ratelimit.shed")
+                .description("Requests rejected with 503 by the concurrency limit")
+                .register(meterRegistry);
+        int limit = properties.getMaxConcurrentRequests();
+        Gauge.builder("chat.ratelimit.inflight", permits, p -> limit - p.availablePermits())
+                .description("API requests currently holding a concurrency permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            shed.increment();
+            throw new ServiceOverloadedException("Server is busy, retry shortly", RETRY_AFTER);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.guidely.chatorchestra.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Applies {@link RequestRateLimiter} to message posts before the controller opens a transaction.
+ * Clients are identified by remote address; behind a proxy set
+ * {@code server.forward-headers-strategy} so it is the original client's.
+ */
+@RequiredArgsConstructor
+public class MessageRateLimitInterceptor implements HandlerInterceptor {
+
+    private final RequestRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        rateLimiter.acquireMessageWrite(request.getRemoteAddr(), conversationId(request));
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long conversationId(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String value = variables != null ? variables.get("conversationId") : null;
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null; // 컨트롤러에서 400으로 처리
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.guidely.chatorchestra.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.guidely.chatorchestra.config.RateLimitProperties;
+import com.guidely.chatorchestra.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Token buckets per client and per conversation for message writes. Buckets live in a
+ * bounded cache that drops idle ones; a bucket that comes back starts full.
+ */
+@Component
+public class RequestRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final Cache<Long, TokenBucket> conversationBuckets;
+    private final Counter clientRejections;
+    private final Counter conversationRejections;
+
+    public RequestRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getBucketIdleTimeout())
+                .build();
+        this.conversationBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getBucketIdleTimeout())
+                .build();
+        this.clientRejections = Counter.builder("chat.ratelimit.rejected")
+                .description("Requests rejected with 429")
+                .tag("scope", "client")
+                .register(meterRegistry);
+        this.conversationRejections = Counter.builder("chat.ratelimit.rejected")
+                .description("Requests rejected with 429")
+                .tag("scope", "conversation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a permit for one message write, or throws {@link RateLimitExceededException}
+     */
+    public void acquireMessageWrite(String clientId, Long conversationId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        // 대화 버킷을 먼저 확인: 한 대화에 몰린 요청이 클라이언트의 다른 대화 몫까지 쓰지 않도록
+        if (conversationId != null) {
+            long wait = conversationBuckets.get(conversationId, id -> new TokenBucket(
+                            properties.getConversationPermitsPerSecond(), properties.getConversationBurst(), now))
+                    .tryAcquire(now);
+            if (wait > 0) {
+                conversationRejections.increment();
+                throw new RateLimitExceededException(
+                        "Too many messages for conversation " + conversationId, Duration.ofNanos(wait));
+            }
+        }
+        long wait = clientBuckets.get(clientId, id -> new TokenBucket(
+                        properties.getClientPermitsPerSecond(), properties.getClientBurst(), now))
+                .tryAcquire(now);
+        if (wait > 0) {
+            clientRejections.increment();
+            throw new RateLimitExceededException("Too many messages from this client", Duration.ofNanos(wait));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.guidely.chatorchestra.repository;
+
+import com.guidely.chatorchestra.config.ExportProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forward-only cursor over conversations joined with their messages, ordered by
+ * conversation id then message id. Rows are handed to the callback one at a time.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConversationExportRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT c.id AS conversation_id, c.started_at, c.ended_at, c.archived_at, "
+                    + "m.id AS message_id, m.seq, m.speaker, m.content, m.content_blob, m.created_at "
+                    + "FROM conversations c LEFT JOIN messages m ON m.conversation_id = c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExportProperties exportProperties;
+
+    public void streamConversations(LocalDateTime startedFrom, LocalDateTime startedTo, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>(2);
+        List<String> conditions = new ArrayList<>(2);
+        if (startedFrom != null) {
+            conditions.add("c.started_at >= ?");
+            params.add(Timestamp.valueOf(startedFrom));
+        }
+        if (startedTo != null) {
+            conditions.add("c.started_at < ?");
+            params.add(Timestamp.valueOf(startedTo));
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY c.id, m.seq");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(exportProperties.getFetchSize());
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+}
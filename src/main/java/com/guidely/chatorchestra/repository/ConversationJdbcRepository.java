@@ -0,0 +1,251 @@
+package com.guidely.chatorchestra.repository;
+
+import com.guidely.chatorchestra.id.IdGenerator;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.NewMessageRow;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC access for bulk conversation writes and message counter updates
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConversationJdbcRepository {
+
+    private static final String INSERT_CONVERSATION_SQL =
+            "INSERT INTO conversations (id, started_at, ended_at) VALUES (?, ?, ?)";
+
+    // 동시에 커밋되는 트랜잭션의 순서와 무관하게 가장 큰 id/시각이 남도록 GREATEST 사용
+    private static final String INCREMENT_COUNTERS_SQL =
+            "UPDATE conversations SET message_count = message_count + ?, "
+                    + "last_message_id = GREATEST(COALESCE(last_message_id, 0), ?), "
+                    + "last_message_at = GREATEST(COALESCE(last_message_at, ?), ?) "
+                    + "WHERE id = ?";
+
+    private static final String LOCK_FOR_APPEND_SQL =
+            "SELECT id, ended_at, message_count, last_message_id FROM conversations WHERE ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final IdGenerator idGenerator;
+
+    /**
+     * Inserts all rows as a single JDBC batch and returns their ids in input order.
+     * Ids are assigned up front, so the driver can send the batch without returning generated keys.
+     */
+    public List<Long> insertAll(List<NewConversationRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> ids = new ArrayList<>(rows.size());
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_CONVERSATION_SQL)) {
+                for (NewConversationRow row : rows) {
+                    long id = idGenerator.nextId();
+                    ps.setLong(1, id);
+                    ps.setTimestamp(2, Timestamp.valueOf(row.getStartedAt()));
+                    if (row.getEndedAt() != null) {
+                        ps.setTimestamp(3, Timestamp.valueOf(row.getEndedAt()));
+                    } else {
+                        ps.setNull(3, Types.TIMESTAMP);
+                    }
+                    ps.addBatch();
+                    ids.add(id);
+                }
+                ps.executeBatch();
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Adds one message to the conversation's counters. Must run in the transaction that inserted it.
+     */
+    public void incrementMessageCounters(Long conversationId, Long messageId, LocalDateTime createdAt) {
+        Timestamp at = Timestamp.valueOf(createdAt);
+        jdbcTemplate.update(INCREMENT_COUNTERS_SQL, 1, messageId, at, at, conversationId);
+    }
+
+    /**
+     * Adds inserted messages to their conversations' counters with one statement per conversation.
+     * {@code ids} are the generated ids of {@code rows}, in the same order.
+     */
+    public void incrementMessageCounters(List<NewMessageRow> rows, List<Long> ids) {
+        Map<Long, CounterDelta> deltas = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            NewMessageRow row = rows.get(i);
+            deltas.computeIfAbsent(row.getConversationId(), id -> new CounterDelta())
+                    .add(ids.get(i), row.getCreatedAt());
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // 행 잠금 순서를 고정해 교착 상태를 피한다
+        List<Object[]> args = deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> {
+                    Timestamp at = Timestamp.valueOf(e.getValue().lastMessageAt);
+                    return new Object[]{e.getValue().count, e.getValue().lastMessageId, at, at, e.getKey()};
+                })
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INCREMENT_COUNTERS_SQL, args);
+    }
+
+    /**
+     * Locks the conversation row for the rest of the transaction and returns what an append needs:
+     * when it ended (if it has) and its message count, from which the next sequence number follows.
+     * Ids generated afterwards on this node exceed the conversation's last message id, so message
+     * ids keep the sequence order even when another node's clock is ahead.
+     * Empty if the conversation does not exist.
+     */
+    public Optional<AppendState> lockForAppend(Long conversationId) {
+        return jdbcTemplate.query(LOCK_FOR_APPEND_SQL + "id = ? FOR UPDATE",
+                (rs, rowNum) -> toAppendState(rs), conversationId).stream().findFirst();
+    }
+
+    /**
+     * Locks several conversation rows in id order (so concurrent batches cannot deadlock), keyed by id.
+     * Ids that do not exist are absent from the map.
+     */
+    public Map<Long, AppendState> lockForAppend(Collection<Long> conversationIds) {
+        if (conversationIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, AppendState> states = new HashMap<>();
+        namedParameterJdbcTemplate.query(LOCK_FOR_APPEND_SQL + "id IN (:ids) ORDER BY id FOR UPDATE",
+                Map.of("ids", conversationIds),
+                (RowCallbackHandler) rs -> states.put(rs.getLong("id"), toAppendState(rs)));
+        return states;
+    }
+
+    /**
+     * Ended, not yet archived conversations that ended before {@code endedBefore}, oldest first
+     */
+    public List<ArchivableConversationRow> findArchivable(LocalDateTime endedBefore, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, started_at, ended_at FROM conversations "
+                        + "WHERE archived_at IS NULL AND ended_at < ? ORDER BY ended_at, id LIMIT ?",
+                (rs, rowNum) -> ArchivableConversationRow.builder()
+                        .id(rs.getLong("id"))
+                        .startedAt(rs.getTimestamp("started_at").toLocalDateTime())
+                        .endedAt(rs.getTimestamp("ended_at").toLocalDateTime())
+                        .build(),
+                Timestamp.valueOf(endedBefore), limit);
+    }
+
+    /**
+     * Marks conversations as archived; returns the number of rows changed
+     */
+    public int markArchived(Collection<Long> conversationIds, LocalDateTime archivedAt) {
+        if (conversationIds.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update(
+                "UPDATE conversations SET archived_at = :archivedAt WHERE id IN (:ids) AND archived_at IS NULL",
+                Map.of("archivedAt", Timestamp.valueOf(archivedAt), "ids", conversationIds));
+    }
+
+    /**
+     * Ids of conversations that ended before {@code endedBefore}, greater than {@code afterId}, in id order
+     */
+    public List<Long> findEndedIdsAfter(long afterId, LocalDateTime endedBefore, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM conversations WHERE id > ? AND ended_at < ? ORDER BY id LIMIT ?",
+                Long.class, afterId, Timestamp.valueOf(endedBefore), limit);
+    }
+
+    /**
+     * Deletes the given conversations if they ended before {@code endedBefore}. Their messages
+     * must already be gone; returns the number of rows deleted.
+     */
+    public int deleteEnded(Collection<Long> conversationIds, LocalDateTime endedBefore) {
+        if (conversationIds.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update(
+                "DELETE FROM conversations WHERE id IN (:ids) AND ended_at < :endedBefore",
+                Map.of("ids", conversationIds, "endedBefore", Timestamp.valueOf(endedBefore)));
+    }
+
+    private AppendState toAppendState(ResultSet rs) throws SQLException {
+        long lastMessageId = rs.getLong("last_message_id");
+        if (lastMessageId > 0) {
+            idGenerator.observe(lastMessageId);
+        }
+        Timestamp endedAt = rs.getTimestamp("ended_at");
+        return AppendState.builder()
+                .id(rs.getLong("id"))
+                .endedAt(endedAt != null ? endedAt.toLocalDateTime() : null)
+                .messageCount(rs.getLong("message_count"))
+                .build();
+    }
+
+    private static final class CounterDelta {
+        private int count;
+        private long lastMessageId;
+        private LocalDateTime lastMessageAt;
+
+        private void add(long messageId, LocalDateTime createdAt) {
+            count++;
+            lastMessageId = Math.max(lastMessageId, messageId);
+            if (lastMessageAt == null || createdAt.isAfter(lastMessageAt)) {
+                lastMessageAt = createdAt;
+            }
+        }
+    }
+
+    @Value
+    @Builder
+    public static class NewConversationRow {
+        LocalDateTime startedAt;
+        LocalDateTime endedAt;
+    }
+
+    @Value
+    @Builder
+    public static class AppendState {
+        Long id;
+        LocalDateTime endedAt;
+        long messageCount;
+
+        public boolean isEnded() {
+            return endedAt != null;
+        }
+
+        /**
+         * Sequence number of the next message appended while this row lock is held
+         */
+        public long nextSeq() {
+            return messageCount + 1;
+        }
+    }
+
+    @Value
+    @Builder
+    public static class ArchivableConversationRow {
+        Long id;
+        LocalDateTime startedAt;
+        LocalDateTime endedAt;
+    }
+}
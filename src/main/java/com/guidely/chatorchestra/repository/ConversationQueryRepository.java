@@ -0,0 +1,101 @@
+package com.guidely.chatorchestra.repository;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only listing of conversations. Reads only the conversations table; message
+ * counts come from the denormalised counters, so {@code messages} is never touched.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConversationQueryRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT id, started_at, ended_at, message_count, last_message_at FROM conversations";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Returns up to {@code limit} conversations matching the filter, newest first by
+     * (started_at, id), strictly after the keyset position when one is given.
+     */
+    public List<ConversationSummaryRow> findPage(ConversationFilter filter, LocalDateTime afterStartedAt,
+                                                 Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (filter.getEnded() != null) {
+            conditions.add(filter.getEnded() ? "ended_at IS NOT NULL" : "ended_at IS NULL");
+        }
+        addRange(conditions, params, "started_at", filter.getStartedFrom(), filter.getStartedTo());
+        addRange(conditions, params, "ended_at", filter.getEndedFrom(), filter.getEndedTo());
+        if (afterStartedAt != null) {
+            conditions.add("(started_at < :cursorStartedAt OR (started_at = :cursorStartedAt AND id < :cursorId))");
+            params.addValue("cursorStartedAt", Timestamp.valueOf(afterStartedAt));
+            params.addValue("cursorId", afterId);
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY started_at DESC, id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return namedParameterJdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            Timestamp endedAt = rs.getTimestamp("ended_at");
+            Timestamp lastMessageAt = rs.getTimestamp("last_message_at");
+            return ConversationSummaryRow.builder()
+                    .id(rs.getLong("id"))
+                    .startedAt(rs.getTimestamp("started_at").toLocalDateTime())
+                    .endedAt(endedAt != null ? endedAt.toLocalDateTime() : null)
+                    .messageCount(rs.getLong("message_count"))
+                    .lastMessageAt(lastMessageAt != null ? lastMessageAt.toLocalDateTime() : null)
+                    .build();
+        });
+    }
+
+    private static void addRange(List<String> conditions, MapSqlParameterSource params, String column,
+                                 LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            conditions.add(column + " >= :" + column + "From");
+            params.addValue(column + "From", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add(column + " < :" + column + "To");
+            params.addValue(column + "To", Timestamp.valueOf(to));
+        }
+    }
+
+    /**
+     * Listing filter; null fields are not applied. Ranges are [from, to).
+     */
+    @Value
+    @Builder
+    public static class ConversationFilter {
+        Boolean ended;
+        LocalDateTime startedFrom;
+        LocalDateTime startedTo;
+        LocalDateTime endedFrom;
+        LocalDateTime endedTo;
+    }
+
+    @Value
+    @Builder
+    public static class ConversationSummaryRow {
+        Long id;
+        LocalDateTime startedAt;
+        LocalDateTime endedAt;
+        long messageCount;
+        LocalDateTime lastMessageAt;
+    }
+}
@@ -1,19 +1,32 @@
 package com.guidely.chatorchestra.repository;
 
 import com.guidely.chatorchestra.model.Conversation;
-import com.guidely.chatorchestra.model.enums.ConversationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 /**
  * JPA Repository for conversations
  */
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    /**
+     * Reads only the id, ended_at and archived_at columns, without hydrating the entity
+     */
+    @Query("select c.id as id, c.endedAt as endedAt, c.archivedAt as archivedAt from Conversation c where c.id = :id")
+    Optional<ConversationState> findStateById(@Param("id") Long id);
+
+    /**
+     * Reads the counters that identify the current version of a conversation's history
+     */
+    @Query("select c.id as id, c.endedAt as endedAt, c.messageCount as messageCount, "
+            + "c.lastMessageId as lastMessageId from Conversation c where c.id = :id")
+    Optional<ConversationVersionState> findVersionById(@Param("id") Long id);
+
+    Optional<Conversation> findByIdempotencyKey(String idempotencyKey);
 }
 
 
@@ -0,0 +1,14 @@
+package com.guidely.chatorchestra.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact projection of a conversation row used on write paths
+ */
+public interface ConversationState {
+    Long getId();
+
+    LocalDateTime getEndedAt();
+
+    LocalDateTime getArchivedAt();
+}
@@ -0,0 +1,16 @@
+package com.guidely.chatorchestra.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the columns that change whenever a conversation's history changes
+ */
+public interface ConversationVersionState {
+    Long getId();
+
+    LocalDateTime getEndedAt();
+
+    long getMessageCount();
+
+    Long getLastMessageId();
+}
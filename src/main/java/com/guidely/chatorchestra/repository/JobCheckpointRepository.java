@@ -0,0 +1,56 @@
+package com.guidely.chatorchestra.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persisted progress of background jobs, one row per job name
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobCheckpointRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Long> find(String jobName) {
+        List<Long> positions = jdbcTemplate.queryForList(
+                "SELECT position FROM job_checkpoints WHERE job_name = ?", Long.class, jobName);
+        return positions.stream().findFirst();
+    }
+
+    /**
+     * Locks the job's row for the rest of the caller's transaction and returns its position,
+     * first inserting {@code position} if the job has no row yet. When two callers insert at once
+     * the loser fails on the primary key and can read the winner's position.
+     */
+    public long findForUpdateOrSave(String jobName, long position) {
+        List<Long> positions = jdbcTemplate.queryForList(
+                "SELECT position FROM job_checkpoints WHERE job_name = ? FOR UPDATE", Long.class, jobName);
+        if (!positions.isEmpty()) {
+            return positions.get(0);
+        }
+        jdbcTemplate.update(
+                "INSERT INTO job_checkpoints (job_name, position, updated_at) VALUES (?, ?, ?)",
+                jobName, position, Timestamp.valueOf(LocalDateTime.now()));
+        return position;
+    }
+
+    public void save(String jobName, long position) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // MySQL/H2 공통 문법으로 upsert: 갱신할 행이 없을 때만 INSERT
+        int updated = jdbcTemplate.update(
+                "UPDATE job_checkpoints SET position = ?, updated_at = ? WHERE job_name = ?",
+                position, now, jobName);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO job_checkpoints (job_name, position, updated_at) VALUES (?, ?, ?)",
+                    jobName, position, now);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.guidely.chatorchestra.repository;
+
+import com.guidely.chatorchestra.compression.MessageContentCodec;
+import com.guidely.chatorchestra.id.IdGenerator;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access for message writes that bypass the JPA persistence context
+ */
+@Repository
+@RequiredArgsConstructor
+public class MessageJdbcRepository {
+
+    private static final String INSERT_MESSAGE_SQL =
+            "INSERT INTO messages (id, conversation_id, seq, speaker, content, content_blob, created_at, idempotency_key) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String STORED_COLUMNS = "id, conversation_id, seq, speaker, content, content_blob, created_at";
+
+    private static final int STREAM_FETCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final MessageContentCodec messageContentCodec;
+    private final IdGenerator idGenerator;
+
+    /**
+     * Inserts all rows as a single JDBC batch and returns their ids in input order. Ids are assigned
+     * up front in row order, so within a conversation they follow the sequence numbers.
+     * Must be called inside a transaction so the batch commits once.
+     */
+    public List<Long> insertAll(List<NewMessageRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> ids = new ArrayList<>(rows.size());
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_MESSAGE_SQL)) {
+                for (NewMessageRow row : rows) {
+                    long id = idGenerator.nextId();
+                    ps.setLong(1, id);
+                    ps.setLong(2, row.getConversationId());
+                    ps.setLong(3, row.getSeq());
+                    ps.setString(4, row.getSpeaker());
+                    MessageContentCodec.Encoded content = messageContentCodec.encode(row.getContent());
+                    ps.setString(5, content.content());
+                    ps.setBytes(6, content.blob());
+                    ps.setTimestamp(7, Timestamp.valueOf(row.getCreatedAt()));
+                    ps.setString(8, row.getIdempotencyKey());
+                    ps.addBatch();
+                    ids.add(id);
+                }
+                ps.executeBatch();
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Messages with id greater than {@code afterId}, in id order; used to (re)build derived indexes
+     */
+    public List<StoredMessageRow> findAfter(long afterId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT " + STORED_COLUMNS + " FROM messages WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> toStoredRow(rs), afterId, limit);
+    }
+
+    /**
+     * Ids of messages with an id greater than {@code afterId}, in id order (primary key only)
+     */
+    public List<Long> findIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM messages WHERE id > ? ORDER BY id LIMIT ?",
+                Long.class, afterId, limit);
+    }
+
+    /**
+     * Messages with the given ids; missing ids are skipped and order is unspecified
+     */
+    public List<StoredMessageRow> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.query(
+                "SELECT " + STORED_COLUMNS + " FROM messages WHERE id IN (:ids)",
+                Map.of("ids", ids),
+                (rs, rowNum) -> toStoredRow(rs));
+    }
+
+    /**
+     * The message stored in the conversation under the given idempotency key, if any
+     */
+    public Optional<StoredMessageRow> findByIdempotencyKey(Long conversationId, String idempotencyKey) {
+        return jdbcTemplate.query(
+                "SELECT " + STORED_COLUMNS + " FROM messages WHERE conversation_id = ? AND idempotency_key = ?",
+                (rs, rowNum) -> toStoredRow(rs), conversationId, idempotencyKey).stream().findFirst();
+    }
+
+    /**
+     * Which of {@code idempotencyKeys} are already stored in each of the given conversations, keyed by conversation id
+     */
+    public Map<Long, Set<String>> findIdempotencyKeys(Collection<Long> conversationIds, Collection<String> idempotencyKeys) {
+        if (conversationIds.isEmpty() || idempotencyKeys.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Set<String>> stored = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT conversation_id, idempotency_key FROM messages "
+                        + "WHERE conversation_id IN (:ids) AND idempotency_key IN (:keys)",
+                Map.of("ids", conversationIds, "keys", idempotencyKeys),
+                (RowCallbackHandler) rs -> stored.computeIfAbsent(rs.getLong("conversation_id"), id -> new HashSet<>())
+                        .add(rs.getString("idempotency_key")));
+        return stored;
+    }
+
+    /**
+     * All messages of one conversation in sequence order
+     */
+    public List<StoredMessageRow> findByConversation(Long conversationId) {
+        return jdbcTemplate.query(
+                "SELECT " + STORED_COLUMNS + " FROM messages WHERE conversation_id = ? ORDER BY seq",
+                (rs, rowNum) -> toStoredRow(rs), conversationId);
+    }
+
+    /**
+     * Streams a conversation's messages with {@code afterId < id < beforeId} (either bound may be null),
+     * oldest first and at most {@code limit} of them, handing rows over one at a time from the cursor
+     */
+    public void streamRange(Long conversationId, Long afterId, Long beforeId, int limit, Consumer<StoredMessageRow> handler) {
+        StringBuilder sql = new StringBuilder("SELECT " + STORED_COLUMNS + " FROM messages WHERE conversation_id = ?");
+        List<Object> params = new ArrayList<>(4);
+        params.add(conversationId);
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            params.add(afterId);
+        }
+        if (beforeId != null) {
+            sql.append(" AND id < ?");
+            params.add(beforeId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        params.add(limit);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL은 useCursorFetch=true일 때만 fetch size 단위로 가져온다
+            ps.setFetchSize(Math.min(limit, STREAM_FETCH_SIZE));
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.accept(toStoredRow(rs)));
+    }
+
+    /**
+     * Id of the message {@code offset} places before the cursor (0 = the nearest older message), if there is one.
+     * Reads only the (conversation_id, id) index.
+     */
+    public Optional<Long> findIdBefore(Long conversationId, Long beforeId, int offset) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM messages WHERE conversation_id = ? AND id < ? ORDER BY id DESC LIMIT 1 OFFSET ?",
+                Long.class, conversationId, beforeId, offset).stream().findFirst();
+    }
+
+    /**
+     * Deletes every message of the given conversations and returns the deleted ids
+     */
+    public List<Long> deleteByConversations(Collection<Long> conversationIds) {
+        if (conversationIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Collection<Long>> params = Map.of("ids", conversationIds);
+        List<Long> ids = namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM messages WHERE conversation_id IN (:ids)", params, Long.class);
+        namedParameterJdbcTemplate.update("DELETE FROM messages WHERE conversation_id IN (:ids)", params);
+        return ids;
+    }
+
+    /**
+     * Deletes up to {@code limit} messages of the given conversations, lowest ids first, and returns
+     * their ids. Ids are selected first so the DELETE is keyed by primary key and
+     * deterministic for statement-based replication.
+     */
+    public List<Long> deleteBatchByConversations(Collection<Long> conversationIds, int limit) {
+        if (conversationIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM messages WHERE conversation_id IN (:ids) ORDER BY id LIMIT :limit",
+                Map.of("ids", conversationIds, "limit", limit),
+                Long.class);
+        if (!ids.isEmpty()) {
+            namedParameterJdbcTemplate.update("DELETE FROM messages WHERE id IN (:ids)", Map.of("ids", ids));
+        }
+        return ids;
+    }
+
+    private StoredMessageRow toStoredRow(ResultSet rs) throws SQLException {
+        return StoredMessageRow.builder()
+                .id(rs.getLong("id"))
+                .conversationId(rs.getLong("conversation_id"))
+                .seq(rs.getLong("seq"))
+                .speaker(rs.getString("speaker"))
+                .content(messageContentCodec.decode(rs.getString("content"), rs.getBytes("content_blob")))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+
+    @Value
+    @Builder
+    public static class StoredMessageRow {
+        Long id;
+        Long conversationId;
+        long seq;
+        String speaker;
+        String content;
+        LocalDateTime createdAt;
+    }
+
+    @Value
+    @Builder
+    public static class NewMessageRow {
+        Long conversationId;
+        long seq;
+        String speaker;
+        String content;
+        LocalDateTime createdAt;
+        String idempotencyKey;
+    }
+}
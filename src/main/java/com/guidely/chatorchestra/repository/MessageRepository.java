@@ -0,0 +1,35 @@
+package com.guidely.chatorchestra.repository;
+
+import com.guidely.chatorchestra.model.Message;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * JPA Repository for messages
+ */
+@Repository
+public interface MessageRepository extends JpaRepository<Message, Long> {
+
+    /**
+     * Keyset page of messages newer than the cursor, oldest first
+     */
+    @Query("select m from Message m where m.conversation.id = :conversationId and m.id > :afterId order by m.id asc")
+    List<Message> findPageAfter(@Param("conversationId") Long conversationId,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+
+    /**
+     * Keyset page of messages older than the cursor, newest first
+     */
+    @Query("select m from Message m where m.conversation.id = :conversationId and m.id < :beforeId order by m.id desc")
+    List<Message> findPageBefore(@Param("conversationId") Long conversationId,
+                                 @Param("beforeId") Long beforeId,
+                                 Pageable pageable);
+
+    long countByConversationId(Long conversationId);
+}
@@ -0,0 +1,70 @@
+package com.guidely.chatorchestra.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into index terms. Hangul runs become overlapping syllable bigrams, so a
+ * word matches regardless of the particle or ending attached to it ("모네의", "모네가");
+ * runs of Latin letters and digits become lower-cased words.
+ */
+public final class HangulBigramTokenizer {
+
+    private HangulBigramTokenizer() {
+    }
+
+    /**
+     * Distinct terms of {@code text} in first-seen order
+     */
+    public static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : words(text)) {
+            if (isHangul(word.charAt(0))) {
+                if (word.length() == 1) {
+                    terms.add(word);
+                }
+                for (int i = 0; i + 1 < word.length(); i++) {
+                    terms.add(word.substring(i, i + 2));
+                }
+            } else {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Lower-cased runs of Hangul, or of other letters and digits, in order.
+     * Used both for indexing and to verify that a candidate really contains the query words.
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        boolean hangulRun = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean wordChar = Character.isLetterOrDigit(c);
+            boolean hangul = wordChar && isHangul(c);
+            if (start >= 0 && (!wordChar || hangul != hangulRun)) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+            if (wordChar && start < 0) {
+                start = i;
+                hangulRun = hangul;
+            }
+        }
+        return words;
+    }
+
+    private static boolean isHangul(char c) {
+        return (c >= '가' && c <= '힣') // 완성형 음절
+                || (c >= 'ㄱ' && c <= 'ㆎ'); // 호환용 자모
+    }
+}
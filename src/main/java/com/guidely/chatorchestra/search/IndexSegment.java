@@ -0,0 +1,248 @@
+package com.guidely.chatorchestra.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Immutable on-disk piece of the search index. The file is memory-mapped rather than loaded:
+ * a query binary-searches the term dictionary and decodes only the postings of its own terms,
+ * so segments cost page cache, not heap.
+ *
+ * <p>File layout: magic, version, indexed-through message id, message count, term count, then the
+ * term dictionary (one 4-byte record offset per term, in term order), the records (varint length +
+ * UTF-8 term, varint length + postings), and a CRC32 trailer. Offsets are ints, so a segment must
+ * stay below 2 GiB.
+ */
+final class IndexSegment {
+
+    private static final int MAGIC = 0x4D534958; // "MSIX"
+    private static final byte VERSION = 2;
+    private static final int HEADER_SIZE = 21;
+    private static final int TRAILER_SIZE = 8;
+
+    private final Path file;
+    private final ByteBuffer mapped;
+    private final long indexedThroughId;
+    private final int messageCount;
+    private final int termCount;
+
+    private IndexSegment(Path file, ByteBuffer mapped, long indexedThroughId, int messageCount, int termCount) {
+        this.file = file;
+        this.mapped = mapped;
+        this.indexedThroughId = indexedThroughId;
+        this.messageCount = messageCount;
+        this.termCount = termCount;
+    }
+
+    /**
+     * Writes the segment atomically (temp file + move) and returns it opened.
+     * {@code terms} must be in {@link String#compareTo} order, which the dictionary search relies on.
+     */
+    static IndexSegment write(Path file, SortedMap<String, long[]> terms, long indexedThroughId, int messageCount)
+            throws IOException {
+        try (Writer writer = new Writer(file)) {
+            for (Map.Entry<String, long[]> entry : terms.entrySet()) {
+                writer.add(entry.getKey(), entry.getValue());
+            }
+            return writer.finish(indexedThroughId, messageCount);
+        }
+    }
+
+    /**
+     * Maps a segment, failing with IOException if it is truncated, corrupt or of another version
+     */
+    static IndexSegment read(Path file) throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IOException("Truncated search segment: " + file);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Search segment too large to map: " + file);
+            }
+            // 매핑은 채널을 닫아도 유지된다
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        int length = mapped.capacity();
+        CRC32 crc = new CRC32();
+        crc.update(mapped.slice(0, length - TRAILER_SIZE));
+        if (crc.getValue() != mapped.getLong(length - TRAILER_SIZE)) {
+            throw new IOException("Checksum mismatch in search segment: " + file);
+        }
+        if (mapped.getInt(0) != MAGIC || mapped.get(4) != VERSION) {
+            throw new IOException("Not a search segment: " + file);
+        }
+        long indexedThroughId = mapped.getLong(5);
+        int messageCount = mapped.getInt(13);
+        int termCount = mapped.getInt(17);
+        if (termCount < 0 || HEADER_SIZE + (long) termCount * Integer.BYTES > length - TRAILER_SIZE) {
+            throw new IOException("Corrupt term dictionary in search segment: " + file);
+        }
+        return new IndexSegment(file, mapped, indexedThroughId, messageCount, termCount);
+    }
+
+    long[] postings(String term) {
+        int index = find(term);
+        return index >= 0 ? postingsAt(index) : new long[0];
+    }
+
+    /**
+     * Terms in dictionary order, decoded lazily
+     */
+    Iterable<String> terms() {
+        return () -> IntStream.range(0, termCount).mapToObj(this::termAt).iterator();
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long indexedThroughId() {
+        return indexedThroughId;
+    }
+
+    int messageCount() {
+        return messageCount;
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    long sizeInBytes() {
+        return mapped.capacity();
+    }
+
+    /**
+     * Dictionary index of {@code term}, or a negative value if the segment does not contain it
+     */
+    private int find(String term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = termAt(mid).compareTo(term);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    String termAt(int index) {
+        int[] position = {mapped.getInt(HEADER_SIZE + index * Integer.BYTES)};
+        byte[] term = new byte[(int) PostingCodec.readVarint(mapped, position)];
+        mapped.get(position[0], term);
+        return new String(term, StandardCharsets.UTF_8);
+    }
+
+    long[] postingsAt(int index) {
+        int[] position = {mapped.getInt(HEADER_SIZE + index * Integer.BYTES)};
+        int termLength = (int) PostingCodec.readVarint(mapped, position);
+        position[0] += termLength;
+        byte[] ids = new byte[(int) PostingCodec.readVarint(mapped, position)];
+        mapped.get(position[0], ids);
+        return PostingCodec.decode(ids);
+    }
+
+    /**
+     * Writes a segment one term at a time, in {@link String#compareTo} order. Records are spooled to a
+     * side file and only their offsets are kept in memory, so a merge never holds the postings in heap.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path file;
+        private final Path records;
+        private final OutputStream recordsOut;
+        private int[] offsets = new int[1024];
+        private int termCount;
+        private long recordsSize;
+        private String lastTerm;
+
+        Writer(Path file) throws IOException {
+            this.file = file;
+            this.records = file.resolveSibling(file.getFileName() + ".records");
+            this.recordsOut = new BufferedOutputStream(Files.newOutputStream(records));
+        }
+
+        void add(String term, long[] sortedIds) throws IOException {
+            if (lastTerm != null && lastTerm.compareTo(term) >= 0) {
+                throw new IllegalArgumentException("Terms out of order: " + lastTerm + ", " + term);
+            }
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+            byte[] ids = PostingCodec.encode(sortedIds);
+            PostingCodec.writeVarint(record, bytes.length);
+            record.writeBytes(bytes);
+            PostingCodec.writeVarint(record, ids.length);
+            record.writeBytes(ids);
+
+            // 오프셋은 사전 뒤 레코드 영역 안의 상대 위치로 두고, 사전 크기가 정해지는 finish에서 보정한다
+            if (termCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[termCount++] = (int) recordsSize;
+            record.writeTo(recordsOut);
+            recordsSize += record.size();
+            if (HEADER_SIZE + (long) termCount * Integer.BYTES + recordsSize + TRAILER_SIZE > Integer.MAX_VALUE) {
+                throw new IOException("Search segment would exceed 2 GiB: " + file);
+            }
+            lastTerm = term;
+        }
+
+        /**
+         * Writes header, dictionary and the spooled records to a temp file, moves it into place and opens it
+         */
+        IndexSegment finish(long indexedThroughId, int messageCount) throws IOException {
+            recordsOut.close();
+            int recordsStart = HEADER_SIZE + termCount * Integer.BYTES;
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                CheckedOutputStream checked = new CheckedOutputStream(fileOut, new CRC32());
+                DataOutputStream out = new DataOutputStream(checked);
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(indexedThroughId);
+                out.writeInt(messageCount);
+                out.writeInt(termCount);
+                for (int i = 0; i < termCount; i++) {
+                    out.writeInt(recordsStart + offsets[i]);
+                }
+                Files.copy(records, out);
+                out.flush();
+                // 체크섬은 트레일러 앞까지만 덮는다
+                fileOut.write(ByteBuffer.allocate(TRAILER_SIZE).putLong(checked.getChecksum().getValue()).array());
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return read(file);
+        }
+
+        @Override
+        public void close() throws IOException {
+            recordsOut.close();
+            Files.deleteIfExists(records);
+        }
+    }
+}
@@ -0,0 +1,567 @@
+package com.guidely.chatorchestra.search;
+
+import com.guidely.chatorchestra.config.SearchProperties;
+import com.guidely.chatorchestra.event.MessageAppendedEvent;
+import com.guidely.chatorchestra.id.IdGenerator;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index from terms to message ids.
+ *
+ * <p>New messages go into an in-memory buffer as they are committed. The buffer is
+ * periodically written out as an immutable segment file, and segments are merged when
+ * there are too many. On startup the segments are loaded and every message after the
+ * last persisted position is re-read from the database, so the index catches up with
+ * writes made while the node was down.
+ *
+ * <p>The periodic poll re-reads ids from {@code poll-lag} before the newest indexed message, since
+ * a smaller id can commit later (another node, a slow transaction), and skips ids it already indexed.
+ *
+ * <p>Messages removed by retention or archiving are recorded as tombstones (kept in a file next to
+ * the segments) and dropped from the postings when the segments are next merged.
+ */
+@Component
+@Slf4j
+public class MessageSearchIndex {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TOMBSTONE_FILE = "tombstones.del";
+
+    private final SearchProperties properties;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final IdGenerator idGenerator;
+    private final AsyncTaskExecutor taskExecutor;
+
+    // 버퍼 교체(flush)와 추가를 분리: 추가는 read lock을 여러 스레드가 동시에 잡는다
+    private final ReentrantReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock tombstoneLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong segmentSequence = new AtomicLong();
+    // 이 id까지의 메시지는 모두 인덱스에 들어 있다 (재시작 시 여기서부터 따라잡기)
+    private final AtomicLong watermark = new AtomicLong();
+    // poll이 다시 읽는 구간(dedupeFloor 초과)에서 이미 색인한 id
+    private final ConcurrentSkipListSet<Long> recentlyIndexed = new ConcurrentSkipListSet<>();
+    private volatile long dedupeFloor;
+    // 삭제된 메시지 id: 다음 병합 때 포스팅에서 뺀다
+    private final ConcurrentSkipListSet<Long> tombstones = new ConcurrentSkipListSet<>();
+
+    private volatile Buffer live = new Buffer();
+    private volatile Buffer flushing;
+    private volatile List<IndexSegment> segments = List.of();
+    private volatile boolean ready;
+    private Thread rebuilder;
+
+    public MessageSearchIndex(SearchProperties properties,
+                              MessageJdbcRepository messageJdbcRepository,
+                              IdGenerator idGenerator,
+                              @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.messageJdbcRepository = messageJdbcRepository;
+        this.idGenerator = idGenerator;
+        this.taskExecutor = taskExecutor;
+        Gauge.builder("chat.search.index.bytes", this,
+                        index -> index.segments.stream().mapToLong(IndexSegment::sizeInBytes).sum())
+                .description("Size of the persisted search segments")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("chat.search.index.segments", this, index -> index.segments.size())
+                .register(meterRegistry);
+        Gauge.builder("chat.search.index.messages", this, index -> index.messageCount())
+                .description("Approximate messages in the search index, including the unflushed buffer")
+                .register(meterRegistry);
+        Gauge.builder("chat.search.index.buffered", this, index -> index.live.messageCount.get())
+                .description("Messages indexed in memory but not yet written to a segment")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(properties.getDirectory());
+        segments = loadSegments();
+        tombstones.addAll(loadTombstones());
+        long resumeFrom = Math.max(0, segments.stream().mapToLong(IndexSegment::indexedThroughId).max().orElse(0)
+                - properties.getRebuildOverlap());
+        watermark.set(resumeFrom);
+        // 재색인 중에는 id를 기억하지 않는다 (전체 재색인이면 모든 id가 쌓임). 첫 poll이 기준을 정한다
+        dedupeFloor = Long.MAX_VALUE;
+
+        // DB 전체 재색인은 오래 걸릴 수 있으므로 기동을 막지 않고 백그라운드에서 진행
+        rebuilder = new Thread(() -> catchUp(resumeFrom), "search-index-rebuild");
+        rebuilder.setDaemon(true);
+        rebuilder.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (rebuilder == null) {
+            return;
+        }
+        rebuilder.interrupt();
+        rebuilder.join(5_000);
+        flush();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * False while the startup catch-up is still running; results may be incomplete until then
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageAppended(MessageAppendedEvent event) {
+        if (!properties.isEnabled() || event.getMessage().getMessageId() == null) {
+            return;
+        }
+        add(event.getMessage().getMessageId(), event.getMessage().getContent());
+        if (ready) {
+            watermark.accumulateAndGet(event.getMessage().getMessageId(), Math::max);
+        }
+    }
+
+    /**
+     * Tombstones deleted messages so the next merge drops them from the postings. Until then they
+     * stay in the segments, which is harmless: search reads every candidate back from the database.
+     */
+    public void delete(Collection<Long> messageIds) {
+        if (!properties.isEnabled() || messageIds.isEmpty()) {
+            return;
+        }
+        tombstoneLock.lock();
+        try {
+            tombstones.addAll(messageIds);
+            ByteBuffer bytes = ByteBuffer.allocate(messageIds.size() * Long.BYTES);
+            messageIds.forEach(bytes::putLong);
+            try (FileChannel channel = FileChannel.open(tombstoneFile(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(bytes.flip());
+            }
+        } catch (IOException e) {
+            // 파일에 못 남긴 삭제는 재시작 전까지 메모리에서만 적용된다
+            log.warn("Failed to record {} search tombstones", messageIds.size(), e);
+        } finally {
+            tombstoneLock.unlock();
+        }
+    }
+
+    /**
+     * Ids of messages containing every term, ascending
+     */
+    public long[] candidates(Collection<String> terms) {
+        List<long[]> postings = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            long[] ids = postings(term);
+            if (ids.length == 0) {
+                return ids;
+            }
+            postings.add(ids);
+        }
+        postings.sort((a, b) -> Integer.compare(a.length, b.length));
+        long[] result = postings.isEmpty() ? new long[0] : postings.get(0);
+        for (int i = 1; i < postings.size() && result.length > 0; i++) {
+            result = PostingCodec.intersect(result, postings.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Indexes messages written by other instances (or missed events). Ids are listed from
+     * {@code poll-lag} before now (or from the watermark, if older) and only unseen ones are loaded.
+     */
+    @Scheduled(fixedDelayString = "${chat-orchestra.search.poll-interval:10s}")
+    public void poll() {
+        if (!properties.isEnabled() || !ready) {
+            return;
+        }
+        long cursor = Math.min(watermark.get(),
+                idGenerator.lowestIdAt(Instant.now().minus(properties.getPollLag())));
+        // 다시 읽지 않을 구간의 id는 더 기억할 필요가 없다
+        dedupeFloor = cursor;
+        recentlyIndexed.headSet(cursor, true).clear();
+        List<Long> ids;
+        do {
+            ids = messageJdbcRepository.findIdsAfter(cursor, properties.getRebuildBatchSize());
+            List<Long> unseen = ids.stream()
+                    .filter(id -> !recentlyIndexed.contains(id))
+                    .collect(Collectors.toList());
+            for (StoredMessageRow row : messageJdbcRepository.findByIds(unseen)) {
+                add(row.getId(), row.getContent());
+            }
+            if (!ids.isEmpty()) {
+                cursor = ids.get(ids.size() - 1);
+                watermark.accumulateAndGet(cursor, Math::max);
+            }
+        } while (ids.size() == properties.getRebuildBatchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${chat-orchestra.search.flush-interval:30s}")
+    public void flush() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            Buffer frozen;
+            long indexedThrough;
+            bufferLock.writeLock().lock();
+            try {
+                if (live.messageCount.get() == 0) {
+                    return;
+                }
+                frozen = live;
+                flushing = frozen;
+                live = new Buffer();
+                // 이후 올라간 워터마크의 메시지는 새 버퍼에 있으므로, 이 버퍼가 실제로 담은 id까지만 기록한다
+                indexedThrough = Math.min(frozen.maxId.get(), watermark.get());
+            } finally {
+                bufferLock.writeLock().unlock();
+            }
+
+            try {
+                IndexSegment segment = IndexSegment.write(nextSegmentFile(), frozen.sortedPostings(),
+                        indexedThrough, frozen.messageCount.get());
+                List<IndexSegment> next = new ArrayList<>(segments);
+                next.add(segment);
+                segments = List.copyOf(next);
+                flushing = null;
+                log.debug("Flushed search segment {} with {} messages", segment.file(), segment.messageCount());
+            } catch (IOException e) {
+                log.error("Failed to write search segment, keeping {} messages in memory", frozen.messageCount.get(), e);
+                bufferLock.writeLock().lock();
+                try {
+                    live.addAll(frozen);
+                    flushing = null;
+                } finally {
+                    bufferLock.writeLock().unlock();
+                }
+                return;
+            }
+
+            if (segments.size() > properties.getMaxSegments()) {
+                merge();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    void add(long messageId, String content) {
+        if (messageId > dedupeFloor && !recentlyIndexed.add(messageId)) {
+            return;
+        }
+        Set<String> terms = HangulBigramTokenizer.terms(content);
+        bufferLock.readLock().lock();
+        try {
+            live.add(messageId, terms);
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+        if (live.messageCount.get() >= properties.getFlushThreshold() && flushRequested.compareAndSet(false, true)) {
+            taskExecutor.execute(this::flush);
+        }
+    }
+
+    private long[] postings(String term) {
+        long[] ids = new long[0];
+        for (IndexSegment segment : segments) {
+            ids = PostingCodec.union(ids, segment.postings(term));
+        }
+        Buffer pending = flushing;
+        if (pending != null) {
+            ids = PostingCodec.union(ids, pending.postings(term));
+        }
+        return PostingCodec.union(ids, live.postings(term));
+    }
+
+    private void catchUp(long fromId) {
+        long started = System.nanoTime();
+        long cursor = fromId;
+        int indexed = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<StoredMessageRow> rows = messageJdbcRepository.findAfter(cursor, properties.getRebuildBatchSize());
+                for (StoredMessageRow row : rows) {
+                    add(row.getId(), row.getContent());
+                }
+                indexed += rows.size();
+                if (!rows.isEmpty()) {
+                    cursor = rows.get(rows.size() - 1).getId();
+                    watermark.accumulateAndGet(cursor, Math::max);
+                }
+                if (rows.size() < properties.getRebuildBatchSize()) {
+                    ready = true;
+                    log.info("Search index caught up from message {}: {} messages in {} ms",
+                            fromId, indexed, (System.nanoTime() - started) / 1_000_000);
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Search index catch-up stopped at message {}", cursor, e);
+        }
+    }
+
+    /**
+     * Merges every segment into one, dropping tombstoned ids. The sorted term dictionaries are walked
+     * together (k-way), so only one term's postings are in memory at a time.
+     */
+    private void merge() {
+        List<IndexSegment> current = segments;
+        Set<Long> applied = Set.copyOf(tombstones);
+        Set<Long> removed = new HashSet<>();
+        PriorityQueue<TermCursor> cursors = new PriorityQueue<>(Comparator.comparing(TermCursor::term));
+        long indexedThrough = 0;
+        int messages = 0;
+        for (IndexSegment segment : current) {
+            if (segment.termCount() > 0) {
+                cursors.add(new TermCursor(segment));
+            }
+            indexedThrough = Math.max(indexedThrough, segment.indexedThroughId());
+            messages += segment.messageCount();
+        }
+        try (IndexSegment.Writer writer = new IndexSegment.Writer(nextSegmentFile())) {
+            while (!cursors.isEmpty()) {
+                String term = cursors.peek().term();
+                long[] ids = new long[0];
+                while (!cursors.isEmpty() && cursors.peek().term().equals(term)) {
+                    TermCursor cursor = cursors.poll();
+                    ids = PostingCodec.union(ids, cursor.postings());
+                    if (cursor.advance()) {
+                        cursors.add(cursor);
+                    }
+                }
+                long[] kept = applied.isEmpty() ? ids : withoutTombstones(ids, applied, removed);
+                if (kept.length > 0) {
+                    writer.add(term, kept);
+                }
+            }
+            IndexSegment merged = writer.finish(indexedThrough, messages - removed.size());
+            segments = List.of(merged);
+            for (IndexSegment segment : current) {
+                Files.deleteIfExists(segment.file());
+            }
+            clearTombstones(applied);
+            log.info("Merged {} search segments into {}, dropping {} deleted messages",
+                    current.size(), merged.file(), removed.size());
+        } catch (IOException e) {
+            log.error("Failed to merge search segments", e);
+        }
+    }
+
+    private static long[] withoutTombstones(long[] ids, Set<Long> tombstoned, Set<Long> removed) {
+        long[] kept = new long[ids.length];
+        int n = 0;
+        for (long id : ids) {
+            if (tombstoned.contains(id)) {
+                removed.add(id);
+            } else {
+                kept[n++] = id;
+            }
+        }
+        return n == ids.length ? ids : Arrays.copyOf(kept, n);
+    }
+
+    /**
+     * Forgets tombstones the merge has applied and rewrites the file with the ones recorded since
+     */
+    private void clearTombstones(Set<Long> applied) throws IOException {
+        tombstoneLock.lock();
+        try {
+            tombstones.removeAll(applied);
+            Path file = tombstoneFile();
+            if (tombstones.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            ByteBuffer bytes = ByteBuffer.allocate(tombstones.size() * Long.BYTES);
+            tombstones.forEach(bytes::putLong);
+            Path temp = file.resolveSibling(TOMBSTONE_FILE + ".tmp");
+            Files.write(temp, bytes.array());
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            tombstoneLock.unlock();
+        }
+    }
+
+    private List<Long> loadTombstones() throws IOException {
+        Path file = tombstoneFile();
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        // 기록 중 멈춰 잘린 마지막 id는 버린다
+        List<Long> ids = new ArrayList<>(bytes.remaining() / Long.BYTES);
+        while (bytes.remaining() >= Long.BYTES) {
+            ids.add(bytes.getLong());
+        }
+        return ids;
+    }
+
+    private Path tombstoneFile() {
+        return properties.getDirectory().resolve(TOMBSTONE_FILE);
+    }
+
+    private List<IndexSegment> loadSegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(properties.getDirectory())) {
+            files = list.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        List<IndexSegment> loaded = new ArrayList<>(files.size());
+        try {
+            for (Path file : files) {
+                loaded.add(IndexSegment.read(file));
+                segmentSequence.accumulateAndGet(sequenceOf(file) + 1, Math::max);
+            }
+        } catch (IOException | RuntimeException e) {
+            // 손상된 세그먼트가 있으면 모두 버리고 DB에서 처음부터 다시 만든다
+            log.warn("Discarding search segments and rebuilding from the database: {}", e.getMessage());
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            return List.of();
+        }
+        log.info("Loaded {} search segments ({} messages)", loaded.size(),
+                loaded.stream().mapToInt(IndexSegment::messageCount).sum());
+        return List.copyOf(loaded);
+    }
+
+    private Path nextSegmentFile() {
+        return properties.getDirectory().resolve(
+                String.format("%s%010d%s", SEGMENT_PREFIX, segmentSequence.getAndIncrement(), SEGMENT_SUFFIX));
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private long messageCount() {
+        Buffer pending = flushing;
+        return segments.stream().mapToLong(IndexSegment::messageCount).sum()
+                + (pending != null ? pending.messageCount.get() : 0)
+                + live.messageCount.get();
+    }
+
+    /**
+     * Postings of messages not yet written to a segment
+     */
+    private static final class Buffer {
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+        private final AtomicInteger messageCount = new AtomicInteger();
+        private final AtomicLong maxId = new AtomicLong();
+
+        private void add(long messageId, Set<String> terms) {
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(messageId);
+            }
+            messageCount.incrementAndGet();
+            maxId.accumulateAndGet(messageId, Math::max);
+        }
+
+        private void addAll(Buffer other) {
+            other.postings.forEach((term, ids) -> postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet())
+                    .addAll(ids));
+            messageCount.addAndGet(other.messageCount.get());
+            maxId.accumulateAndGet(other.maxId.get(), Math::max);
+        }
+
+        private long[] postings(String term) {
+            Set<Long> ids = postings.get(term);
+            if (ids == null) {
+                return new long[0];
+            }
+            long[] sorted = ids.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private SortedMap<String, long[]> sortedPostings() {
+            SortedMap<String, long[]> sorted = new TreeMap<>();
+            postings.keySet().forEach(term -> sorted.put(term, postings(term)));
+            return sorted;
+        }
+    }
+
+    /**
+     * Position in one segment's term dictionary during a merge
+     */
+    private static final class TermCursor {
+        private final IndexSegment segment;
+        private int index;
+        private String term;
+
+        private TermCursor(IndexSegment segment) {
+            this.segment = segment;
+            this.term = segment.termAt(0);
+        }
+
+        private String term() {
+            return term;
+        }
+
+        private long[] postings() {
+            return segment.postingsAt(index);
+        }
+
+        private boolean advance() {
+            if (++index >= segment.termCount()) {
+                return false;
+            }
+            term = segment.termAt(index);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.guidely.chatorchestra.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identity of a committed message: its id and its position in the conversation
+ */
+@Value
+@Builder
+public class AppendedMessage {
+    Long id;
+    long seq;
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,175 @@
+package com.guidely.chatorchestra.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidely.chatorchestra.archive.ArchiveStore;
+import com.guidely.chatorchestra.archive.ArchivedConversation;
+import com.guidely.chatorchestra.compression.MessageContentCodec;
+import com.guidely.chatorchestra.config.ExportProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.repository.ConversationExportRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Writes conversations and their messages as NDJSON, one line per row, straight from
+ * the database cursor so heap use does not grow with the size of the export.
+ */
+@Service
+@Slf4j
+public class ConversationExportService {
+
+    private final ConversationExportRepository conversationExportRepository;
+    private final ExportProperties exportProperties;
+    private final ObjectMapper objectMapper;
+    private final MessageContentCodec messageContentCodec;
+    private final ArchiveStore archiveStore;
+    private final Counter exportedConversations;
+    private final Counter exportedMessages;
+
+    public ConversationExportService(ConversationExportRepository conversationExportRepository,
+                                     ExportProperties exportProperties,
+                                     ObjectMapper objectMapper,
+                                     MessageContentCodec messageContentCodec,
+                                     ArchiveStore archiveStore,
+                                     MeterRegistry meterRegistry) {
+        this.conversationExportRepository = conversationExportRepository;
+        this.exportProperties = exportProperties;
+        this.objectMapper = objectMapper;
+        this.messageContentCodec = messageContentCodec;
+        this.archiveStore = archiveStore;
+        this.exportedConversations = Counter.builder("chat.export.rows")
+                .tag("type", "conversation")
+                .register(meterRegistry);
+        this.exportedMessages = Counter.builder("chat.export.rows")
+                .tag("type", "message")
+                .register(meterRegistry);
+    }
+
+    public void export(Instant startedFrom, Instant startedTo, OutputStream out) throws IOException {
+        log.info("Exporting conversations started in [{}, {})", startedFrom, startedTo);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+
+            ExportWriter writer = new ExportWriter(generator);
+            try {
+                conversationExportRepository.streamConversations(
+                        MessageMapper.toLocalDateTime(startedFrom),
+                        MessageMapper.toLocalDateTime(startedTo),
+                        writer::write);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (writer.rows > 0) {
+                generator.writeRaw('\n');
+            }
+            log.info("Exported {} conversations, {} rows", writer.conversations, writer.rows);
+        }
+    }
+
+    private final class ExportWriter {
+        private final JsonGenerator generator;
+        private long currentConversationId = -1;
+        private long conversations;
+        private long rows;
+
+        private ExportWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        private void write(ResultSet rs) throws SQLException {
+            try {
+                long conversationId = rs.getLong("conversation_id");
+                if (conversationId != currentConversationId) {
+                    currentConversationId = conversationId;
+                    writeConversation(rs, conversationId);
+                    conversations++;
+                    if (rs.getTimestamp("archived_at") != null) {
+                        // 아카이브된 대화는 메시지 행이 없으므로 세그먼트에서 읽어 쓴다
+                        writeArchivedMessages(conversationId);
+                    }
+                }
+                long messageId = rs.getLong("message_id");
+                if (!rs.wasNull()) {
+                    writeMessage(rs, conversationId, messageId);
+                }
+                if (rows % exportProperties.getFlushEveryRows() == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                // 클라이언트 연결이 끊기면 커서를 닫고 중단
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeConversation(ResultSet rs, long conversationId) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "conversation");
+            generator.writeNumberField("session_id", conversationId);
+            writeTimestamp("started_at", rs.getTimestamp("started_at"));
+            writeTimestamp("ended_at", rs.getTimestamp("ended_at"));
+            generator.writeEndObject();
+            exportedConversations.increment();
+            rows++;
+        }
+
+        private void writeMessage(ResultSet rs, long conversationId, long messageId) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "message");
+            generator.writeNumberField("session_id", conversationId);
+            generator.writeNumberField("message_id", messageId);
+            generator.writeNumberField("seq", rs.getLong("seq"));
+            generator.writeStringField("role", MessageMapper.toRole(rs.getString("speaker")).name());
+            generator.writeStringField("content",
+                    messageContentCodec.decode(rs.getString("content"), rs.getBytes("content_blob")));
+            writeTimestamp("created_at", rs.getTimestamp("created_at"));
+            generator.writeEndObject();
+            exportedMessages.increment();
+            rows++;
+        }
+
+        private void writeArchivedMessages(long conversationId) throws IOException {
+            ArchivedConversation archived = archiveStore.read(conversationId)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Archived conversation is not available on this node: " + conversationId));
+            for (MessageDto message : archived.getMessages()) {
+                generator.writeStartObject();
+                generator.writeStringField("type", "message");
+                generator.writeNumberField("session_id", conversationId);
+                generator.writeNumberField("message_id", message.getMessageId());
+                generator.writeNumberField("seq", message.getSeq());
+                generator.writeStringField("role", message.getRole().name());
+                generator.writeStringField("content", message.getContent());
+                if (message.getCreatedAt() != null) {
+                    generator.writeStringField("created_at", message.getCreatedAt().toString());
+                }
+                generator.writeEndObject();
+                exportedMessages.increment();
+                rows++;
+            }
+        }
+
+        private void writeTimestamp(String field, Timestamp value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            LocalDateTime dateTime = value.toLocalDateTime();
+            generator.writeStringField(field, MessageMapper.toInstant(dateTime).toString());
+        }
+    }
+}
@@ -1,24 +1,72 @@
 package com.guidely.chatorchestra.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.guidely.chatorchestra.archive.ArchiveStore;
+import com.guidely.chatorchestra.archive.ArchivedConversation;
+import com.guidely.chatorchestra.cache.CachedConversation;
+import com.guidely.chatorchestra.cache.ConversationCache;
+import com.guidely.chatorchestra.cache.HistorySlice;
+import com.guidely.chatorchestra.compression.MessageContentCodec;
+import com.guidely.chatorchestra.config.EventsProperties;
+import com.guidely.chatorchestra.config.HistoryProperties;
+import com.guidely.chatorchestra.config.ListingProperties;
+import com.guidely.chatorchestra.dto.StreamingEnvelope;
 import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import com.guidely.chatorchestra.dto.conversation.ListConversationsResponse;
 import com.guidely.chatorchestra.dto.conversation.PostMessageResponse;
+import com.guidely.chatorchestra.event.ConversationEndedEvent;
+import com.guidely.chatorchestra.event.ConversationEventHub;
+import com.guidely.chatorchestra.event.MessageAppendedEvent;
+import com.guidely.chatorchestra.exception.ServiceOverloadedException;
+import com.guidely.chatorchestra.idempotency.IdempotencyStore;
+import com.guidely.chatorchestra.journal.JournalEntry;
+import com.guidely.chatorchestra.journal.MessageJournal;
+import com.guidely.chatorchestra.mapper.ConversationJsonWriter;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.metrics.ChatMetrics;
+import com.guidely.chatorchestra.metrics.ConversationMetrics;
 import com.guidely.chatorchestra.model.Conversation;
 import com.guidely.chatorchestra.model.Message;
-import com.guidely.chatorchestra.model.enums.MessageRole;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository.AppendState;
+import com.guidely.chatorchestra.repository.ConversationQueryRepository;
+import com.guidely.chatorchestra.repository.ConversationQueryRepository.ConversationFilter;
+import com.guidely.chatorchestra.repository.ConversationQueryRepository.ConversationSummaryRow;
 import com.guidely.chatorchestra.repository.ConversationRepository;
+import com.guidely.chatorchestra.repository.ConversationState;
+import com.guidely.chatorchestra.repository.ConversationVersionState;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+import com.guidely.chatorchestra.repository.MessageRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,88 +75,675 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ConversationService {
     
+    private static final String JOURNAL_KEY_PREFIX = "journal-";
+    private static final Duration JOURNAL_DRAIN_RETRY_AFTER = Duration.ofSeconds(1);
+    
+    private static final String SESSION_STATUS = "ACTIVE"; // 임시 하드코딩
+    
     private final ConversationRepository conversationRepository;
+    private final ConversationJdbcRepository conversationJdbcRepository;
+    private final ConversationQueryRepository conversationQueryRepository;
+    private final MessageRepository messageRepository;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final HistoryProperties historyProperties;
+    private final ListingProperties listingProperties;
+    private final EventsProperties eventsProperties;
+    private final MessageIngestionPipeline messageIngestionPipeline;
+    private final MessageJournal messageJournal;
+    private final ConversationWriteLocks conversationWriteLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversationCache conversationCache;
+    private final ArchiveStore archiveStore;
+    private final IdempotencyStore idempotencyStore;
+    private final ConversationEventHub conversationEventHub;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConversationMetrics conversationMetrics;
+    private final MessageContentCodec messageContentCodec;
+    
+    /**
+     * idempotencyKey가 있으면 같은 키의 재시도에 처음 만든 대화를 돌려준다.
+     * 유니크 위반을 잡아 기존 행을 다시 읽을 수 있도록 트랜잭션은 저장 한 건에만 건다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = ChatMetrics.SERVICE_OPERATION, extraTags = {ChatMetrics.TAG_OPERATION, "start_session"}, histogram = true)
+    public Conversation startSession(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createConversation(null);
+        }
+        return idempotencyStore.execute("conversation", idempotencyKey, () -> createConversation(idempotencyKey));
+    }
     
-    public Conversation startSession() {
+    private Conversation createConversation(String idempotencyKey) {
         log.info("Starting new conversation session");
         
         Conversation conversation = Conversation.builder()
+                .idempotencyKey(idempotencyKey)
                 .build();
         
-        Conversation saved = conversationRepository.save(conversation);
+        Conversation saved;
+        try {
+            saved = transactionTemplate.execute(status -> conversationRepository.save(conversation));
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            Conversation existing = conversationRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+            idempotencyStore.recordDatabaseHit();
+            log.info("Replaying conversation session {} for idempotency key", existing.getId());
+            return existing;
+        }
+        conversationCache.putNew(saved.getId(), saved.getStartedAt());
         log.info("Started conversation session: {}", saved.getId());
         
         return saved;
     }
     
+    /**
+     * 배치 파이프라인이 켜져 있으면 호출 스레드가 트랜잭션 없이 커밋을 기다리도록 NOT_SUPPORTED로 실행.
+     * 없는 대화는 NoSuchElementException, 종료된 대화는 IllegalStateException을 던진다.
+     * idempotencyKey가 있으면 같은 키의 재시도는 아무것도 쓰지 않고 처음 응답을 돌려준다.
+     * 순번(seq)은 대화 행 잠금 안에서 정해지므로 커밋 시점과 무관하게 빈틈 없이 1씩 증가한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = ChatMetrics.SERVICE_OPERATION, extraTags = {ChatMetrics.TAG_OPERATION, "append_message"}, histogram = true)
     public PostMessageResponse appendMessage(Long conversationId, String speaker, String content, 
-                                             String assistantPreview) {
+                                             String assistantPreview, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return writeMessage(conversationId, speaker, content, assistantPreview, null);
+        }
+        return idempotencyStore.execute("message:" + conversationId, idempotencyKey,
+                () -> writeMessage(conversationId, speaker, content, assistantPreview, idempotencyKey));
+    }
+    
+    private PostMessageResponse writeMessage(Long conversationId, String speaker, String content,
+                                             String assistantPreview, String idempotencyKey) {
         log.info("Appending message to conversation: {}, speaker: {}, content length: {}", 
                 conversationId, speaker, content.length());
+        // 저널 모드에서는 응답한 뒤에 저장하므로, 저장할 수 없는 본문은 받기 전에 거절한다
+        messageContentCodec.requireStorable(content);
         
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+        if (messageJournal.isEnabled()) {
+            return journalMessage(conversationId, speaker, content, assistantPreview, idempotencyKey);
+        }
+        
+        AppendedMessage appended;
+        try {
+            if (messageIngestionPipeline.isEnabled()) {
+                appended = await(messageIngestionPipeline.submit(conversationId, speaker, content, idempotencyKey));
+            } else {
+                // 같은 대화의 쓰기는 노드 안에서 한 줄로 세우고, 노드 간에는 대화 행 잠금이 순번을 지킨다
+                appended = conversationWriteLocks.withLock(conversationId, () -> transactionTemplate.execute(status -> {
+                    AppendState state = requireWritable(conversationJdbcRepository.lockForAppend(conversationId),
+                            conversationId);
+                    LocalDateTime createdAt = LocalDateTime.now();
+                    
+                    Message message = Message.builder()
+                            .conversation(conversationRepository.getReferenceById(conversationId))
+                            .seq(state.nextSeq())
+                            .speaker(speaker)
+                            .content(content)
+                            .createdAt(createdAt)
+                            .idempotencyKey(idempotencyKey)
+                            .build();
+                    
+                    Long savedId = messageRepository.save(message).getId();
+                    conversationJdbcRepository.incrementMessageCounters(conversationId, savedId, createdAt);
+                    return AppendedMessage.builder()
+                            .id(savedId)
+                            .seq(message.getSeq())
+                            .createdAt(createdAt)
+                            .build();
+                }));
+            }
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            // 메모리 창을 벗어난 재시도(다른 인스턴스, 재시작, TTL 만료)는 유니크 인덱스가 막는다
+            StoredMessageRow existing = messageJdbcRepository.findByIdempotencyKey(conversationId, idempotencyKey)
+                    .orElseThrow(() -> e);
+            idempotencyStore.recordDatabaseHit();
+            log.info("Replaying message {} in conversation {} for idempotency key", existing.getId(), conversationId);
+            return PostMessageResponse.builder()
+                    .messageId(existing.getId())
+                    .seq(existing.getSeq())
+                    .sessionId(conversationId)
+                    .role(MessageMapper.toRole(existing.getSpeaker()))
+                    .content(existing.getContent())
+                    .createdAt(MessageMapper.toInstant(existing.getCreatedAt()))
+                    .assistantPreview(assistantPreview)
+                    .build();
+        }
+        
+        log.info("Added message: {} (seq {}) to conversation: {}", appended.getId(), appended.getSeq(), conversationId);
+        conversationMetrics.recordMessage(content);
         
-        Message message = Message.builder()
-                .speaker(speaker)
+        GetConversationResponse.MessageDto written = GetConversationResponse.MessageDto.builder()
+                .messageId(appended.getId())
+                .seq(appended.getSeq())
+                .role(MessageMapper.toRole(speaker))
                 .content(content)
-                .createdAt(LocalDateTime.now())
+                .createdAt(MessageMapper.toInstant(appended.getCreatedAt()))
                 .build();
+        conversationCache.appendMessage(conversationId, written);
+        eventPublisher.publishEvent(new MessageAppendedEvent(conversationId, written));
         
-        conversation.addMessage(message);
-        conversationRepository.save(conversation);
+        return PostMessageResponse.builder()
+                .messageId(appended.getId())
+                .seq(appended.getSeq())
+                .sessionId(conversationId)
+                .role(MessageMapper.toRole(speaker))
+                .content(content)
+                .createdAt(written.getCreatedAt())
+                .assistantPreview(assistantPreview)
+                .build();
+    }
+    
+    /**
+     * 저널 모드: 로컬 저널에 fsync한 뒤 바로 응답하고 DB 반영은 JournalDrainer가 한다.
+     * 메시지 id/순번은 반영 시점에 정해지므로 응답에는 없다 (조회나 SSE로 확인).
+     * DB에 닿지 않으면 대화 상태 확인을 건너뛰고 받으며, 없거나 종료된 대화였다면 반영 단계에서 버려진다.
+     */
+    private PostMessageResponse journalMessage(Long conversationId, String speaker, String content,
+                                               String assistantPreview, String idempotencyKey) {
+        CachedConversation cached = conversationCache.get(conversationId);
+        if (cached != null && !cached.isStale()) {
+            if (cached.getEndedAt() != null) {
+                throw new IllegalStateException("Conversation already ended: " + conversationId);
+            }
+        } else {
+            try {
+                ConversationState conversation = conversationRepository.findStateById(conversationId)
+                        .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+                if (conversation.getEndedAt() != null) {
+                    throw new IllegalStateException("Conversation already ended: " + conversationId);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Accepting message for conversation {} without a state check: {}", conversationId, e.getMessage());
+            }
+        }
         
-        log.info("Added message: {} to conversation: {}", message.getId(), conversationId);
+        JournalEntry entry;
+        try {
+            // 클라이언트 키가 없어도 저널 항목마다 키를 붙여 재생 시 중복 반영을 막는다
+            entry = messageJournal.append(conversationId, speaker, content,
+                    idempotencyKey != null ? idempotencyKey : JOURNAL_KEY_PREFIX + UUID.randomUUID(),
+                    LocalDateTime.now());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal message", e);
+        }
+        log.info("Journaled message at {} for conversation: {}", entry.getLsn(), conversationId);
+        conversationMetrics.recordMessage(content);
         
         return PostMessageResponse.builder()
-                .messageId(message.getId())
                 .sessionId(conversationId)
-                .role(MessageRole.valueOf(speaker.toUpperCase())) // 임시 변환
+                .role(MessageMapper.toRole(speaker))
                 .content(content)
-                .createdAt(message.getCreatedAt().atZone(ZoneOffset.UTC).toInstant())
+                .createdAt(MessageMapper.toInstant(entry.getCreatedAt()))
                 .assistantPreview(assistantPreview)
                 .build();
     }
     
-    public GetConversationResponse getSession(Long conversationId) {
-        log.info("Getting conversation session: {}", conversationId);
+    /**
+     * 커서 기반으로 대화 메시지를 조회한다.
+     * before/after 둘 다 없으면 가장 오래된 메시지부터 limit개를 돌려준다.
+     * 캐시가 요청 구간을 모두 갖고 있으면 DB를 거치지 않으므로 트랜잭션을 미리 열지 않는다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    @Timed(value = ChatMetrics.SERVICE_OPERATION, extraTags = {ChatMetrics.TAG_OPERATION, "get_session"}, histogram = true)
+    public GetConversationResponse getSession(Long conversationId, Long before, Long after, Integer limit) {
+        log.info("Getting conversation session: {}, before: {}, after: {}, limit: {}", 
+                conversationId, before, after, limit);
+        
+        int pageSize = historyPageSize(before, after, limit);
+        
+        CachedConversation cached = currentCacheEntry(conversationId);
+        HistorySlice page = conversationCache.read(cached, before, after, pageSize);
+        if (page == null) {
+            page = loadHistory(conversationId, before, after, pageSize, cached);
+        }
+        
+        List<GetConversationResponse.MessageDto> messageDtos = page.getMessages();
+        Long nextCursor = messageDtos.isEmpty() ? after : messageDtos.get(messageDtos.size() - 1).getMessageId();
+        Long prevCursor = messageDtos.isEmpty() ? before : messageDtos.get(0).getMessageId();
         
+        return GetConversationResponse.builder()
+                .sessionId(conversationId)
+                .status(SESSION_STATUS)
+                .messages(messageDtos)
+                .total(page.getTotal())
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .hasMore(page.isHasMore())
+                .build();
+    }
+    
+    /**
+     * getSession과 같은 페이지를 DTO 목록 없이 응답 스트림에 바로 쓰는 writer를 돌려준다.
+     * 검증과 대화 조회는 지금 하고, 메시지는 writer가 호출될 때 DB 커서에서 한 행씩 읽어 쓴다.
+     * 캐시나 아카이브에서 나오는 페이지는 이미 메모리에 있으므로 그대로 쓴다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    @Timed(value = ChatMetrics.SERVICE_OPERATION, extraTags = {ChatMetrics.TAG_OPERATION, "stream_session"}, histogram = true)
+    public StreamingEnvelope.DataWriter streamSession(Long conversationId, Long before, Long after, Integer limit) {
+        log.info("Streaming conversation session: {}, before: {}, after: {}, limit: {}",
+                conversationId, before, after, limit);
+        
+        int pageSize = historyPageSize(before, after, limit);
+        
+        CachedConversation cached = currentCacheEntry(conversationId);
+        HistorySlice page = conversationCache.read(cached, before, after, pageSize);
+        if (page != null) {
+            return generator -> writeSlice(generator, conversationId, page, before, after);
+        }
+        
+        Conversation conversation = conversationRepository.findById(conversationId)
+                .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+        if (conversation.getArchivedAt() != null) {
+            HistorySlice archived = loadArchivedHistory(conversationId, before, after, pageSize);
+            return generator -> writeSlice(generator, conversationId, archived, before, after);
+        }
+        // 스트리밍 경로는 페이지를 메모리에 모으지 않으므로 대화 캐시를 채우지 않는다
+        long total = conversation.getMessageCount();
+        return generator -> streamHistory(generator, conversationId, before, after, pageSize, total);
+    }
+    
+    /**
+     * 메시지를 읽지 않고 대화 이력의 현재 버전만 확인한다 (조건부 GET용).
+     * 캐시는 이 노드의 쓰기만 알기 때문에 항상 DB 카운터(대화 행 한 건)에서 읽는다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ConversationVersion getSessionVersion(Long conversationId) {
+        ConversationVersionState state = conversationRepository.findVersionById(conversationId)
+                .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+        return ConversationVersion.builder()
+                .conversationId(conversationId)
+                .messageCount(state.getMessageCount())
+                .lastMessageId(state.getLastMessageId() != null ? state.getLastMessageId() : 0L)
+                .ended(state.getEndedAt() != null)
+                .build();
+    }
+    
+    /**
+     * 캐시 항목을 DB 카운터와 맞춰 본 뒤 돌려준다. 다른 노드가 쓰거나 종료해 어긋났다면 항목을 버린다
+     * (null은 populate에 넘길 "비어 있었음" 토큰이기도 하다).
+     */
+    private CachedConversation currentCacheEntry(Long conversationId) {
+        CachedConversation cached = conversationCache.get(conversationId);
+        if (cached == null || cached.isStale()) {
+            return cached;
+        }
+        ConversationVersion version = getSessionVersion(conversationId);
+        if (cached.getTotal() == version.getMessageCount()
+                && cached.lastMessageId() == version.getLastMessageId()
+                && (cached.getEndedAt() != null) == version.isEnded()) {
+            return cached;
+        }
+        log.debug("Evicting cached conversation {} changed by another node", conversationId);
+        conversationCache.evict(conversationId);
+        return null;
+    }
+    
+    private HistorySlice loadHistory(Long conversationId, Long before, Long after, int pageSize,
+                                     CachedConversation observed) {
         Conversation conversation = conversationRepository.findById(conversationId)
                 .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+        if (conversation.getArchivedAt() != null) {
+            return loadArchivedHistory(conversationId, before, after, pageSize);
+        }
         
-        List<Message> messages = conversation.getMessages();
+        // 다음 페이지 존재 여부 확인을 위해 한 건 더 읽는다
+        PageRequest slice = PageRequest.of(0, pageSize + 1);
+        List<Message> messages;
+        if (before != null) {
+            messages = messageRepository.findPageBefore(conversationId, before, slice);
+        } else {
+            messages = messageRepository.findPageAfter(conversationId, after != null ? after : 0L, slice);
+        }
+        
+        boolean hasMore = messages.size() > pageSize;
+        if (hasMore) {
+            messages = messages.subList(0, pageSize);
+        }
+        if (before != null) {
+            messages = new ArrayList<>(messages);
+            Collections.reverse(messages);
+        }
         
         List<GetConversationResponse.MessageDto> messageDtos = messages.stream()
-                .map(msg -> GetConversationResponse.MessageDto.builder()
-                        .messageId(msg.getId())
-                        .role(MessageRole.valueOf(msg.getSpeaker().toUpperCase())) // 임시 변환
-                        .content(msg.getContent())
-                        .createdAt(msg.getCreatedAt().atZone(ZoneOffset.UTC).toInstant())
-                        .build())
+                .map(MessageMapper::toDto)
                 .collect(Collectors.toList());
+        long total = conversation.getMessageCount();
         
-        return GetConversationResponse.builder()
-                .sessionId(conversationId)
-                .status("ACTIVE") // 임시 하드코딩
+        // after 방향으로 끝까지 읽었다면 커서 이후의 메시지를 모두 알고 있으므로 캐시에 채운다
+        if (before == null && !hasMore) {
+            conversationCache.populate(conversationId, observed, CachedConversation.builder()
+                    .id(conversationId)
+                    .startedAt(conversation.getStartedAt())
+                    .endedAt(conversation.getEndedAt())
+                    .total(total)
+                    .boundaryId(after != null ? after : 0L)
+                    .tail(List.copyOf(messageDtos))
+                    .build());
+        }
+        
+        return HistorySlice.builder()
                 .messages(messageDtos)
-                .total(messages.size())
+                .hasMore(hasMore)
+                .total(total)
                 .build();
     }
     
+    private int historyPageSize(Long before, Long after, Integer limit) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Only one of 'before' or 'after' can be specified");
+        }
+        int pageSize = limit != null ? limit : historyProperties.getDefaultLimit();
+        if (pageSize < 1 || pageSize > historyProperties.getMaxLimit()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + historyProperties.getMaxLimit());
+        }
+        return pageSize;
+    }
+    
+    private static void writeSlice(JsonGenerator generator, Long conversationId, HistorySlice page,
+                                   Long before, Long after) throws IOException {
+        List<GetConversationResponse.MessageDto> messageDtos = page.getMessages();
+        ConversationJsonWriter.writeStart(generator, conversationId, SESSION_STATUS);
+        for (GetConversationResponse.MessageDto message : messageDtos) {
+            ConversationJsonWriter.writeMessage(generator, message);
+        }
+        Long nextCursor = messageDtos.isEmpty() ? after : messageDtos.get(messageDtos.size() - 1).getMessageId();
+        Long prevCursor = messageDtos.isEmpty() ? before : messageDtos.get(0).getMessageId();
+        ConversationJsonWriter.writeEnd(generator, page.getTotal(), nextCursor, prevCursor, page.isHasMore());
+    }
+    
+    /**
+     * loadHistory와 같은 페이지를 오래된 순으로 커서에서 읽으며 바로 쓴다.
+     * before 방향은 역순으로 읽어 뒤집는 대신 페이지 시작 직전의 id를 먼저 찾아 그 뒤부터 읽는다.
+     */
+    private void streamHistory(JsonGenerator generator, Long conversationId, Long before, Long after,
+                               int pageSize, long total) throws IOException {
+        Long lowerBound = after;
+        boolean olderRemain = false;
+        if (before != null) {
+            Optional<Long> boundary = messageJdbcRepository.findIdBefore(conversationId, before, pageSize);
+            olderRemain = boundary.isPresent();
+            lowerBound = boundary.orElse(null);
+        }
+        
+        ConversationJsonWriter.writeStart(generator, conversationId, SESSION_STATUS);
+        PageWriter page = new PageWriter(generator, pageSize);
+        try {
+            // after 방향은 다음 페이지 존재 여부 확인을 위해 한 건 더 읽고 그 행은 쓰지 않는다
+            messageJdbcRepository.streamRange(conversationId, lowerBound, before,
+                    before != null ? pageSize : pageSize + 1, page::write);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        ConversationJsonWriter.writeEnd(generator, total,
+                page.written > 0 ? page.lastId : after,
+                page.written > 0 ? page.firstId : before,
+                before != null ? olderRemain : page.overflow);
+    }
+    
+    private static final class PageWriter {
+        private final JsonGenerator generator;
+        private final int pageSize;
+        private int written;
+        private Long firstId;
+        private Long lastId;
+        private boolean overflow;
+        
+        private PageWriter(JsonGenerator generator, int pageSize) {
+            this.generator = generator;
+            this.pageSize = pageSize;
+        }
+        
+        private void write(StoredMessageRow row) {
+            if (written == pageSize) {
+                overflow = true;
+                return;
+            }
+            try {
+                ConversationJsonWriter.writeMessage(generator, row);
+            } catch (IOException e) {
+                // 클라이언트 연결이 끊기면 커서를 닫고 중단
+                throw new UncheckedIOException(e);
+            }
+            if (written++ == 0) {
+                firstId = row.getId();
+            }
+            lastId = row.getId();
+        }
+    }
+    
+    /**
+     * 아카이브된 대화는 세그먼트에서 통째로 읽어 메모리에서 페이지를 자른다 (캐시에 넣지 않음)
+     */
+    private HistorySlice loadArchivedHistory(Long conversationId, Long before, Long after, int pageSize) {
+        List<GetConversationResponse.MessageDto> all = readArchive(conversationId).getMessages();
+        List<GetConversationResponse.MessageDto> page;
+        boolean hasMore;
+        if (before != null) {
+            int end = 0;
+            while (end < all.size() && all.get(end).getMessageId() < before) {
+                end++;
+            }
+            int start = Math.max(0, end - pageSize);
+            page = all.subList(start, end);
+            hasMore = start > 0;
+        } else {
+            long from = after != null ? after : 0L;
+            int start = 0;
+            while (start < all.size() && all.get(start).getMessageId() <= from) {
+                start++;
+            }
+            int end = Math.min(all.size(), start + pageSize);
+            page = all.subList(start, end);
+            hasMore = end < all.size();
+        }
+        return HistorySlice.builder()
+                .messages(List.copyOf(page))
+                .hasMore(hasMore)
+                .total(all.size())
+                .build();
+    }
+    
+    private ArchivedConversation readArchive(Long conversationId) {
+        return archiveStore.read(conversationId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Archived conversation is not available on this node: " + conversationId));
+    }
+    
+    /**
+     * started_at 최신순으로 대화 목록을 조회한다. status는 active/ended, cursor는 이전 응답의 next_cursor.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    @Timed(value = ChatMetrics.SERVICE_OPERATION, extraTags = {ChatMetrics.TAG_OPERATION, "list_sessions"}, histogram = true)
+    public ListConversationsResponse listSessions(String status, LocalDateTime startedFrom, LocalDateTime startedTo,
+                                                  LocalDateTime endedFrom, LocalDateTime endedTo,
+                                                  String cursor, Integer limit) {
+        log.info("Listing conversations, status: {}, started: [{}, {}), ended: [{}, {}), cursor: {}, limit: {}",
+                status, startedFrom, startedTo, endedFrom, endedTo, cursor, limit);
+        
+        int pageSize = limit != null ? limit : listingProperties.getDefaultLimit();
+        if (pageSize < 1 || pageSize > listingProperties.getMaxLimit()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + listingProperties.getMaxLimit());
+        }
+        ConversationFilter filter = ConversationFilter.builder()
+                .ended(parseEnded(status))
+                .startedFrom(startedFrom)
+                .startedTo(startedTo)
+                .endedFrom(endedFrom)
+                .endedTo(endedTo)
+                .build();
+        
+        CursorPosition position = cursor != null ? decodeCursor(cursor) : null;
+        List<ConversationSummaryRow> rows = conversationQueryRepository.findPage(filter,
+                position != null ? position.startedAt() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        List<ListConversationsResponse.ConversationSummary> summaries = rows.stream()
+                .map(row -> ListConversationsResponse.ConversationSummary.builder()
+                        .sessionId(row.getId())
+                        .status(row.getEndedAt() != null ? "ENDED" : "ACTIVE")
+                        .startedAt(MessageMapper.toInstant(row.getStartedAt()))
+                        .endedAt(MessageMapper.toInstant(row.getEndedAt()))
+                        .messageCount(row.getMessageCount())
+                        .lastMessageAt(MessageMapper.toInstant(row.getLastMessageAt()))
+                        .build())
+                .collect(Collectors.toList());
+        ConversationSummaryRow last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        
+        return ListConversationsResponse.builder()
+                .conversations(summaries)
+                .nextCursor(hasMore ? encodeCursor(last.getStartedAt(), last.getId()) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    /**
+     * 새 메시지를 SSE로 구독한다. lastEventId가 있으면 그 이후 메시지를 먼저 다시 보낸다.
+     * 없으면 지금의 마지막 메시지 다음부터 보내며, 이벤트 사이에 빈 순번이 생기면 허브가 DB에서 채운다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    @Timed(value = ChatMetrics.SERVICE_OPERATION, extraTags = {ChatMetrics.TAG_OPERATION, "subscribe"}, histogram = true)
+    public SseEmitter subscribe(Long conversationId, Long lastEventId) {
+        log.info("Subscribing to conversation: {}, last event id: {}", conversationId, lastEventId);
+        
+        ConversationVersionState version = conversationRepository.findVersionById(conversationId)
+                .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+        
+        if (version.getEndedAt() != null) {
+            List<GetConversationResponse.MessageDto> backlog = lastEventId == null ? List.of()
+                    : endedMessagesAfter(conversationId, lastEventId);
+            return conversationEventHub.ended(conversationId, backlog);
+        }
+        LongFunction<List<GetConversationResponse.MessageDto>> messagesAfter = afterId ->
+                messageRepository.findPageAfter(conversationId, afterId,
+                                PageRequest.of(0, eventsProperties.getMaxReplay())).stream()
+                        .map(MessageMapper::toDto)
+                        .collect(Collectors.toList());
+        if (lastEventId != null) {
+            return conversationEventHub.subscribe(conversationId, lastEventId, ConversationEventHub.UNKNOWN_SEQ,
+                    messagesAfter);
+        }
+        long lastMessageId = version.getLastMessageId() != null ? version.getLastMessageId() : 0L;
+        return conversationEventHub.subscribe(conversationId, lastMessageId, version.getMessageCount(), messagesAfter);
+    }
+    
+    private List<GetConversationResponse.MessageDto> endedMessagesAfter(Long conversationId, long afterId) {
+        ConversationState state = conversationRepository.findStateById(conversationId)
+                .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+        if (state.getArchivedAt() != null) {
+            return readArchive(conversationId).getMessages().stream()
+                    .filter(message -> message.getMessageId() > afterId)
+                    .limit(eventsProperties.getMaxReplay())
+                    .collect(Collectors.toList());
+        }
+        return messageRepository.findPageAfter(conversationId, afterId,
+                        PageRequest.of(0, eventsProperties.getMaxReplay())).stream()
+                .map(MessageMapper::toDto)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 저널 모드에서는 이 대화의 저널 항목이 DB에 반영될 때까지 기다린 뒤 종료한다.
+     * 기다리는 동안 커넥션을 잡지 않도록 NOT_SUPPORTED로 실행하고 종료 저장에만 트랜잭션을 건다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = ChatMetrics.SERVICE_OPERATION, extraTags = {ChatMetrics.TAG_OPERATION, "end_session"}, histogram = true)
     public Conversation endSession(Long conversationId, String reason) {
         log.info("Ending conversation session: {}, reason: {}", conversationId, reason);
         
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+        if (messageJournal.isEnabled()) {
+            awaitJournalDrained(conversationId);
+        }
         
-        conversation.endConversation();
-        Conversation saved = conversationRepository.save(conversation);
+        Conversation saved = transactionTemplate.execute(status -> {
+            Conversation conversation = conversationRepository.findById(conversationId)
+                    .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+            conversation.endConversation();
+            return conversationRepository.save(conversation);
+        });
+        conversationCache.markEnded(conversationId, saved.getEndedAt());
+        conversationMetrics.recordConversationEnded(saved.getMessageCount());
+        // 구독자에게는 커밋 이후에 전달된다
+        eventPublisher.publishEvent(new ConversationEndedEvent(conversationId, MessageMapper.toInstant(saved.getEndedAt())));
         
         log.info("Ended conversation session: {}", conversationId);
         return saved;
     }
-}
-
-
-
-
+    
+    private void awaitJournalDrained(Long conversationId) {
+        boolean drained;
+        try {
+            drained = messageJournal.awaitDrained(conversationId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the message journal", e);
+        }
+        if (!drained) {
+            throw new ServiceOverloadedException(
+                    "Messages of conversation " + conversationId + " are not stored yet, retry shortly",
+                    JOURNAL_DRAIN_RETRY_AFTER);
+        }
+    }
+    
+    private static AppendState requireWritable(Optional<AppendState> state, Long conversationId) {
+        AppendState conversation = state
+                .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+        if (conversation.isEnded()) {
+            throw new IllegalStateException("Conversation already ended: " + conversationId);
+        }
+        return conversation;
+    }
+    
+    private static Boolean parseEnded(String status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status.toUpperCase()) {
+            case "ACTIVE" -> false;
+            case "ENDED" -> true;
+            default -> throw new IllegalArgumentException("status must be 'active' or 'ended'");
+        };
+    }
+    
+    private static String encodeCursor(LocalDateTime startedAt, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((startedAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static CursorPosition decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new CursorPosition(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    private record CursorPosition(LocalDateTime startedAt, Long id) {
+    }
+    
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.guidely.chatorchestra.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Cheap fingerprint of a conversation's history: any appended message or the conversation
+ * ending changes at least one field
+ */
+@Value
+@Builder
+public class ConversationVersion {
+    Long conversationId;
+    long messageCount;
+    long lastMessageId;
+    boolean ended;
+}
@@ -0,0 +1,203 @@
+package com.guidely.chatorchestra.service;
+
+import com.guidely.chatorchestra.cache.ConversationCache;
+import com.guidely.chatorchestra.config.ImportProperties;
+import com.guidely.chatorchestra.dto.conversation.BatchPostMessagesResponse;
+import com.guidely.chatorchestra.dto.conversation.BulkCreateConversationsRequest.ConversationImport;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import com.guidely.chatorchestra.dto.conversation.PostMessageRequest;
+import com.guidely.chatorchestra.event.MessageAppendedEvent;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.metrics.ChatMetrics;
+import com.guidely.chatorchestra.metrics.ConversationMetrics;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository.AppendState;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository.NewConversationRow;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.NewMessageRow;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Bulk writes for offline kiosk uploads and transcript replays.
+ * Each call validates everything first and then writes in one transaction using JDBC batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageImportService {
+
+    private final ConversationJdbcRepository conversationJdbcRepository;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final ImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversationWriteLocks conversationWriteLocks;
+    private final ConversationCache conversationCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConversationMetrics conversationMetrics;
+
+    @Timed(value = ChatMetrics.SERVICE_OPERATION, extraTags = {ChatMetrics.TAG_OPERATION, "import_messages"}, histogram = true)
+    public BatchPostMessagesResponse appendMessages(Long conversationId, List<PostMessageRequest> messages) {
+        log.info("Importing {} messages into conversation: {}", messages.size(), conversationId);
+
+        if (messages.size() > importProperties.getMaxMessages()) {
+            throw new IllegalArgumentException("At most " + importProperties.getMaxMessages() + " messages per request");
+        }
+
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        // 단건 쓰기와 같은 잠금 순서(스트라이프 → 대화 행)로 기존 메시지 뒤에 순번을 이어서 매긴다
+        List<AppendedMessage> appended = conversationWriteLocks.withLock(conversationId,
+                () -> transactionTemplate.execute(status -> {
+                    AppendState state = conversationJdbcRepository.lockForAppend(conversationId)
+                            .orElseThrow(() -> new NoSuchElementException("Conversation not found: " + conversationId));
+                    if (state.isEnded()) {
+                        throw new IllegalStateException("Conversation already ended: " + conversationId);
+                    }
+                    List<NewMessageRow> rows = toRows(conversationId, messages, createdAt, state.nextSeq());
+                    List<Long> inserted = insertInChunks(rows);
+                    conversationJdbcRepository.incrementMessageCounters(rows, inserted);
+                    return toAppended(rows, inserted);
+                }));
+
+        List<Long> ids = new ArrayList<>(appended.size());
+        List<GetConversationResponse.MessageDto> written = new ArrayList<>(appended.size());
+        for (int i = 0; i < appended.size(); i++) {
+            ids.add(appended.get(i).getId());
+            written.add(GetConversationResponse.MessageDto.builder()
+                    .messageId(appended.get(i).getId())
+                    .seq(appended.get(i).getSeq())
+                    .role(messages.get(i).getRole())
+                    .content(messages.get(i).getContent())
+                    .createdAt(MessageMapper.toInstant(createdAt))
+                    .build());
+        }
+        conversationCache.appendMessages(conversationId, written);
+        messages.forEach(message -> conversationMetrics.recordImportedMessage(message.getContent()));
+        written.forEach(message -> eventPublisher.publishEvent(new MessageAppendedEvent(conversationId, message)));
+
+        log.info("Imported {} messages into conversation: {}", ids.size(), conversationId);
+        return BatchPostMessagesResponse.builder()
+                .sessionId(conversationId)
+                .messageIds(ids)
+                .build();
+    }
+
+    @Timed(value = ChatMetrics.SERVICE_OPERATION, extraTags = {ChatMetrics.TAG_OPERATION, "import_conversations"}, histogram = true)
+    public List<BatchPostMessagesResponse> createConversations(List<ConversationImport> conversations) {
+        log.info("Importing {} conversations", conversations.size());
+
+        if (conversations.size() > importProperties.getMaxConversations()) {
+            throw new IllegalArgumentException(
+                    "At most " + importProperties.getMaxConversations() + " conversations per request");
+        }
+        int totalMessages = conversations.stream()
+                .mapToInt(c -> c.getMessages() != null ? c.getMessages().size() : 0)
+                .sum();
+        if (totalMessages > importProperties.getMaxMessages()) {
+            throw new IllegalArgumentException("At most " + importProperties.getMaxMessages() + " messages per request");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<NewConversationRow> conversationRows = new ArrayList<>(conversations.size());
+        for (ConversationImport conversation : conversations) {
+            LocalDateTime startedAt = conversation.getStartedAt() != null
+                    ? MessageMapper.toLocalDateTime(conversation.getStartedAt()) : now;
+            LocalDateTime endedAt = MessageMapper.toLocalDateTime(conversation.getEndedAt());
+            if (endedAt != null && endedAt.isBefore(startedAt)) {
+                throw new IllegalArgumentException("ended_at must not be before started_at");
+            }
+            conversationRows.add(NewConversationRow.builder()
+                    .startedAt(startedAt)
+                    .endedAt(endedAt)
+                    .build());
+        }
+
+        return transactionTemplate.execute(status -> {
+            List<Long> conversationIds = conversationJdbcRepository.insertAll(conversationRows);
+
+            List<NewMessageRow> messageRows = new ArrayList<>(totalMessages);
+            for (int i = 0; i < conversations.size(); i++) {
+                List<PostMessageRequest> messages = conversations.get(i).getMessages();
+                if (messages != null) {
+                    messageRows.addAll(toRows(conversationIds.get(i), messages, conversationRows.get(i).getStartedAt(), 1));
+                }
+            }
+            List<Long> messageIds = insertInChunks(messageRows);
+            conversationJdbcRepository.incrementMessageCounters(messageRows, messageIds);
+            messageRows.forEach(row -> conversationMetrics.recordImportedMessage(row.getContent()));
+
+            // 검색 색인 등 커밋 이후 리스너에 알린다 (새 대화라 캐시/구독자는 없음)
+            for (int i = 0; i < messageRows.size(); i++) {
+                NewMessageRow row = messageRows.get(i);
+                eventPublisher.publishEvent(new MessageAppendedEvent(row.getConversationId(),
+                        GetConversationResponse.MessageDto.builder()
+                                .messageId(messageIds.get(i))
+                                .seq(row.getSeq())
+                                .role(MessageMapper.toRole(row.getSpeaker()))
+                                .content(row.getContent())
+                                .createdAt(MessageMapper.toInstant(row.getCreatedAt()))
+                                .build()));
+            }
+
+            List<BatchPostMessagesResponse> created = new ArrayList<>(conversations.size());
+            int offset = 0;
+            for (int i = 0; i < conversations.size(); i++) {
+                List<PostMessageRequest> messages = conversations.get(i).getMessages();
+                int count = messages != null ? messages.size() : 0;
+                created.add(BatchPostMessagesResponse.builder()
+                        .sessionId(conversationIds.get(i))
+                        .messageIds(List.copyOf(messageIds.subList(offset, offset + count)))
+                        .build());
+                offset += count;
+            }
+            return created;
+        });
+    }
+
+    private List<Long> insertInChunks(List<NewMessageRow> rows) {
+        int chunkSize = importProperties.getJdbcBatchSize();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            ids.addAll(messageJdbcRepository.insertAll(rows.subList(from, Math.min(from + chunkSize, rows.size()))));
+        }
+        return ids;
+    }
+
+    private static List<AppendedMessage> toAppended(List<NewMessageRow> rows, List<Long> ids) {
+        List<AppendedMessage> appended = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            appended.add(AppendedMessage.builder()
+                    .id(ids.get(i))
+                    .seq(rows.get(i).getSeq())
+                    .createdAt(rows.get(i).getCreatedAt())
+                    .build());
+        }
+        return appended;
+    }
+
+    private static List<NewMessageRow> toRows(Long conversationId, List<PostMessageRequest> messages,
+                                              LocalDateTime createdAt, long firstSeq) {
+        List<NewMessageRow> rows = new ArrayList<>(messages.size());
+        long seq = firstSeq;
+        for (PostMessageRequest message : messages) {
+            rows.add(NewMessageRow.builder()
+                    .conversationId(conversationId)
+                    .seq(seq++)
+                    .speaker(MessageMapper.toSpeaker(message.getRole()))
+                    .content(message.getContent())
+                    .createdAt(createdAt)
+                    .build());
+        }
+        return rows;
+    }
+}
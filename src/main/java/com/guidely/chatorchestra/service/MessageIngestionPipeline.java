@@ -0,0 +1,294 @@
+package com.guidely.chatorchestra.service;
+
+import com.guidely.chatorchestra.config.IngestionProperties;
+import com.guidely.chatorchestra.exception.ServiceOverloadedException;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository.AppendState;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.NewMessageRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Collects concurrent message appends over a short window and writes them
+ * as one JDBC batch in a single transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MessageIngestionPipeline {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+    private static final Duration SHUTDOWN_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final IngestionProperties properties;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final ConversationJdbcRepository conversationJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingAppend> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Timer appendLatency;
+    private Counter commits;
+    private DistributionSummary batchSize;
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        appendLatency = Timer.builder("chat.ingestion.append.latency")
+                .description("Time from enqueue to commit for a single message")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        commits = Counter.builder("chat.ingestion.commits")
+                .description("Transactions committed by the ingestion pipeline")
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("chat.ingestion.batch.size")
+                .description("Messages written per commit")
+                .register(meterRegistry);
+        Gauge.builder("chat.ingestion.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::runLoop, "message-ingestion");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Message ingestion pipeline started (window: {}, max batch size: {})",
+                properties.getWindow(), properties.getMaxBatchSize());
+    }
+
+    /**
+     * 남은 항목을 제한 시간 동안 쓰고, 그래도 큐에 남은 항목은 실패로 끝내 호출자가 기다리지 않게 한다
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.join(SHUTDOWN_TIMEOUT_MS);
+        List<PendingAppend> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            log.warn("Message ingestion stopped with {} messages not written", left.size());
+            left.forEach(p -> p.future.completeExceptionally(shuttingDown()));
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Enqueues a message and returns a future completed with its id and sequence number once the batch commits.
+     * Creation time and sequence are assigned at flush, under the conversation row lock, in queue order.
+     * Rejected with ServiceOverloadedException once the pipeline is stopping.
+     */
+    public CompletableFuture<AppendedMessage> submit(Long conversationId, String speaker, String content,
+                                                     String idempotencyKey) {
+        if (!running) {
+            throw shuttingDown();
+        }
+        PendingAppend pending = new PendingAppend(conversationId, speaker, content, idempotencyKey);
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while enqueuing message", e);
+        }
+        // 확인과 put 사이에 종료가 시작됐다면: 아직 큐에 있으면 직접 빼서 거절하고, 없으면 플러셔나 stop()이 완료한다
+        if (!running && queue.remove(pending)) {
+            throw shuttingDown();
+        }
+        return pending.future;
+    }
+
+    private void runLoop() {
+        long windowNanos = properties.getWindow().toNanos();
+        int maxBatchSize = properties.getMaxBatchSize();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingAppend> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+
+                long deadline = first.enqueuedAt + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                        break;
+                    }
+                    PendingAppend next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in message ingestion loop", e);
+            }
+        }
+    }
+
+    private void flush(List<PendingAppend> batch) {
+        int written;
+        try {
+            written = write(batch);
+        } catch (DataIntegrityViolationException e) {
+            // 멱등 키 중복(다른 인스턴스로 간 재시도 등) 한 건이 배치 전체를 실패시키지 않도록 한 건씩 다시 쓴다
+            log.debug("Message batch of {} violated a constraint, retrying one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::flushOne);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Failed to write message batch of {}: {}", batch.size(), e.getMessage());
+            batch.forEach(p -> p.future.completeExceptionally(e));
+            return;
+        }
+        complete(batch, written);
+    }
+
+    private void flushOne(PendingAppend pending) {
+        int written;
+        try {
+            written = write(List.of(pending));
+        } catch (RuntimeException e) {
+            pending.future.completeExceptionally(e);
+            return;
+        }
+        complete(List.of(pending), written);
+    }
+
+    /**
+     * Locks the batch's conversation rows, rejects missing or ended conversations and inserts the rest
+     * with consecutive sequence numbers in queue order; returns the number of rows inserted
+     */
+    private int write(List<PendingAppend> batch) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, AppendState> states = conversationJdbcRepository.lockForAppend(batch.stream()
+                    .map(p -> p.conversationId)
+                    .collect(Collectors.toSet()));
+            LocalDateTime createdAt = LocalDateTime.now();
+            Map<Long, Long> nextSeq = new HashMap<>();
+            List<PendingAppend> accepted = new ArrayList<>(batch.size());
+            List<NewMessageRow> rows = new ArrayList<>(batch.size());
+            for (PendingAppend pending : batch) {
+                pending.reset();
+                AppendState state = states.get(pending.conversationId);
+                if (state == null) {
+                    pending.rejection = new NoSuchElementException("Conversation not found: " + pending.conversationId);
+                } else if (state.isEnded()) {
+                    pending.rejection = new IllegalStateException("Conversation already ended: " + pending.conversationId);
+                } else {
+                    long seq = nextSeq.merge(pending.conversationId, state.nextSeq(), (current, first) -> current + 1);
+                    rows.add(pending.toRow(seq, createdAt));
+                    accepted.add(pending);
+                }
+            }
+            List<Long> ids = messageJdbcRepository.insertAll(rows);
+            conversationJdbcRepository.incrementMessageCounters(rows, ids);
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).written = AppendedMessage.builder()
+                        .id(ids.get(i))
+                        .seq(rows.get(i).getSeq())
+                        .createdAt(createdAt)
+                        .build();
+            }
+            return accepted.size();
+        });
+    }
+
+    /**
+     * 커밋 이후에만 결과를 알린다 (롤백된 순번이 호출자에게 새지 않도록)
+     */
+    private void complete(List<PendingAppend> batch, int written) {
+        if (written > 0) {
+            commits.increment();
+            batchSize.record(written);
+        }
+        long now = System.nanoTime();
+        for (PendingAppend pending : batch) {
+            if (pending.rejection != null) {
+                pending.future.completeExceptionally(pending.rejection);
+            } else {
+                appendLatency.record(now - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+                pending.future.complete(pending.written);
+            }
+        }
+    }
+
+    private static ServiceOverloadedException shuttingDown() {
+        return new ServiceOverloadedException("Message ingestion is shutting down, retry shortly", SHUTDOWN_RETRY_AFTER);
+    }
+
+    private static final class PendingAppend {
+        private final Long conversationId;
+        private final String speaker;
+        private final String content;
+        private final String idempotencyKey;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<AppendedMessage> future = new CompletableFuture<>();
+        // 플러셔 스레드에서만 쓰고, future 완료 전에 채워진다
+        private RuntimeException rejection;
+        private AppendedMessage written;
+
+        private PendingAppend(Long conversationId, String speaker, String content, String idempotencyKey) {
+            this.conversationId = conversationId;
+            this.speaker = speaker;
+            this.content = content;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        private void reset() {
+            rejection = null;
+            written = null;
+        }
+
+        private NewMessageRow toRow(long seq, LocalDateTime createdAt) {
+            return NewMessageRow.builder()
+                    .conversationId(conversationId)
+                    .seq(seq)
+                    .speaker(speaker)
+                    .content(content)
+                    .createdAt(createdAt)
+                    .idempotencyKey(idempotencyKey)
+                    .build();
+        }
+    }
+}
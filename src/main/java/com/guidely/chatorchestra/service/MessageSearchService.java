@@ -0,0 +1,153 @@
+package com.guidely.chatorchestra.service;
+
+import com.guidely.chatorchestra.config.SearchProperties;
+import com.guidely.chatorchestra.dto.search.SearchMessagesResponse;
+import com.guidely.chatorchestra.mapper.MessageMapper;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+import com.guidely.chatorchestra.search.HangulBigramTokenizer;
+import com.guidely.chatorchestra.search.MessageSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over message content. The index narrows the search to messages that
+ * contain every query term; candidates are then read from the database, newest first,
+ * checked against the query words and cut into snippets.
+ */
+@Service
+@Slf4j
+public class MessageSearchService {
+
+    private final MessageSearchIndex messageSearchIndex;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final SearchProperties properties;
+    private final Timer queryLatency;
+
+    public MessageSearchService(MessageSearchIndex messageSearchIndex,
+                                MessageJdbcRepository messageJdbcRepository,
+                                SearchProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.messageSearchIndex = messageSearchIndex;
+        this.messageJdbcRepository = messageJdbcRepository;
+        this.properties = properties;
+        this.queryLatency = Timer.builder("chat.search.query.latency")
+                .description("Time to answer a search request, including reading candidates")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 최신 메시지부터 검색한다. before가 있으면 그 ID보다 오래된 메시지만 본다.
+     */
+    public SearchMessagesResponse search(String query, Long before, Integer limit) {
+        log.info("Searching messages, query length: {}, before: {}, limit: {}",
+                query != null ? query.length() : 0, before, limit);
+
+        if (!messageSearchIndex.isEnabled()) {
+            throw new IllegalStateException("Message search is disabled");
+        }
+        int pageSize = limit != null ? limit : properties.getDefaultLimit();
+        if (pageSize < 1 || pageSize > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + properties.getMaxLimit());
+        }
+        Set<String> terms = HangulBigramTokenizer.terms(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("q must contain at least one letter or digit");
+        }
+        List<String> words = HangulBigramTokenizer.words(query);
+
+        return queryLatency.record(() -> search(terms, words, before, pageSize));
+    }
+
+    private SearchMessagesResponse search(Set<String> terms, List<String> words, Long before, int pageSize) {
+        long[] candidates = messageSearchIndex.candidates(terms);
+        // before보다 작은 마지막 위치부터 거꾸로(최신순) 확인
+        int position = before != null ? lowerBound(candidates, before) - 1 : candidates.length - 1;
+        int budget = properties.getMaxCandidates();
+
+        List<SearchMessagesResponse.Hit> hits = new ArrayList<>(pageSize + 1);
+        Long lastExamined = null;
+        while (position >= 0 && budget > 0 && hits.size() <= pageSize) {
+            int batchSize = Math.min(Math.min(position + 1, budget), pageSize * 2);
+            long[] batch = Arrays.copyOfRange(candidates, position - batchSize + 1, position + 1);
+            position -= batchSize;
+            budget -= batchSize;
+
+            Map<Long, StoredMessageRow> rows = messageJdbcRepository.findByIds(
+                            Arrays.stream(batch).boxed().collect(Collectors.toList())).stream()
+                    .collect(Collectors.toMap(StoredMessageRow::getId, Function.identity()));
+            for (int i = batch.length - 1; i >= 0 && hits.size() <= pageSize; i--) {
+                lastExamined = batch[i];
+                StoredMessageRow row = rows.get(batch[i]);
+                // 바이그램이 모두 있어도 단어가 실제로 들어 있지 않을 수 있고, 삭제된 메시지는 행이 없다
+                if (row != null && containsAll(row.getContent(), words)) {
+                    hits.add(toHit(row, words));
+                }
+            }
+        }
+
+        boolean hasMore = hits.size() > pageSize || (position >= 0 && budget <= 0);
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+        }
+        Long nextCursor = null;
+        if (hasMore) {
+            nextCursor = hits.size() == pageSize ? hits.get(pageSize - 1).getMessageId() : lastExamined;
+        }
+
+        return SearchMessagesResponse.builder()
+                .hits(hits)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .complete(messageSearchIndex.isReady())
+                .build();
+    }
+
+    private SearchMessagesResponse.Hit toHit(StoredMessageRow row, List<String> words) {
+        return SearchMessagesResponse.Hit.builder()
+                .messageId(row.getId())
+                .sessionId(row.getConversationId())
+                .role(MessageMapper.toRole(row.getSpeaker()))
+                .snippet(snippet(row.getContent(), words.get(0)))
+                .createdAt(MessageMapper.toInstant(row.getCreatedAt()))
+                .build();
+    }
+
+    private String snippet(String content, String word) {
+        int length = properties.getSnippetLength();
+        if (content.length() <= length) {
+            return content;
+        }
+        int match = Math.max(0, content.toLowerCase(Locale.ROOT).indexOf(word));
+        int start = Math.max(0, Math.min(match - length / 3, content.length() - length));
+        int end = Math.min(content.length(), start + length);
+        return (start > 0 ? "…" : "") + content.substring(start, end) + (end < content.length() ? "…" : "");
+    }
+
+    private static boolean containsAll(String content, List<String> words) {
+        String lower = content.toLowerCase(Locale.ROOT);
+        for (String word : words) {
+            if (!lower.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lowerBound(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        return index >= 0 ? index : -index - 1;
+    }
+}
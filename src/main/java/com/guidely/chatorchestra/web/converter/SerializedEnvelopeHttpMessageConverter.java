@@ -0,0 +1,89 @@
+package com.guidely.chatorchestra.web.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidely.chatorchestra.dto.SerializedEnvelope;
+import com.guidely.chatorchestra.metrics.ChatMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a {@link SerializedEnvelope} without re-serialising its data: the envelope fields around
+ * it are written by hand, in the order and format Jackson uses for {@code ResponseEnvelope}.
+ */
+public class SerializedEnvelopeHttpMessageConverter extends AbstractHttpMessageConverter<SerializedEnvelope> {
+
+    private static final byte[] PREFIX = "{\"success\":true,\"data\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TIMESTAMP_FIELD = ",\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+    private static final int CHUNK_SIZE = 8192;
+
+    private final ObjectMapper objectMapper;
+    private final Timer writeTimer;
+
+    public SerializedEnvelopeHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        this.writeTimer = Timer.builder(ChatMetrics.HTTP_SERIALIZATION)
+                .description("Time spent writing JSON response bodies")
+                .tag(ChatMetrics.TAG_TYPE, "cached")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SerializedEnvelope.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SerializedEnvelope readInternal(Class<? extends SerializedEnvelope> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("SerializedEnvelope is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(SerializedEnvelope envelope, HttpOutputMessage outputMessage) throws IOException {
+        long started = System.nanoTime();
+        try {
+            OutputStream body = outputMessage.getBody();
+            body.write(PREFIX);
+            write(envelope.getData(), body);
+            body.write(TIMESTAMP_FIELD);
+            body.write(objectMapper.writeValueAsBytes(envelope.getTimestamp()));
+            body.write('}');
+        } finally {
+            writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 힙 버퍼는 배열을 그대로 쓰고, direct 버퍼는 작은 조각으로 나눠 복사한다
+     */
+    private static void write(ByteBuffer data, OutputStream out) throws IOException {
+        ByteBuffer view = data.duplicate();
+        if (view.hasArray()) {
+            out.write(view.array(), view.arrayOffset() + view.position(), view.remaining());
+            return;
+        }
+        byte[] chunk = new byte[Math.min(CHUNK_SIZE, view.remaining())];
+        while (view.hasRemaining()) {
+            int length = Math.min(chunk.length, view.remaining());
+            view.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.guidely.chatorchestra.web.converter;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidely.chatorchestra.dto.StreamingEnvelope;
+import com.guidely.chatorchestra.metrics.ChatMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a {@link StreamingEnvelope} through one JSON generator on the response stream, so the
+ * data is sent as it is produced. The envelope fields follow Jackson's order for {@code ResponseEnvelope}.
+ */
+public class StreamingEnvelopeHttpMessageConverter extends AbstractHttpMessageConverter<StreamingEnvelope> {
+
+    private final ObjectMapper objectMapper;
+    private final Timer writeTimer;
+
+    public StreamingEnvelopeHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        this.writeTimer = Timer.builder(ChatMetrics.HTTP_SERIALIZATION)
+                .description("Time spent writing JSON response bodies")
+                .tag(ChatMetrics.TAG_TYPE, "streamed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StreamingEnvelope.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected StreamingEnvelope readInternal(Class<? extends StreamingEnvelope> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("StreamingEnvelope is write-only", inputMessage);
+    }
+
+    /**
+     * 데이터를 쓰는 동안 DB 커서를 읽으므로 이 시간에는 조회 시간도 포함된다
+     */
+    @Override
+    protected void writeInternal(StreamingEnvelope envelope, HttpOutputMessage outputMessage) throws IOException {
+        long started = System.nanoTime();
+        try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeFieldName("data");
+            envelope.getData().writeTo(generator);
+            generator.writeFieldName("timestamp");
+            generator.writeObject(envelope.getTimestamp());
+            generator.writeEndObject();
+        } finally {
+            writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
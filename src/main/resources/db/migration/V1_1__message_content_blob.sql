@@ -0,0 +1,12 @@
+-- 압축 저장된 메시지 본문 (MessageContentCodec)
+-- Flyway 도입 전에 ddl-auto=update로 띄운 DB에는 이미 컬럼이 있으므로 없을 때만 추가한다
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'messages'
+                 AND column_name = 'content_blob') = 0,
+              'ALTER TABLE messages ADD COLUMN content_blob MEDIUMBLOB NULL',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,18 @@
+-- 기존 스키마 (ddl-auto=update로 생성되던 구조).
+-- 이미 테이블이 있는 DB는 spring.flyway.baseline-on-migrate로 이 버전부터 시작한다.
+CREATE TABLE IF NOT EXISTS conversations (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    started_at DATETIME(6) NULL,
+    ended_at   DATETIME(6) NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS messages (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    conversation_id BIGINT       NOT NULL,
+    speaker         VARCHAR(255) NOT NULL,
+    content         TEXT         NOT NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_messages_conversation FOREIGN KEY (conversation_id) REFERENCES conversations (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,19 @@
+-- 대화별 메시지 수/마지막 메시지를 비정규화해 total, 변경 여부 확인을 O(1)로
+ALTER TABLE conversations
+    ADD COLUMN message_count   BIGINT      NOT NULL DEFAULT 0,
+    ADD COLUMN last_message_at DATETIME(6) NULL,
+    ADD COLUMN last_message_id BIGINT      NULL;
+
+UPDATE conversations c
+    JOIN (SELECT conversation_id,
+                 COUNT(*)        AS message_count,
+                 MAX(id)         AS last_message_id,
+                 MAX(created_at) AS last_message_at
+          FROM messages
+          GROUP BY conversation_id) m ON m.conversation_id = c.id
+SET c.message_count   = m.message_count,
+    c.last_message_id = m.last_message_id,
+    c.last_message_at = m.last_message_at;
+
+-- "대화 X의 메시지를 id 순으로" 조회를 인덱스 범위 스캔으로
+CREATE INDEX idx_messages_conversation_id_id ON messages (conversation_id, id);
@@ -0,0 +1,5 @@
+-- 대화 목록: started_at 최신순 keyset 페이지네이션
+CREATE INDEX idx_conversations_started_at_id ON conversations (started_at, id);
+
+-- 상태 필터(ended_at IS NULL / IS NOT NULL)와 종료 시각 범위 조회
+CREATE INDEX idx_conversations_ended_at_started_at_id ON conversations (ended_at, started_at, id);
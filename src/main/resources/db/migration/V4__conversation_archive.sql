@@ -0,0 +1,5 @@
+-- 콜드 스토리지로 옮긴 대화: 메시지는 아카이브 세그먼트에만 남는다
+ALTER TABLE conversations ADD COLUMN archived_at DATETIME(6) NULL;
+
+-- 아카이브 대상(archived_at IS NULL AND ended_at < ?) 조회
+CREATE INDEX idx_conversations_archived_at_ended_at ON conversations (archived_at, ended_at);
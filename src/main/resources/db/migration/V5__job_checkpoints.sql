@@ -0,0 +1,7 @@
+-- 백그라운드 작업의 진행 위치 (재시작 시 이어서 처리)
+CREATE TABLE job_checkpoints (
+    job_name   VARCHAR(64) NOT NULL,
+    position   BIGINT      NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (job_name)
+);
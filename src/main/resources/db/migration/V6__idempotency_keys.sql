@@ -0,0 +1,6 @@
+-- 클라이언트 재시도 중복 방지: 같은 키로 두 번 저장되지 않도록 유니크 인덱스 (NULL은 중복 허용)
+ALTER TABLE conversations ADD COLUMN idempotency_key VARCHAR(128) NULL;
+CREATE UNIQUE INDEX uk_conversations_idempotency_key ON conversations (idempotency_key);
+
+ALTER TABLE messages ADD COLUMN idempotency_key VARCHAR(128) NULL;
+CREATE UNIQUE INDEX uk_messages_conversation_id_idempotency_key ON messages (conversation_id, idempotency_key);
@@ -0,0 +1,12 @@
+-- 대화 안에서 빈틈 없이 1부터 증가하는 메시지 순번 (정렬 기준을 시각 대신 순번으로)
+ALTER TABLE messages ADD COLUMN seq BIGINT NULL;
+
+UPDATE messages m
+    JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY conversation_id ORDER BY id) AS rn
+          FROM messages) r ON r.id = m.id
+SET m.seq = r.rn;
+
+ALTER TABLE messages MODIFY seq BIGINT NOT NULL;
+
+-- 같은 순번이 두 번 쓰이면 (잠금을 우회한 쓰기 등) 커밋 단계에서 실패하도록
+CREATE UNIQUE INDEX uk_messages_conversation_id_seq ON messages (conversation_id, seq);
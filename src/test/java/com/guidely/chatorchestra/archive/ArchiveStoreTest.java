@@ -0,0 +1,211 @@
+package com.guidely.chatorchestra.archive;
+
+import com.guidely.chatorchestra.config.ArchiveProperties;
+import com.guidely.chatorchestra.model.enums.MessageRole;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ArchiveStore
+ */
+class ArchiveStoreTest {
+
+    private static final LocalDateTime STARTED_AT = LocalDateTime.of(2024, 1, 1, 9, 0, 0, 123_456_000);
+    private static final LocalDateTime ENDED_AT = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @TempDir
+    Path directory;
+
+    private ArchiveStore store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void append_ShouldRoundTripConversation() throws IOException {
+        // Given
+        store = open(DataSize.ofMegabytes(1));
+
+        // When
+        store.append(1L, STARTED_AT, ENDED_AT, List.of(
+                message(10L, 1, "user", "모네의 수련 연작은 언제 그려졌나요?"),
+                message(11L, 2, "assistant", "1890년대 후반부터 1926년까지입니다.")));
+        ArchivedConversation archived = store.read(1L).orElseThrow();
+
+        // Then
+        assertThat(archived.getId()).isEqualTo(1L);
+        assertThat(archived.getStartedAt()).isEqualTo(STARTED_AT);
+        assertThat(archived.getEndedAt()).isEqualTo(ENDED_AT);
+        assertThat(archived.getMessages()).hasSize(2);
+        assertThat(archived.getMessages().get(0).getMessageId()).isEqualTo(10L);
+        assertThat(archived.getMessages().get(0).getSeq()).isEqualTo(1L);
+        assertThat(archived.getMessages().get(0).getRole()).isEqualTo(MessageRole.USER);
+        assertThat(archived.getMessages().get(0).getContent()).isEqualTo("모네의 수련 연작은 언제 그려졌나요?");
+        assertThat(archived.getMessages().get(1).getRole()).isEqualTo(MessageRole.ASSISTANT);
+        assertThat(archived.getMessages().get(1).getSeq()).isEqualTo(2L);
+        assertThat(store.read(2L)).isEmpty();
+    }
+
+    @Test
+    void open_ShouldRecoverIndexAndRollSegments() throws IOException {
+        // Given
+        store = open(DataSize.ofBytes(200));
+        for (long id = 1; id <= 5; id++) {
+            store.append(id, STARTED_AT, ENDED_AT, List.of(message(id * 10, 1, "user", "message " + id)));
+        }
+        store.sync();
+        store.close();
+
+        // When
+        store = open(DataSize.ofBytes(200));
+
+        // Then
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        for (long id = 1; id <= 5; id++) {
+            assertThat(store.read(id).orElseThrow().getMessages().get(0).getContent()).isEqualTo("message " + id);
+        }
+    }
+
+    @Test
+    void open_ShouldTruncateTornTail() throws IOException {
+        // Given
+        store = open(DataSize.ofMegabytes(1));
+        store.append(1L, STARTED_AT, ENDED_AT, List.of(message(10L, 1, "user", "kept")));
+        store.append(2L, STARTED_AT, ENDED_AT, List.of(message(20L, 1, "user", "torn")));
+        store.sync();
+        store.close();
+        Path segment = segmentFiles().get(0);
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        // When
+        store = open(DataSize.ofMegabytes(1));
+        store.append(3L, STARTED_AT, ENDED_AT, List.of(message(30L, 1, "user", "after recovery")));
+
+        // Then
+        assertThat(store.read(1L).orElseThrow().getMessages().get(0).getContent()).isEqualTo("kept");
+        assertThat(store.contains(2L)).isFalse();
+        assertThat(store.read(3L).orElseThrow().getMessages().get(0).getContent()).isEqualTo("after recovery");
+    }
+
+    @Test
+    void deleteEndedBefore_ShouldTombstoneExpiredAndCompactSegments() throws IOException {
+        // Given: 세그먼트마다 대화 하나씩, 1~3은 보존 기간이 지남
+        store = open(DataSize.ofBytes(200));
+        for (long id = 1; id <= 5; id++) {
+            LocalDateTime endedAt = id <= 3 ? ENDED_AT : ENDED_AT.plusDays(30);
+            store.append(id, STARTED_AT, endedAt, List.of(message(id * 10, 1, "user", "message " + id)));
+        }
+        store.sync();
+        long sizeBefore = totalSize();
+
+        // When
+        int deleted = store.deleteEndedBefore(ENDED_AT.plusDays(1));
+        long reclaimed = store.compact();
+
+        // Then
+        assertThat(deleted).isEqualTo(3);
+        assertThat(reclaimed).isPositive();
+        assertThat(totalSize()).isLessThan(sizeBefore);
+        assertThat(store.contains(1L)).isFalse();
+        assertThat(store.read(4L).orElseThrow().getMessages().get(0).getContent()).isEqualTo("message 4");
+
+        // 재시작 후에도 지운 대화는 되살아나지 않는다
+        store.close();
+        store = open(DataSize.ofBytes(200));
+        for (long id = 1; id <= 3; id++) {
+            assertThat(store.contains(id)).isFalse();
+        }
+        assertThat(store.read(5L).orElseThrow().getMessages().get(0).getContent()).isEqualTo("message 5");
+        store.append(6L, STARTED_AT, ENDED_AT, List.of(message(60L, 1, "user", "after compaction")));
+        assertThat(store.read(6L).orElseThrow().getMessages().get(0).getContent()).isEqualTo("after compaction");
+    }
+
+    @Test
+    void open_ShouldApplyTombstonesWrittenBeforeRestart() throws IOException {
+        // Given
+        store = open(DataSize.ofMegabytes(1));
+        store.append(1L, STARTED_AT, ENDED_AT, List.of(message(10L, 1, "user", "expired")));
+        store.append(2L, STARTED_AT, ENDED_AT.plusDays(30), List.of(message(20L, 1, "user", "kept")));
+        store.deleteEndedBefore(ENDED_AT.plusDays(1));
+        store.close();
+
+        // When
+        store = open(DataSize.ofMegabytes(1));
+
+        // Then
+        assertThat(store.contains(1L)).isFalse();
+        assertThat(store.read(2L).orElseThrow().getMessages().get(0).getContent()).isEqualTo("kept");
+    }
+
+    @Test
+    void open_ShouldNotCreateAnythingWhenDisabled() throws IOException {
+        // Given
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setDirectory(directory.resolve("archive"));
+
+        // When
+        store = new ArchiveStore(properties, new SimpleMeterRegistry());
+        store.open();
+
+        // Then
+        assertThat(properties.getDirectory()).doesNotExist();
+        assertThat(store.read(1L)).isEmpty();
+    }
+
+    private ArchiveStore open(DataSize maxSegmentSize) throws IOException {
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setMaxSegmentSize(maxSegmentSize);
+        ArchiveStore archiveStore = new ArchiveStore(properties, new SimpleMeterRegistry());
+        archiveStore.open();
+        return archiveStore;
+    }
+
+    private long totalSize() throws IOException {
+        long size = 0;
+        for (Path file : segmentFiles()) {
+            size += Files.size(file);
+        }
+        return size;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static StoredMessageRow message(Long id, long seq, String speaker, String content) {
+        return StoredMessageRow.builder()
+                .id(id)
+                .conversationId(1L)
+                .seq(seq)
+                .speaker(speaker)
+                .content(content)
+                .createdAt(ENDED_AT.minusMinutes(5))
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.guidely.chatorchestra.benchmark;
+
+import com.guidely.chatorchestra.id.TsidGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares message insert throughput with auto-increment keys, which force one statement and one
+ * generated-key read per row (what Hibernate does for IDENTITY), against ids assigned up front and
+ * sent as JDBC batches. Random ids are included to show the cost of losing index insert locality.
+ * Each statement execution pays a simulated network round trip. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class IdBatchInsertBenchmarkTest {
+
+    private static final int ROWS = 10_000;
+    private static final int BATCH_SIZE = 50;
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:id-batch-insert;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void preassignedIds_ShouldInsertFasterThanIdentityKeys() throws SQLException {
+        // Given
+        TsidGenerator generator = new TsidGenerator(0, Instant.parse("2024-01-01T00:00:00Z"));
+
+        // When
+        Result identity = measure("auto-increment, row by row", this::insertIdentity);
+        Result timeOrdered = measure("time-ordered ids, batched", () -> insertBatched(generator::nextId));
+        Result random = measure("random ids, batched", () -> insertBatched(
+                () -> ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE)));
+
+        // Then
+        System.out.printf("%-28s %12s %12s%n", "ids", "rows/s", "round trips");
+        System.out.println(identity);
+        System.out.println(timeOrdered);
+        System.out.println(random);
+        assertThat(timeOrdered.rowsPerSecond).isGreaterThan(identity.rowsPerSecond);
+    }
+
+    private Result measure(String name, Insert insert) throws SQLException {
+        // 워밍업
+        createTable();
+        insert.run();
+        dropTable();
+
+        createTable();
+        long started = System.nanoTime();
+        int roundTrips = insert.run();
+        long elapsed = System.nanoTime() - started;
+        dropTable();
+        return new Result(name, ROWS / (elapsed / 1e9), roundTrips);
+    }
+
+    private int insertIdentity() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO messages (conversation_id, seq, speaker, content, created_at) VALUES (?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(ps, 1, i);
+                ps.executeUpdate();
+                roundTrip();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+            connection.commit();
+            return ROWS;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private int insertBatched(IdSource ids) throws SQLException {
+        connection.setAutoCommit(false);
+        int roundTrips = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO messages (id, conversation_id, seq, speaker, content, created_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                ps.setLong(1, ids.next());
+                bind(ps, 2, i);
+                ps.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                    roundTrip();
+                    roundTrips++;
+                }
+            }
+            connection.commit();
+            return roundTrips;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, int first, int i) throws SQLException {
+        ps.setLong(first, i % 100 + 1);
+        ps.setLong(first + 1, i / 100 + 1);
+        ps.setString(first + 2, i % 2 == 0 ? "user" : "assistant");
+        ps.setString(first + 3, "이 그림은 누가 그렸나요? 인상주의 화풍의 특징을 설명해 주세요.");
+        ps.setTimestamp(first + 4, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private static void roundTrip() {
+        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+    }
+
+    private void createTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE messages (id BIGINT AUTO_INCREMENT PRIMARY KEY, conversation_id BIGINT NOT NULL, "
+                    + "seq BIGINT NOT NULL, speaker VARCHAR(255) NOT NULL, content TEXT NOT NULL, created_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE INDEX idx_messages_conversation_id_id ON messages (conversation_id, id)");
+        }
+    }
+
+    private void dropTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE messages");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Insert {
+        int run() throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface IdSource {
+        long next();
+    }
+
+    private record Result(String name, double rowsPerSecond, int roundTrips) {
+        @Override
+        public String toString() {
+            return String.format("%-28s %12.0f %12d", name, rowsPerSecond, roundTrips);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.guidely.chatorchestra.cache;
+
+import com.guidely.chatorchestra.config.ConversationCacheProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import com.guidely.chatorchestra.model.enums.MessageRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConversationCache and CachedConversation
+ */
+class ConversationCacheTest {
+
+    private ConversationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ConversationCacheProperties properties = new ConversationCacheProperties();
+        properties.setTailSize(2);
+        cache = new ConversationCache(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void appendMessage_ShouldIgnoreMessageAlreadyInPopulatedTail() {
+        // Given: 조회가 커밋된 메시지 3까지 읽어 채운 뒤 같은 메시지의 쓰기 알림이 도착
+        cache.populate(1L, null, entry(3, 0, message(1, 1), message(2, 2), message(3, 3)));
+
+        // When
+        cache.appendMessage(1L, message(3, 3));
+
+        // Then
+        CachedConversation entry = cache.get(1L);
+        assertThat(entry.getTotal()).isEqualTo(3);
+        assertThat(entry.getTail()).extracting(MessageDto::getMessageId).containsExactly(2L, 3L);
+        assertThat(entry.getBoundaryId()).isEqualTo(1L);
+    }
+
+    @Test
+    void appendMessage_ShouldIgnoreMessageAtOrBelowBoundary() {
+        // Given
+        cache.populate(1L, null, entry(3, 0, message(1, 1), message(2, 2), message(3, 3)));
+
+        // When
+        cache.appendMessage(1L, message(1, 1));
+
+        // Then
+        assertThat(cache.get(1L).getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void appendMessage_ShouldCountNewMessage() {
+        // Given
+        cache.populate(1L, null, entry(3, 0, message(1, 1), message(2, 2), message(3, 3)));
+
+        // When
+        cache.appendMessage(1L, message(4, 4));
+
+        // Then
+        CachedConversation entry = cache.get(1L);
+        assertThat(entry.getTotal()).isEqualTo(4);
+        assertThat(entry.getTail()).extracting(MessageDto::getMessageId).containsExactly(3L, 4L);
+        assertThat(entry.getBoundaryId()).isEqualTo(2L);
+    }
+
+    private static CachedConversation entry(long total, long boundaryId, MessageDto... tail) {
+        return CachedConversation.builder()
+                .id(1L)
+                .startedAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .total(total)
+                .boundaryId(boundaryId)
+                .tail(List.of(tail))
+                .build();
+    }
+
+    private static MessageDto message(long id, long seq) {
+        return MessageDto.builder()
+                .messageId(id)
+                .seq(seq)
+                .role(MessageRole.USER)
+                .content("message " + id)
+                .createdAt(Instant.parse("2024-05-01T10:00:00Z"))
+                .build();
+    }
+}
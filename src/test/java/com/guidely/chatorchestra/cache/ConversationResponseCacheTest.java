@@ -0,0 +1,164 @@
+package com.guidely.chatorchestra.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.guidely.chatorchestra.config.ResponseCacheProperties;
+import com.guidely.chatorchestra.dto.ResponseEnvelope;
+import com.guidely.chatorchestra.dto.SerializedEnvelope;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import com.guidely.chatorchestra.model.enums.MessageRole;
+import com.guidely.chatorchestra.web.converter.SerializedEnvelopeHttpMessageConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConversationResponseCache and SerializedEnvelopeHttpMessageConverter
+ */
+class ConversationResponseCacheTest {
+
+    private static final String TAG = "W/\"1-3-3-e\"";
+
+    // 애플리케이션 설정(spring.jackson.*)과 같은 ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void get_ShouldServeSecondRequestWithoutLoading() {
+        // Given
+        ConversationResponseCache cache = cache(DataSize.ofMegabytes(1), false);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        ByteBuffer first = cache.get(1L, TAG, null, null, null, () -> {
+            loads.incrementAndGet();
+            return response(1L, 3);
+        });
+        ByteBuffer second = cache.get(1L, TAG, null, null, null, () -> {
+            loads.incrementAndGet();
+            return response(1L, 3);
+        });
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(second).isEqualTo(first);
+        assertThat(meterRegistry.get("chat.conversation.response.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("chat.conversation.response.cache.bytes").gauge().value())
+                .isEqualTo(first.remaining());
+    }
+
+    @Test
+    void get_ShouldLoadAgainForOtherPageOrVersion() {
+        // Given
+        ConversationResponseCache cache = cache(DataSize.ofMegabytes(1), false);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, TAG, null, null, null, () -> counted(loads));
+
+        // When
+        cache.get(1L, TAG, null, 2L, null, () -> counted(loads));
+        cache.get(1L, "W/\"1-4-9-e\"", null, null, null, () -> counted(loads));
+
+        // Then
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_ShouldStayWithinSizeBudget() throws Exception {
+        // Given
+        long bodySize = objectMapper.writeValueAsBytes(response(10L, 20)).length;
+        ConversationResponseCache cache = cache(DataSize.ofBytes(bodySize * 3), true);
+
+        // When
+        for (long id = 1; id <= 10; id++) {
+            long conversationId = id;
+            cache.get(conversationId, TAG, null, null, null, () -> response(conversationId, 20));
+        }
+
+        // Then
+        assertThat(meterRegistry.get("chat.conversation.response.cache.bytes").gauge().value())
+                .isLessThanOrEqualTo(bodySize * 3);
+        assertThat(meterRegistry.get("chat.conversation.response.cache.evictions").counter().count())
+                .isGreaterThanOrEqualTo(7.0);
+    }
+
+    @Test
+    void converter_ShouldWriteSameBytesAsJackson() throws Exception {
+        // Given
+        GetConversationResponse response = response(7L, 3);
+        Instant timestamp = Instant.parse("2024-05-01T10:15:30.123Z");
+        byte[] expected = objectMapper.writeValueAsBytes(ResponseEnvelope.<GetConversationResponse>builder()
+                .success(true)
+                .data(response)
+                .timestamp(timestamp)
+                .build());
+        SerializedEnvelopeHttpMessageConverter converter =
+                new SerializedEnvelopeHttpMessageConverter(objectMapper, meterRegistry);
+
+        for (boolean offHeap : new boolean[]{false, true}) {
+            meterRegistry = new SimpleMeterRegistry();
+            ByteBuffer data = cache(DataSize.ofMegabytes(1), offHeap).get(7L, TAG, null, null, null, () -> response);
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+            // When
+            converter.write(SerializedEnvelope.success(data, timestamp), null, output);
+
+            // Then
+            assertThat(output.getBodyAsString(StandardCharsets.UTF_8))
+                    .isEqualTo(new String(expected, StandardCharsets.UTF_8));
+            assertThat(output.getHeaders().getContentType()).hasToString("application/json");
+        }
+    }
+
+    private ConversationResponseCache cache(DataSize maxSize, boolean offHeap) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxSize(maxSize);
+        properties.setOffHeap(offHeap);
+        return new ConversationResponseCache(properties, objectMapper, meterRegistry);
+    }
+
+    private static GetConversationResponse counted(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return response(1L, 3);
+    }
+
+    private static GetConversationResponse response(Long conversationId, int messages) {
+        List<MessageDto> dtos = LongStream.rangeClosed(1, messages)
+                .mapToObj(seq -> MessageDto.builder()
+                        .messageId(1_000 + seq)
+                        .seq(seq)
+                        .role(seq % 2 == 1 ? MessageRole.USER : MessageRole.ASSISTANT)
+                        .content("모네의 수련 연작에 대해 알려주세요 " + seq)
+                        .createdAt(Instant.parse("2024-05-01T10:00:00Z").plusSeconds(seq))
+                        .build())
+                .toList();
+        return GetConversationResponse.builder()
+                .sessionId(conversationId)
+                .status("ACTIVE")
+                .messages(dtos)
+                .total(messages)
+                .nextCursor(dtos.get(dtos.size() - 1).getMessageId())
+                .prevCursor(dtos.get(0).getMessageId())
+                .hasMore(false)
+                .build();
+    }
+}
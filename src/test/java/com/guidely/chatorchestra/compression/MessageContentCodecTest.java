@@ -0,0 +1,119 @@
+package com.guidely.chatorchestra.compression;
+
+import com.guidely.chatorchestra.config.CompressionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for MessageContentCodec
+ */
+class MessageContentCodecTest {
+
+    private static final String LONG_CONTENT = "이 작품은 인상주의 화풍의 특징을 잘 보여 줍니다. ".repeat(100);
+
+    private CompressionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private MessageContentCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CompressionProperties();
+        properties.setEnabled(true);
+        properties.setMinLength(100);
+        meterRegistry = new SimpleMeterRegistry();
+        codec = new MessageContentCodec(properties, meterRegistry);
+    }
+
+    @Test
+    void encode_ShouldCompressLongContentIntoBlob() {
+        // When
+        MessageContentCodec.Encoded encoded = codec.encode(LONG_CONTENT);
+
+        // Then
+        assertThat(encoded.content()).isEmpty();
+        assertThat(encoded.blob()).isNotNull();
+        assertThat(encoded.blob()[0]).isEqualTo(MessageContentCodec.FORMAT_VERSION);
+        assertThat(encoded.blob()[1]).isEqualTo(MessageContentCodec.CODEC_DEFLATE);
+        assertThat(encoded.blob().length).isLessThan(LONG_CONTENT.getBytes(StandardCharsets.UTF_8).length / 4);
+        assertThat(codec.decode(encoded.content(), encoded.blob())).isEqualTo(LONG_CONTENT);
+        assertThat(meterRegistry.get("chat.message.compression.ratio").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void encode_ShouldKeepShortContentAsPlainText() {
+        // When
+        MessageContentCodec.Encoded encoded = codec.encode("안녕하세요");
+
+        // Then
+        assertThat(encoded.content()).isEqualTo("안녕하세요");
+        assertThat(encoded.blob()).isNull();
+    }
+
+    @Test
+    void encode_ShouldKeepContentAsPlainTextWhenDisabled() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        MessageContentCodec.Encoded encoded = codec.encode(LONG_CONTENT);
+
+        // Then
+        assertThat(encoded.content()).isEqualTo(LONG_CONTENT);
+        assertThat(encoded.blob()).isNull();
+    }
+
+    @Test
+    void decode_ShouldReadRowsWrittenBeforeCompression() {
+        // When / Then
+        assertThat(codec.decode("기존 메시지", null)).isEqualTo("기존 메시지");
+    }
+
+    @Test
+    void decode_ShouldReadCompressedRowsAfterCompressionIsDisabled() {
+        // Given
+        MessageContentCodec.Encoded encoded = codec.encode(LONG_CONTENT);
+        properties.setEnabled(false);
+
+        // When / Then
+        assertThat(codec.decode(encoded.content(), encoded.blob())).isEqualTo(LONG_CONTENT);
+    }
+
+    @Test
+    void decode_ShouldRejectUnknownFormatAndTruncatedData() {
+        // Given
+        byte[] blob = codec.encode(LONG_CONTENT).blob();
+        byte[] unknownFormat = blob.clone();
+        unknownFormat[0] = 9;
+
+        // When / Then
+        assertThatThrownBy(() -> codec.decode("", unknownFormat))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("format");
+        assertThatThrownBy(() -> codec.decode("", Arrays.copyOf(blob, blob.length / 2)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void requireStorable_ShouldRejectContentTheColumnsCannotHold() {
+        // Given
+        String tooLong = "가".repeat(MessageContentCodec.MAX_CONTENT_BYTES / 3 + 1);
+
+        // When / Then
+        codec.requireStorable(tooLong);
+        properties.setEnabled(false);
+        assertThatThrownBy(() -> codec.requireStorable(tooLong))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too long");
+        assertThatThrownBy(() -> codec.requireStorable("깨진 문자 \uD800"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unicode");
+        codec.requireStorable(LONG_CONTENT);
+    }
+}
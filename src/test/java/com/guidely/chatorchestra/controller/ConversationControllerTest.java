@@ -1,91 +1,161 @@
 package com.guidely.chatorchestra.controller;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.guidely.chatorchestra.dto.conversation.StartConversationRequest;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.guidely.chatorchestra.cache.ConversationResponseCache;
+import com.guidely.chatorchestra.config.HistoryProperties;
 import com.guidely.chatorchestra.dto.conversation.PostMessageRequest;
+import com.guidely.chatorchestra.dto.conversation.PostMessageResponse;
+import com.guidely.chatorchestra.exception.GlobalExceptionHandler;
+import com.guidely.chatorchestra.metrics.ConversationMetrics;
+import com.guidely.chatorchestra.model.Conversation;
 import com.guidely.chatorchestra.model.enums.MessageRole;
 import com.guidely.chatorchestra.service.ConversationService;
+import com.guidely.chatorchestra.service.ConversationVersion;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.util.UUID;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
- * WebMvcTest for ConversationController
+ * Standalone MockMvc tests for ConversationController
  */
-@WebMvcTest(ConversationController.class)
+@ExtendWith(MockitoExtension.class)
 class ConversationControllerTest {
 
-    @Autowired
-    private MockMvc mockMvc;
-
-    @MockBean
+    @Mock
     private ConversationService conversationService;
 
-    @Autowired
-    private ObjectMapper objectMapper;
+    @Mock
+    private ConversationMetrics conversationMetrics;
+
+    @Mock
+    private ConversationResponseCache conversationResponseCache;
+
+    // 애플리케이션 설정(spring.jackson.*)과 같은 ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ConversationController controller = new ConversationController(conversationService, new HistoryProperties(),
+                conversationMetrics, conversationResponseCache);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
 
     @Test
     void startConversation_ShouldReturn201AndSessionId() throws Exception {
         // Given
-        StartConversationRequest request = StartConversationRequest.builder()
-                .userId("test-user")
-                .build();
-
-        UUID sessionId = UUID.randomUUID();
-        when(conversationService.startSession(any(), any()))
-                .thenReturn(com.guidely.chatorchestra.model.Conversation.builder()
-                        .sessionId(sessionId)
-                        .userId("test-user")
-                        .status(com.guidely.chatorchestra.model.enums.ConversationStatus.STARTED)
-                        .startedAt(java.time.Instant.now())
-                        .build());
+        when(conversationService.startSession(null)).thenReturn(Conversation.builder()
+                .id(1L)
+                .startedAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .build());
 
         // When & Then
-        mockMvc.perform(post("/api/conversation/start")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(request)))
+        mockMvc.perform(post("/api/conversations"))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data.session_id").value(sessionId.toString()))
-                .andExpect(jsonPath("$.data.status").value("STARTED"));
+                .andExpect(jsonPath("$.data.session_id").value(1))
+                .andExpect(jsonPath("$.data.status").value("CREATED"))
+                .andExpect(jsonPath("$.data.started_at").value("2024-05-01T10:00:00Z"));
     }
 
     @Test
     void postMessage_ShouldReturn200AndAssistantPreview() throws Exception {
         // Given
-        UUID sessionId = UUID.randomUUID();
         PostMessageRequest request = PostMessageRequest.builder()
                 .role(MessageRole.USER)
                 .content("안녕")
                 .build();
-
-        when(conversationService.appendMessage(eq(sessionId), any(), any(), any()))
-                .thenReturn(com.guidely.chatorchestra.dto.conversation.PostMessageResponse.builder()
-                        .messageId(UUID.randomUUID())
-                        .sessionId(sessionId)
+        when(conversationService.appendMessage(eq(1L), eq("user"), eq("안녕"), any(), isNull()))
+                .thenReturn(PostMessageResponse.builder()
+                        .messageId(10L)
+                        .seq(1L)
+                        .sessionId(1L)
                         .role(MessageRole.USER)
                         .content("안녕")
-                        .createdAt(java.time.Instant.now())
-                        .assistantPreview("This is a mock reply to: 안녕")
+                        .createdAt(Instant.parse("2024-05-01T10:00:00Z"))
+                        .assistantPreview("Mock assistant preview")
                         .build());
 
         // When & Then
-        mockMvc.perform(post("/api/conversation/{sessionId}/message", sessionId)
+        mockMvc.perform(post("/api/conversations/{conversationId}/messages", 1L)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data.assistant_preview").value("This is a mock reply to: 안녕"));
+                .andExpect(jsonPath("$.data.message_id").value(10))
+                .andExpect(jsonPath("$.data.assistant_preview").value("Mock assistant preview"));
+    }
+
+    @Test
+    void postMessage_ShouldReturn404WhenConversationMissing() throws Exception {
+        // Given
+        PostMessageRequest request = PostMessageRequest.builder()
+                .role(MessageRole.USER)
+                .content("안녕")
+                .build();
+        when(conversationService.appendMessage(eq(99L), any(), any(), any(), any()))
+                .thenThrow(new NoSuchElementException("Conversation not found: 99"));
+
+        // When & Then
+        mockMvc.perform(post("/api/conversations/{conversationId}/messages", 99L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error.code").value("RESOURCE_NOT_FOUND"));
+    }
+
+    @Test
+    void getConversation_ShouldReturn304WhenETagMatches() throws Exception {
+        // Given
+        when(conversationService.getSessionVersion(1L)).thenReturn(ConversationVersion.builder()
+                .conversationId(1L)
+                .messageCount(3)
+                .lastMessageId(9L)
+                .ended(false)
+                .build());
+
+        // When & Then
+        mockMvc.perform(get("/api/conversations/{conversationId}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-3-9-a\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-3-9-a\""));
+        verify(conversationService, never()).getSession(anyLong(), any(), any(), any());
     }
 }
@@ -0,0 +1,22 @@
+package com.guidely.chatorchestra.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CursorFetchCheck
+ */
+class CursorFetchCheckTest {
+
+    @Test
+    void streams_ShouldRequireCursorFetchOnlyForMysql() {
+        // When / Then
+        assertThat(CursorFetchCheck.streams("jdbc:mysql://db:3306/chat?rewriteBatchedStatements=true", null))
+                .isFalse();
+        assertThat(CursorFetchCheck.streams("jdbc:mysql://db:3306/chat?useCursorFetch=true", null)).isTrue();
+        assertThat(CursorFetchCheck.streams("jdbc:mysql://db:3306/chat", "true")).isTrue();
+        assertThat(CursorFetchCheck.streams("jdbc:h2:mem:test;MODE=MySQL", null)).isTrue();
+        assertThat(CursorFetchCheck.streams("", null)).isTrue();
+    }
+}
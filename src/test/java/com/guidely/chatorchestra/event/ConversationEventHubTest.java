@@ -0,0 +1,115 @@
+package com.guidely.chatorchestra.event;
+
+import com.guidely.chatorchestra.config.EventsProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConversationEventHub, with sends running inline on the publishing thread
+ */
+class ConversationEventHubTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConversationEventHub hub;
+    private List<MessageDto> stored;
+    private List<Long> backfilledAfter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new ConversationEventHub(new EventsProperties(), new TaskExecutorAdapter(Runnable::run), meterRegistry);
+        stored = new ArrayList<>();
+        backfilledAfter = new ArrayList<>();
+    }
+
+    @Test
+    void onMessageAppended_ShouldBackfillGapInsteadOfDroppingEarlierMessage() {
+        // Given
+        hub.subscribe(1L, 10L, 1L, this::messagesAfter);
+        stored.add(message(11L, 2L));
+        stored.add(message(12L, 3L));
+
+        // When: 12의 이벤트가 11보다 먼저 도착
+        hub.onMessageAppended(new MessageAppendedEvent(1L, message(12L, 3L)));
+        hub.onMessageAppended(new MessageAppendedEvent(1L, message(11L, 2L)));
+
+        // Then
+        assertThat(backfilledAfter).containsExactly(10L, 10L);
+        assertThat(sent()).isEqualTo(2);
+    }
+
+    @Test
+    void onMessageAppended_ShouldNotBackfillConsecutiveMessages() {
+        // Given
+        hub.subscribe(1L, 10L, 1L, this::messagesAfter);
+
+        // When
+        hub.onMessageAppended(new MessageAppendedEvent(1L, message(11L, 2L)));
+        hub.onMessageAppended(new MessageAppendedEvent(1L, message(12L, 3L)));
+
+        // Then
+        assertThat(backfilledAfter).containsExactly(10L);
+        assertThat(sent()).isEqualTo(2);
+    }
+
+    @Test
+    void onConversationEnded_ShouldSendCommittedMessagesBeforeEnding() {
+        // Given
+        hub.subscribe(1L, 10L, 1L, this::messagesAfter);
+        stored.add(message(11L, 2L));
+
+        // When: 종료 이벤트가 마지막 메시지 이벤트보다 먼저 도착
+        hub.onConversationEnded(new ConversationEndedEvent(1L, Instant.parse("2024-05-01T10:00:00Z")));
+        hub.onMessageAppended(new MessageAppendedEvent(1L, message(11L, 2L)));
+
+        // Then
+        assertThat(backfilledAfter).containsExactly(10L, 10L);
+        assertThat(sent()).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeat_ShouldQueueBehindPendingEventsInsteadOfSendingInline() {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        hub = new ConversationEventHub(new EventsProperties(), new TaskExecutorAdapter(tasks::add), meterRegistry);
+        hub.subscribe(1L, 10L, 1L, this::messagesAfter);
+        hub.onMessageAppended(new MessageAppendedEvent(1L, message(11L, 2L)));
+
+        // When
+        hub.heartbeat();
+        hub.heartbeat();
+
+        // Then: 스케줄러 스레드에서는 보내지 않고 구독자의 drain 작업 하나에 맡긴다
+        assertThat(tasks).hasSize(1);
+        assertThat(sent()).isZero();
+        tasks.get(0).run();
+        assertThat(sent()).isEqualTo(1);
+    }
+
+    private List<MessageDto> messagesAfter(long afterId) {
+        backfilledAfter.add(afterId);
+        return stored.stream().filter(message -> message.getMessageId() > afterId).toList();
+    }
+
+    private double sent() {
+        return meterRegistry.get("chat.events.sent").counter().count();
+    }
+
+    private static MessageDto message(long id, long seq) {
+        return MessageDto.builder()
+                .messageId(id)
+                .seq(seq)
+                .content("message " + id)
+                .createdAt(Instant.parse("2024-05-01T10:00:00Z"))
+                .build();
+    }
+}
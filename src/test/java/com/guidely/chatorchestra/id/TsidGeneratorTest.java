@@ -0,0 +1,160 @@
+package com.guidely.chatorchestra.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TsidGenerator
+ */
+class TsidGeneratorTest {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    @Test
+    void nextId_ShouldIncreaseAndEncodeTime() {
+        // Given
+        TsidGenerator generator = new TsidGenerator(3, EPOCH, clock::get);
+
+        // When
+        long first = generator.nextId();
+        long second = generator.nextId();
+        clock.addAndGet(5);
+        long third = generator.nextId();
+
+        // Then
+        assertThat(List.of(first, second, third)).isSorted().doesNotHaveDuplicates();
+        assertThat(generator.timestampOf(first)).isEqualTo(Instant.ofEpochMilli(NOW));
+        assertThat(generator.timestampOf(third)).isEqualTo(Instant.ofEpochMilli(NOW + 5));
+        assertThat((first >>> TsidGenerator.SEQUENCE_BITS) & TsidGenerator.MAX_WORKER_ID).isEqualTo(3);
+        assertThat(third).isLessThan(1L << 53);
+    }
+
+    @Test
+    void nextId_ShouldBorrowNextMillisecondWhenSequenceRunsOut() {
+        // Given
+        TsidGenerator generator = new TsidGenerator(0, EPOCH, clock::get);
+        int perMillisecond = 1 << TsidGenerator.SEQUENCE_BITS;
+
+        // When
+        long[] ids = LongStream.range(0, perMillisecond + 1).map(i -> generator.nextId()).toArray();
+
+        // Then
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(generator.timestampOf(ids[perMillisecond - 1])).isEqualTo(Instant.ofEpochMilli(NOW));
+        assertThat(generator.timestampOf(ids[perMillisecond])).isEqualTo(Instant.ofEpochMilli(NOW + 1));
+    }
+
+    @Test
+    void nextId_ShouldKeepIncreasingWhenClockStepsBack() {
+        // Given
+        TsidGenerator generator = new TsidGenerator(0, EPOCH, clock::get);
+        long before = generator.nextId();
+
+        // When
+        clock.addAndGet(-1_000);
+        long after = generator.nextId();
+
+        // Then
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void observe_ShouldOrderAfterIdFromNodeWithClockAhead() {
+        // Given
+        TsidGenerator behind = new TsidGenerator(1, EPOCH, clock::get);
+        TsidGenerator ahead = new TsidGenerator(0, EPOCH, () -> clock.get() + 50);
+        long foreign = ahead.nextId();
+
+        // When
+        behind.observe(foreign);
+        long next = behind.nextId();
+
+        // Then
+        assertThat(next).isGreaterThan(foreign);
+        assertThat(behind.timestampOf(next)).isEqualTo(Instant.ofEpochMilli(NOW + 51));
+    }
+
+    @Test
+    void observe_ShouldIgnoreSmallerIds() {
+        // Given
+        TsidGenerator generator = new TsidGenerator(0, EPOCH, clock::get);
+        long first = generator.nextId();
+
+        // When
+        generator.observe(42L);
+        long second = generator.nextId();
+
+        // Then
+        assertThat(generator.timestampOf(second)).isEqualTo(generator.timestampOf(first));
+        assertThat(second).isEqualTo(first + 1);
+    }
+
+    @Test
+    void nextId_ShouldBeUniqueUnderConcurrency() throws Exception {
+        // Given
+        TsidGenerator generator = new TsidGenerator(7, EPOCH);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        CompletableFuture<?>[] workers = IntStream.range(0, 8)
+                .mapToObj(t -> CompletableFuture.runAsync(() -> {
+                    long previous = 0;
+                    for (int i = 0; i < 20_000; i++) {
+                        long id = generator.nextId();
+                        // 한 스레드 안에서도 항상 증가해야 한다
+                        assertThat(id).isGreaterThan(previous);
+                        previous = id;
+                        ids.add(id);
+                    }
+                }, executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(workers).get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertThat(ids).hasSize(8 * 20_000);
+    }
+
+    @Test
+    void lowestIdAt_ShouldBoundIdsGeneratedFromThatTime() {
+        // Given
+        TsidGenerator generator = new TsidGenerator(TsidGenerator.MAX_WORKER_ID, EPOCH, clock::get);
+        long before = generator.nextId();
+        clock.addAndGet(1);
+        long after = generator.nextId();
+
+        // When
+        long floor = generator.lowestIdAt(Instant.ofEpochMilli(NOW + 1));
+
+        // Then
+        assertThat(before).isLessThan(floor);
+        assertThat(after).isGreaterThanOrEqualTo(floor);
+        assertThat(generator.lowestIdAt(EPOCH.minusSeconds(1))).isZero();
+    }
+
+    @Test
+    void constructor_ShouldRejectWorkerIdOutOfRange() {
+        assertThatThrownBy(() -> new TsidGenerator(TsidGenerator.MAX_WORKER_ID + 1, EPOCH))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TsidGenerator(-1, EPOCH))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package com.guidely.chatorchestra.idempotency;
+
+import com.guidely.chatorchestra.config.IdempotencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for IdempotencyStore
+ */
+class IdempotencyStoreTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotencyStore(new IdempotencyProperties(), meterRegistry);
+    }
+
+    @Test
+    void execute_ShouldReturnFirstResultForRepeatedKey() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String first = store.execute("message:1", "key-1", () -> "reply-" + calls.incrementAndGet());
+        String retry = store.execute("message:1", "key-1", () -> "reply-" + calls.incrementAndGet());
+        String otherScope = store.execute("message:2", "key-1", () -> "reply-" + calls.incrementAndGet());
+
+        // Then
+        assertThat(first).isEqualTo("reply-1");
+        assertThat(retry).isEqualTo("reply-1");
+        assertThat(otherScope).isEqualTo("reply-2");
+        assertThat(meterRegistry.get("chat.idempotency.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("chat.idempotency.requests").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_ShouldForgetFailedAttempt() {
+        // Given
+        assertThatThrownBy(() -> store.execute("conversation", "key-2", () -> {
+            throw new IllegalStateException("database unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // When
+        String retry = store.execute("conversation", "key-2", () -> "created");
+
+        // Then
+        assertThat(retry).isEqualTo("created");
+    }
+
+    @Test
+    void execute_ShouldMakeConcurrentRetryWaitForFirstAttempt() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> store.execute("message:1", "key-3", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "reply";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<String> retry = CompletableFuture.supplyAsync(
+                () -> store.execute("message:1", "key-3", () -> "reply-" + calls.incrementAndGet()));
+        release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("reply");
+        assertThat(retry.get(5, TimeUnit.SECONDS)).isEqualTo("reply");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void execute_ShouldRejectOverlongKey() {
+        // When / Then
+        assertThatThrownBy(() -> store.execute("conversation", "k".repeat(129), () -> "created"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
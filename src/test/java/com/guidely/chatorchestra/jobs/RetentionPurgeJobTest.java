@@ -0,0 +1,161 @@
+package com.guidely.chatorchestra.jobs;
+
+import com.guidely.chatorchestra.archive.ArchiveStore;
+import com.guidely.chatorchestra.cache.ConversationCache;
+import com.guidely.chatorchestra.config.ArchiveProperties;
+import com.guidely.chatorchestra.config.RetentionProperties;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.JobCheckpointRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.search.MessageSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RetentionPurgeJob
+ */
+@ExtendWith(MockitoExtension.class)
+class RetentionPurgeJobTest {
+
+    @Mock
+    private ConversationJdbcRepository conversationJdbcRepository;
+
+    @Mock
+    private MessageJdbcRepository messageJdbcRepository;
+
+    @Mock
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Mock
+    private ConversationCache conversationCache;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @Mock
+    private MessageSearchIndex messageSearchIndex;
+
+    private final ArchiveProperties archiveProperties = new ArchiveProperties();
+    private SimpleMeterRegistry meterRegistry;
+    private RetentionPurgeJob job;
+
+    @BeforeEach
+    void setUp() {
+        RetentionProperties properties = new RetentionProperties();
+        properties.setEnabled(true);
+        properties.setConversationBatchSize(2);
+        properties.setDeleteBatchSize(3);
+        properties.setDutyCycle(1.0);
+        properties.setMaxRowsPerSecond(0);
+        meterRegistry = new SimpleMeterRegistry();
+        job = new RetentionPurgeJob(properties, archiveProperties, conversationJdbcRepository, messageJdbcRepository,
+                jobCheckpointRepository, conversationCache, archiveStore, messageSearchIndex, meterRegistry);
+    }
+
+    @Test
+    void purge_ShouldDeleteMessagesInBatchesAndCheckpoint() throws InterruptedException {
+        // Given
+        List<Long> expired = List.of(6L, 7L);
+        when(jobCheckpointRepository.find(RetentionPurgeJob.JOB_NAME)).thenReturn(Optional.of(5L));
+        when(conversationJdbcRepository.findEndedIdsAfter(eq(5L), any(), eq(2))).thenReturn(expired);
+        when(conversationJdbcRepository.findEndedIdsAfter(eq(7L), any(), eq(2))).thenReturn(List.of());
+        when(messageJdbcRepository.deleteBatchByConversations(expired, 3))
+                .thenReturn(List.of(60L, 61L, 62L), List.of(63L, 70L, 71L), List.of(72L));
+        when(conversationJdbcRepository.deleteEnded(eq(expired), any())).thenReturn(2);
+
+        // When
+        job.purge();
+
+        // Then
+        InOrder order = inOrder(messageJdbcRepository, conversationJdbcRepository, jobCheckpointRepository);
+        order.verify(messageJdbcRepository, times(3)).deleteBatchByConversations(expired, 3);
+        order.verify(conversationJdbcRepository).deleteEnded(eq(expired), any());
+        order.verify(jobCheckpointRepository).save(RetentionPurgeJob.JOB_NAME, 7L);
+        order.verify(jobCheckpointRepository).save(RetentionPurgeJob.JOB_NAME, 0L);
+        verify(conversationCache).evict(6L);
+        verify(conversationCache).evict(7L);
+        verify(messageSearchIndex).delete(List.of(60L, 61L, 62L));
+        verify(messageSearchIndex).delete(List.of(72L));
+        assertThat(meterRegistry.get("chat.retention.deleted").tag("table", "messages").counter().count())
+                .isEqualTo(7);
+        assertThat(meterRegistry.get("chat.retention.deleted").tag("table", "conversations").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void purge_ShouldStartFromBeginningWithoutCheckpoint() throws InterruptedException {
+        // Given
+        when(jobCheckpointRepository.find(RetentionPurgeJob.JOB_NAME)).thenReturn(Optional.empty());
+        when(conversationJdbcRepository.findEndedIdsAfter(eq(0L), any(), eq(2))).thenReturn(List.of());
+
+        // When
+        job.purge();
+
+        // Then
+        verify(messageJdbcRepository, never()).deleteBatchByConversations(any(), anyInt());
+        verify(conversationJdbcRepository, never()).deleteEnded(any(), any());
+        verify(jobCheckpointRepository).save(RetentionPurgeJob.JOB_NAME, 0L);
+    }
+
+    @Test
+    void purge_ShouldTombstoneAndCompactArchiveWhenArchiving() throws Exception {
+        // Given
+        archiveProperties.setEnabled(true);
+        when(jobCheckpointRepository.find(RetentionPurgeJob.JOB_NAME)).thenReturn(Optional.empty());
+        when(conversationJdbcRepository.findEndedIdsAfter(eq(0L), any(), eq(2))).thenReturn(List.of());
+        when(archiveStore.deleteEndedBefore(any())).thenReturn(4);
+
+        // When
+        job.purge();
+
+        // Then
+        InOrder order = inOrder(archiveStore);
+        order.verify(archiveStore).deleteEndedBefore(any(LocalDateTime.class));
+        order.verify(archiveStore).compact();
+        assertThat(meterRegistry.get("chat.retention.deleted").tag("table", "archive").counter().count())
+                .isEqualTo(4);
+    }
+
+    @Test
+    void purge_ShouldLeaveArchiveAloneWhenNotArchiving() throws Exception {
+        // Given
+        when(jobCheckpointRepository.find(RetentionPurgeJob.JOB_NAME)).thenReturn(Optional.empty());
+        when(conversationJdbcRepository.findEndedIdsAfter(eq(0L), any(), eq(2))).thenReturn(List.of());
+
+        // When
+        job.purge();
+
+        // Then
+        verify(archiveStore, never()).deleteEndedBefore(any());
+        verify(archiveStore, never()).compact();
+    }
+
+    @Test
+    void throttle_ShouldSleepForRemainderOfDutyCycle() {
+        // Given
+        DutyCycleThrottle throttle = new DutyCycleThrottle(0.2);
+
+        // When / Then
+        assertThat(throttle.sleepNanos(1_000_000L)).isCloseTo(4_000_000L, within(1L));
+    }
+}
@@ -0,0 +1,188 @@
+package com.guidely.chatorchestra.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidely.chatorchestra.cache.ConversationCache;
+import com.guidely.chatorchestra.config.JournalProperties;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository.AppendState;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.NewMessageRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for JournalDrainer against a real journal, with the database mocked at the repository boundary
+ */
+@ExtendWith(MockitoExtension.class)
+class JournalDrainerTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 10, 0);
+    // insertAll 목이 거절하는 본문 (열 길이 초과 같은 영구 오류 흉내)
+    private static final String POISON = "저장할 수 없는 본문";
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private MessageJdbcRepository messageJdbcRepository;
+
+    @Mock
+    private ConversationJdbcRepository conversationJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ConversationCache conversationCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MessageJournal journal;
+    private JournalDrainer drainer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JournalProperties properties = new JournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofMegabytes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        journal = new MessageJournal(properties, meterRegistry);
+        journal.open();
+        drainer = new JournalDrainer(properties, journal, messageJdbcRepository, conversationJdbcRepository,
+                transactionTemplate, conversationCache, eventPublisher, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(messageJdbcRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<NewMessageRow> rows = invocation.getArgument(0);
+            if (rows.stream().anyMatch(row -> row.getContent().equals(POISON))) {
+                throw new DataIntegrityViolationException("Data too long for column 'content'");
+            }
+            return LongStream.rangeClosed(1, rows.size()).boxed().toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        drainer.stop();
+        journal.close();
+    }
+
+    @Test
+    void drain_ShouldApplyEntryJournaledBeforeConversationEnded() throws Exception {
+        // Given: 저널에 쓴 뒤 반영 전에 대화가 종료됨
+        journal.append(1L, "user", "마지막 메시지", "key-1", CREATED_AT);
+        when(conversationJdbcRepository.lockForAppend(anyCollection())).thenReturn(Map.of(1L, AppendState.builder()
+                .id(1L)
+                .endedAt(CREATED_AT.plusSeconds(1))
+                .messageCount(4)
+                .build()));
+
+        // When
+        drainUntilEmpty();
+
+        // Then
+        List<NewMessageRow> rows = insertedRows();
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getContent()).isEqualTo("마지막 메시지");
+        assertThat(rows.get(0).getSeq()).isEqualTo(5L);
+        assertThat(meterRegistry.get("chat.journal.drained").tag("result", "applied").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void drain_ShouldDropEntryJournaledAfterConversationEnded() throws Exception {
+        // Given
+        journal.append(1L, "user", "종료 후 메시지", "key-1", CREATED_AT);
+        when(conversationJdbcRepository.lockForAppend(anyCollection())).thenReturn(Map.of(1L, AppendState.builder()
+                .id(1L)
+                .endedAt(CREATED_AT.minusSeconds(1))
+                .messageCount(4)
+                .build()));
+
+        // When
+        drainUntilEmpty();
+
+        // Then
+        assertThat(insertedRows()).isEmpty();
+        assertThat(meterRegistry.get("chat.journal.drained").tag("result", "rejected").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void drain_ShouldDeadLetterEntryTheDatabaseRejectsAndApplyTheRest() throws Exception {
+        // Given: 배치 안에 DB가 받지 않는 항목이 하나 있음
+        journal.append(1L, "user", "앞 메시지", "key-1", CREATED_AT);
+        journal.append(1L, "user", POISON, "key-2", CREATED_AT);
+        journal.append(1L, "user", "뒤 메시지", "key-3", CREATED_AT);
+        when(conversationJdbcRepository.lockForAppend(anyCollection())).thenReturn(Map.of(1L, AppendState.builder()
+                .id(1L)
+                .messageCount(0)
+                .build()));
+
+        // When
+        drainUntilEmpty();
+
+        // Then
+        assertThat(meterRegistry.get("chat.journal.drained").tag("result", "applied").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("chat.journal.drained").tag("result", "dead_lettered").counter().count())
+                .isEqualTo(1);
+        assertThat(Files.readAllLines(directory.resolve("dead-letter.ndjson")))
+                .singleElement()
+                .asString()
+                .contains(POISON, "key-2");
+        assertThat(journal.awaitDrained(1L)).isTrue();
+    }
+
+    private void drainUntilEmpty() throws InterruptedException {
+        drainer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (journal.depth() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(journal.depth()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<NewMessageRow> insertedRows() {
+        ArgumentCaptor<List<NewMessageRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(messageJdbcRepository, atLeastOnce()).insertAll(captor.capture());
+        List<NewMessageRow> rows = new ArrayList<>();
+        captor.getAllValues().forEach(rows::addAll);
+        return rows;
+    }
+}
@@ -0,0 +1,207 @@
+package com.guidely.chatorchestra.journal;
+
+import com.guidely.chatorchestra.config.JournalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for MessageJournal
+ */
+class MessageJournalTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 9, 0, 0, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    private MessageJournal journal;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void append_ShouldBeReadableOnceDurable() throws Exception {
+        // Given
+        journal = open(DataSize.ofMegabytes(1));
+
+        // When
+        journal.append(1L, "user", "모네의 수련 연작은 언제 그려졌나요?", "key-1", CREATED_AT);
+        journal.append(1L, "assistant", "1890년대 후반부터 1926년까지입니다.", "key-2", CREATED_AT);
+        List<JournalEntry> entries = journal.peek(10);
+
+        // Then
+        assertThat(entries).extracting(JournalEntry::getLsn).containsExactly(1L, 2L);
+        assertThat(entries.get(0).getConversationId()).isEqualTo(1L);
+        assertThat(entries.get(0).getSpeaker()).isEqualTo("user");
+        assertThat(entries.get(0).getContent()).isEqualTo("모네의 수련 연작은 언제 그려졌나요?");
+        assertThat(entries.get(0).getIdempotencyKey()).isEqualTo("key-1");
+        assertThat(entries.get(0).getCreatedAt()).isEqualTo(CREATED_AT);
+        assertThat(journal.depth()).isEqualTo(2);
+    }
+
+    @Test
+    void release_ShouldAdvancePastPeekedEntries() throws Exception {
+        // Given
+        journal = open(DataSize.ofMegabytes(1));
+        for (int i = 1; i <= 3; i++) {
+            journal.append(1L, "user", "message " + i, "key-" + i, CREATED_AT);
+        }
+
+        // When
+        List<JournalEntry> first = journal.peek(2);
+        List<JournalEntry> again = journal.peek(2);
+        journal.release();
+        List<JournalEntry> rest = journal.peek(10);
+
+        // Then
+        assertThat(again).isEqualTo(first);
+        assertThat(rest).extracting(JournalEntry::getLsn).containsExactly(3L);
+        assertThat(journal.depth()).isEqualTo(1);
+    }
+
+    @Test
+    void release_ShouldDeleteDrainedSegments() throws Exception {
+        // Given
+        journal = open(DataSize.ofBytes(256));
+        for (int i = 1; i <= 10; i++) {
+            journal.append(1L, "user", "message " + i, "key-" + i, CREATED_AT);
+        }
+        assertThat(segmentFiles()).hasSizeGreaterThan(2);
+
+        // When
+        List<JournalEntry> entries = journal.peek(100);
+        journal.release();
+
+        // Then
+        assertThat(entries).hasSize(10);
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(journal.depth()).isZero();
+    }
+
+    @Test
+    void open_ShouldReplayEntriesAndContinueLsn() throws Exception {
+        // Given
+        journal = open(DataSize.ofMegabytes(1));
+        journal.append(1L, "user", "first", "key-1", CREATED_AT);
+        journal.append(2L, "user", "second", "key-2", CREATED_AT);
+        journal.close();
+
+        // When
+        journal = open(DataSize.ofMegabytes(1));
+        JournalEntry appended = journal.append(1L, "assistant", "third", "key-3", CREATED_AT);
+
+        // Then
+        assertThat(journal.peek(10)).extracting(JournalEntry::getContent).containsExactly("first", "second", "third");
+        assertThat(appended.getLsn()).isEqualTo(3L);
+    }
+
+    @Test
+    void open_ShouldStopAtTornRecord() throws Exception {
+        // Given
+        journal = open(DataSize.ofMegabytes(1));
+        journal.append(1L, "user", "kept", "key-1", CREATED_AT);
+        journal.append(1L, "user", "torn", "key-2", CREATED_AT);
+        journal.close();
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 두 번째 레코드 본문의 마지막 바이트를 망가뜨려 CRC 검사에 실패하게 한다
+            ByteBuffer header = ByteBuffer.allocate(12);
+            channel.read(header, 0);
+            long second = 12 + header.getInt(4);
+            header.clear();
+            channel.read(header, second);
+            long lastByte = second + 12 + header.getInt(4) - 1;
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), lastByte);
+        }
+
+        // When
+        journal = open(DataSize.ofMegabytes(1));
+
+        // Then
+        assertThat(journal.peek(10)).extracting(JournalEntry::getContent).containsExactly("kept");
+    }
+
+    @Test
+    void append_ShouldOrderConcurrentWriters() throws Exception {
+        // Given
+        journal = open(DataSize.ofMegabytes(4));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        CompletableFuture<?>[] writers = new CompletableFuture<?>[8];
+        for (int t = 0; t < writers.length; t++) {
+            int writer = t;
+            writers[t] = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 50; i++) {
+                    try {
+                        journal.append((long) writer, "user", "message " + i, writer + "-" + i, CREATED_AT);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(writers).get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        List<JournalEntry> entries = journal.peek(1_000);
+        assertThat(entries).hasSize(400);
+        assertThat(entries).extracting(JournalEntry::getLsn).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void awaitDrained_ShouldWaitOnlyForTheConversationsEntries() throws Exception {
+        // Given
+        journal = open(DataSize.ofMegabytes(1));
+        journal.append(1L, "user", "first", "key-1", CREATED_AT);
+
+        // When & Then
+        assertThat(journal.awaitDrained(2L)).isTrue();
+        assertThat(journal.awaitDrained(1L)).isFalse();
+        journal.peek(10);
+        journal.release();
+        assertThat(journal.awaitDrained(1L)).isTrue();
+    }
+
+    private MessageJournal open(DataSize segmentSize) throws IOException {
+        JournalProperties properties = new JournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setSegmentSize(segmentSize);
+        properties.setEndDrainTimeout(Duration.ofMillis(100));
+        MessageJournal messageJournal = new MessageJournal(properties, new SimpleMeterRegistry());
+        messageJournal.open();
+        return messageJournal;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
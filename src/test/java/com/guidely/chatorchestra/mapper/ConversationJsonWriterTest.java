@@ -0,0 +1,156 @@
+package com.guidely.chatorchestra.mapper;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.guidely.chatorchestra.dto.ResponseEnvelope;
+import com.guidely.chatorchestra.dto.StreamingEnvelope;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import com.guidely.chatorchestra.model.enums.MessageRole;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository.StoredMessageRow;
+import com.guidely.chatorchestra.web.converter.StreamingEnvelopeHttpMessageConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConversationJsonWriter and StreamingEnvelopeHttpMessageConverter
+ */
+class ConversationJsonWriterTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2024-05-01T10:15:30.123Z");
+
+    // 애플리케이션 설정(spring.jackson.*)과 같은 ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final StreamingEnvelopeHttpMessageConverter converter =
+            new StreamingEnvelopeHttpMessageConverter(objectMapper, new SimpleMeterRegistry());
+
+    @Test
+    void streamedRows_ShouldMatchJacksonEnvelope() throws Exception {
+        // Given
+        List<StoredMessageRow> rows = LongStream.rangeClosed(1, 3)
+                .mapToObj(seq -> StoredMessageRow.builder()
+                        .id(1_000 + seq)
+                        .conversationId(7L)
+                        .seq(seq)
+                        .speaker(seq % 2 == 1 ? "user" : "assistant")
+                        .content("모네의 \"수련\" 연작에 대해 알려주세요\n" + seq)
+                        .createdAt(LocalDateTime.of(2024, 5, 1, 10, 0, 0, 120_000_000).plusSeconds(seq))
+                        .build())
+                .toList();
+        GetConversationResponse expected = GetConversationResponse.builder()
+                .sessionId(7L)
+                .status("ACTIVE")
+                .messages(rows.stream().map(ConversationJsonWriterTest::toDto).toList())
+                .total(10)
+                .nextCursor(1_003L)
+                .prevCursor(1_001L)
+                .hasMore(true)
+                .build();
+
+        // When
+        String body = write(generator -> {
+            ConversationJsonWriter.writeStart(generator, 7L, "ACTIVE");
+            for (StoredMessageRow row : rows) {
+                ConversationJsonWriter.writeMessage(generator, row);
+            }
+            ConversationJsonWriter.writeEnd(generator, 10, 1_003L, 1_001L, true);
+        });
+
+        // Then
+        assertThat(body).isEqualTo(jackson(expected));
+    }
+
+    @Test
+    void emptyPage_ShouldOmitNullCursorsLikeJackson() throws Exception {
+        // Given
+        GetConversationResponse expected = GetConversationResponse.builder()
+                .sessionId(7L)
+                .status("ACTIVE")
+                .messages(List.of())
+                .total(0)
+                .hasMore(false)
+                .build();
+
+        // When
+        String body = write(generator -> {
+            ConversationJsonWriter.writeStart(generator, 7L, "ACTIVE");
+            ConversationJsonWriter.writeEnd(generator, 0, null, null, false);
+        });
+
+        // Then
+        assertThat(body).isEqualTo(jackson(expected));
+    }
+
+    @Test
+    void messageDtos_ShouldMatchJacksonEnvelope() throws Exception {
+        // Given
+        MessageDto message = MessageDto.builder()
+                .messageId(42L)
+                .seq(1L)
+                .role(MessageRole.ASSISTANT)
+                .content("안녕하세요")
+                .createdAt(Instant.parse("2024-05-01T10:00:00Z"))
+                .build();
+        GetConversationResponse expected = GetConversationResponse.builder()
+                .sessionId(7L)
+                .status("ACTIVE")
+                .messages(List.of(message))
+                .total(1)
+                .nextCursor(42L)
+                .prevCursor(42L)
+                .hasMore(false)
+                .build();
+
+        // When
+        String body = write(generator -> {
+            ConversationJsonWriter.writeStart(generator, 7L, "ACTIVE");
+            ConversationJsonWriter.writeMessage(generator, message);
+            ConversationJsonWriter.writeEnd(generator, 1, 42L, 42L, false);
+        });
+
+        // Then
+        assertThat(body).isEqualTo(jackson(expected));
+    }
+
+    private String write(StreamingEnvelope.DataWriter data) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(StreamingEnvelope.success(data, TIMESTAMP), null, output);
+        assertThat(output.getHeaders().getContentType()).hasToString("application/json");
+        return output.getBodyAsString(StandardCharsets.UTF_8);
+    }
+
+    private String jackson(GetConversationResponse response) throws Exception {
+        return objectMapper.writeValueAsString(ResponseEnvelope.<GetConversationResponse>builder()
+                .success(true)
+                .data(response)
+                .timestamp(TIMESTAMP)
+                .build());
+    }
+
+    private static MessageDto toDto(StoredMessageRow row) {
+        return MessageDto.builder()
+                .messageId(row.getId())
+                .seq(row.getSeq())
+                .role(MessageMapper.toRole(row.getSpeaker()))
+                .content(row.getContent())
+                .createdAt(MessageMapper.toInstant(row.getCreatedAt()))
+                .build();
+    }
+}
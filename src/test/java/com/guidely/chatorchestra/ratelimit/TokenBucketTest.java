@@ -0,0 +1,80 @@
+package com.guidely.chatorchestra.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TokenBucket
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReportWait() {
+        // Given
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        // When
+        long first = bucket.tryAcquire(now);
+        long second = bucket.tryAcquire(now);
+        long third = bucket.tryAcquire(now);
+        long fourth = bucket.tryAcquire(now);
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isZero();
+        assertThat(fourth).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillAtConfiguredRate() {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        assertThat(bucket.tryAcquire(0)).isZero();
+
+        // When
+        long tooEarly = bucket.tryAcquire(SECOND / 20);
+        long onTime = bucket.tryAcquire(SECOND / 10);
+
+        // Then
+        assertThat(tooEarly).isEqualTo(SECOND / 20);
+        assertThat(onTime).isZero();
+    }
+
+    @Test
+    void tryAcquire_ShouldNeverGrantMoreThanBurstUnderContention() throws Exception {
+        // Given
+        TokenBucket bucket = new TokenBucket(1, 50, 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        try {
+            CompletableFuture<?>[] tasks = new CompletableFuture<?>[8];
+            for (int t = 0; t < tasks.length; t++) {
+                tasks[t] = CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(tasks).get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(granted).hasValue(50);
+    }
+}
@@ -0,0 +1,227 @@
+package com.guidely.chatorchestra.repository;
+
+import com.guidely.chatorchestra.compression.MessageContentCodec;
+import com.guidely.chatorchestra.config.CompressionProperties;
+import com.guidely.chatorchestra.config.IdConfig;
+import com.guidely.chatorchestra.config.IdProperties;
+import com.guidely.chatorchestra.model.Conversation;
+import com.guidely.chatorchestra.model.Message;
+import com.guidely.chatorchestra.model.MessageContentListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository.AppendState;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the aggregate-loading append path against the path ConversationService ships: lock the
+ * conversation row with a JDBC projection, insert the message, bump the counters. Both keep the
+ * same invariants (row lock, gap-free seq, counters). Statements are counted at the JDBC connection,
+ * so the repository's JdbcTemplate calls are included. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({AppendPathBenchmarkTest.MetricsConfig.class, IdConfig.class, MessageContentCodec.class, MessageContentListener.class,
+        ConversationJdbcRepository.class})
+class AppendPathBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2_000;
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationJdbcRepository conversationJdbcRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Long conversationId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        conversationId = conversationRepository.saveAndFlush(Conversation.builder().build()).getId();
+        // 기존 대화에 메시지가 쌓여 있는 상황을 가정
+        for (int i = 0; i < 100; i++) {
+            appendShipped();
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void shippedPath_ShouldNotHydrateTheConversation() {
+        // Given
+        Result legacy = measure("find(lock) + addMessage + cascade", this::appendViaAggregate);
+        Result shipped = measure("lockForAppend + insert + counters", this::appendShipped);
+
+        // Then
+        System.out.printf("%-36s %12s %15s %15s%n", "path", "stmts/append", "entities/append", "avg latency(us)");
+        System.out.println(legacy);
+        System.out.println(shipped);
+        assertThat(legacy.entitiesPerAppend).isGreaterThanOrEqualTo(1);
+        assertThat(shipped.entitiesPerAppend).isZero();
+        assertThat(shipped.avgMicros).isLessThan(legacy.avgMicros);
+        // 행 잠금, 순번, 카운터를 같이 지키면 두 경로 모두 SELECT + INSERT + UPDATE 3문장이다
+        assertThat(shipped.statementsPerAppend).isLessThanOrEqualTo(legacy.statementsPerAppend);
+    }
+
+    private Result measure(String name, Runnable append) {
+        for (int i = 0; i < WARMUP; i++) {
+            append.run();
+        }
+        statistics.clear();
+        long statementsBefore = STATEMENTS.get();
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            append.run();
+        }
+        long elapsed = System.nanoTime() - started;
+        return new Result(name,
+                (double) (STATEMENTS.get() - statementsBefore) / ITERATIONS,
+                (double) statistics.getEntityLoadCount() / ITERATIONS,
+                elapsed / 1_000.0 / ITERATIONS);
+    }
+
+    /**
+     * 변경 전 방식: 대화 엔티티를 잠가 로드하고 컬렉션에 추가해 cascade(merge)로 저장
+     */
+    private void appendViaAggregate() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Conversation conversation = entityManager.find(Conversation.class, conversationId,
+                    LockModeType.PESSIMISTIC_WRITE);
+            if (conversation == null) {
+                throw new NoSuchElementException();
+            }
+            assertThat(conversation.getEndedAt()).isNull();
+            Message message = message(conversation.getMessageCount() + 1);
+            conversation.addMessage(message);
+            // flush 시 cascade가 새 메시지를 저장한다 (merge는 사본을 저장해 id를 알 수 없으므로 쓰지 않음)
+            entityManager.flush();
+            // 카운터 컬럼은 엔티티로 갱신하지 않으므로 이 경로도 같은 UPDATE가 필요하다
+            conversationJdbcRepository.incrementMessageCounters(conversationId, message.getId(), message.getCreatedAt());
+        });
+        entityManager.clear();
+    }
+
+    /**
+     * ConversationService가 쓰는 방식: 잠금 조회는 프로젝션으로, 메시지 행만 INSERT하고 카운터는 SQL로 올린다
+     */
+    private void appendShipped() {
+        transactionTemplate.executeWithoutResult(status -> {
+            AppendState state = conversationJdbcRepository.lockForAppend(conversationId)
+                    .orElseThrow(NoSuchElementException::new);
+            assertThat(state.isEnded()).isFalse();
+            Message message = message(state.nextSeq());
+            message.setConversation(conversationRepository.getReferenceById(conversationId));
+            Long savedId = messageRepository.save(message).getId();
+            conversationJdbcRepository.incrementMessageCounters(conversationId, savedId, message.getCreatedAt());
+            entityManager.flush();
+        });
+        entityManager.clear();
+    }
+
+    private Message message(long seq) {
+        return Message.builder()
+                .seq(seq)
+                .speaker("user")
+                .content("이 그림은 누가 그렸나요?")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties({CompressionProperties.class, IdProperties.class})
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        /**
+         * JPA와 JdbcTemplate이 같은 DataSource를 쓰므로 커넥션에서 문장 준비 횟수를 센다
+         */
+        @Bean
+        static BeanPostProcessor statementCountingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return counting(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("prepareCall")
+                                || name.equals("createStatement")) {
+                            STATEMENTS.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    private record Result(String name, double statementsPerAppend, double entitiesPerAppend, double avgMicros) {
+        @Override
+        public String toString() {
+            return String.format("%-36s %12.2f %15.2f %15.1f", name, statementsPerAppend, entitiesPerAppend, avgMicros);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.guidely.chatorchestra.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for HangulBigramTokenizer
+ */
+class HangulBigramTokenizerTest {
+
+    @Test
+    void terms_ShouldSplitHangulIntoSyllableBigrams() {
+        // When
+        Set<String> terms = HangulBigramTokenizer.terms("모네의 수련");
+
+        // Then
+        assertThat(terms).containsExactly("모네", "네의", "수련");
+    }
+
+    @Test
+    void terms_ShouldMatchWordRegardlessOfAttachedParticle() {
+        // Given
+        Set<String> document = HangulBigramTokenizer.terms("이 그림은 모네가 그렸나요?");
+
+        // When
+        Set<String> query = HangulBigramTokenizer.terms("모네");
+
+        // Then
+        assertThat(document).containsAll(query);
+    }
+
+    @Test
+    void terms_ShouldLowerCaseLatinWordsAndSeparateThemFromHangul() {
+        // When
+        Set<String> terms = HangulBigramTokenizer.terms("Monet작품 iPhone15, 3D");
+
+        // Then
+        assertThat(terms).containsExactly("monet", "작품", "iphone15", "3d");
+    }
+
+    @Test
+    void terms_ShouldKeepSingleSyllableWordsAndIgnorePunctuation() {
+        // When / Then
+        assertThat(HangulBigramTokenizer.terms("꽃 !!! ...")).containsExactly("꽃");
+        assertThat(HangulBigramTokenizer.terms("  ?! ")).isEmpty();
+        assertThat(HangulBigramTokenizer.terms(null)).isEmpty();
+    }
+}
@@ -0,0 +1,90 @@
+package com.guidely.chatorchestra.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for IndexSegment and PostingCodec
+ */
+class IndexSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_ShouldRoundTripTermsAndPostings() throws IOException {
+        // Given
+        SortedMap<String, long[]> terms = new TreeMap<>();
+        terms.put("모네", new long[]{3, 4, 1_000_000_000_000L});
+        terms.put("monet", new long[]{7});
+        Path file = directory.resolve("segment-0000000000.seg");
+
+        // When
+        IndexSegment.write(file, terms, 1_000_000_000_000L, 3);
+        IndexSegment segment = IndexSegment.read(file);
+
+        // Then
+        assertThat(segment.postings("모네")).containsExactly(3, 4, 1_000_000_000_000L);
+        assertThat(segment.postings("monet")).containsExactly(7);
+        assertThat(segment.postings("없음")).isEmpty();
+        assertThat(segment.indexedThroughId()).isEqualTo(1_000_000_000_000L);
+        assertThat(segment.messageCount()).isEqualTo(3);
+    }
+
+    @Test
+    void postings_ShouldFindEveryTermOfALargeDictionary() throws IOException {
+        // Given
+        SortedMap<String, long[]> terms = new TreeMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            terms.put("수련" + i, new long[]{i, i + 1_000L});
+        }
+        Path file = directory.resolve("segment-0000000002.seg");
+
+        // When
+        IndexSegment segment = IndexSegment.write(file, terms, 2_000, 2_000);
+
+        // Then
+        for (Map.Entry<String, long[]> entry : terms.entrySet()) {
+            assertThat(segment.postings(entry.getKey())).containsExactly(entry.getValue());
+        }
+        assertThat(segment.postings("수련")).isEmpty();
+        assertThat(segment.postings("수련999a")).isEmpty();
+        assertThat(segment.terms()).containsExactlyElementsOf(terms.keySet());
+        assertThat(segment.termCount()).isEqualTo(1_000);
+        assertThat(segment.sizeInBytes()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void read_ShouldRejectCorruptSegment() throws IOException {
+        // Given
+        SortedMap<String, long[]> terms = new TreeMap<>();
+        terms.put("수련", new long[]{1, 2, 3});
+        Path file = directory.resolve("segment-0000000001.seg");
+        IndexSegment.write(file, terms, 3, 3);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+
+        // When / Then
+        assertThatThrownBy(() -> IndexSegment.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Checksum");
+    }
+
+    @Test
+    void unionAndIntersect_ShouldMergeSortedPostings() {
+        // When / Then
+        assertThat(PostingCodec.union(new long[]{1, 3, 5}, new long[]{2, 3, 6})).containsExactly(1, 2, 3, 5, 6);
+        assertThat(PostingCodec.intersect(new long[]{1, 3, 5, 7}, new long[]{3, 4, 7})).containsExactly(3, 7);
+    }
+}
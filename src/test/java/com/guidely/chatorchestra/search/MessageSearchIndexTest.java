@@ -0,0 +1,141 @@
+package com.guidely.chatorchestra.search;
+
+import com.guidely.chatorchestra.config.SearchProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse;
+import com.guidely.chatorchestra.event.MessageAppendedEvent;
+import com.guidely.chatorchestra.id.IdGenerator;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for MessageSearchIndex
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageSearchIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private MessageJdbcRepository messageJdbcRepository;
+
+    @Mock
+    private IdGenerator idGenerator;
+
+    @Mock
+    private AsyncTaskExecutor taskExecutor;
+
+    private SearchProperties properties;
+    private MessageSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new SearchProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setMaxSegments(1);
+        index = start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        index.stop();
+    }
+
+    @Test
+    void flush_ShouldStampHighestIdInTheBuffer() throws IOException {
+        // Given
+        append(5, "모네의 수련");
+        append(9, "모네의 정원");
+
+        // When
+        index.flush();
+
+        // Then
+        assertThat(IndexSegment.read(single(segmentFiles())).indexedThroughId()).isEqualTo(9);
+    }
+
+    @Test
+    void merge_ShouldDropTombstonedMessages() throws Exception {
+        // Given
+        append(1, "모네의 수련");
+        append(2, "모네의 정원");
+        index.flush();
+        index.delete(List.of(1L));
+        append(3, "모네");
+
+        // When: 세그먼트가 maxSegments를 넘어 병합된다
+        index.flush();
+
+        // Then
+        assertThat(index.candidates(Set.of("모네"))).containsExactly(2, 3);
+        assertThat(index.candidates(Set.of("수련"))).isEmpty();
+        IndexSegment merged = IndexSegment.read(single(segmentFiles()));
+        assertThat(merged.messageCount()).isEqualTo(2);
+        assertThat(merged.terms()).doesNotContain("수련");
+        assertThat(directory.resolve("tombstones.del")).doesNotExist();
+    }
+
+    @Test
+    void delete_ShouldSurviveRestartUntilMerged() throws Exception {
+        // Given
+        append(1, "모네의 수련");
+        append(2, "모네의 정원");
+        index.flush();
+        index.delete(List.of(1L));
+        index.stop();
+
+        // When
+        index = start();
+        append(3, "모네");
+        index.flush();
+
+        // Then
+        assertThat(index.candidates(Set.of("모네"))).containsExactly(2, 3);
+    }
+
+    private MessageSearchIndex start() throws Exception {
+        MessageSearchIndex started = new MessageSearchIndex(properties, messageJdbcRepository, idGenerator,
+                taskExecutor, new SimpleMeterRegistry());
+        started.start();
+        while (!started.isReady()) {
+            Thread.sleep(5);
+        }
+        return started;
+    }
+
+    private void append(long messageId, String content) {
+        index.onMessageAppended(new MessageAppendedEvent(1L, GetConversationResponse.MessageDto.builder()
+                .messageId(messageId)
+                .content(content)
+                .build()));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).toList();
+        }
+    }
+
+    private static Path single(List<Path> files) {
+        assertThat(files).hasSize(1);
+        return files.get(0);
+    }
+}
@@ -1,24 +1,58 @@
 package com.guidely.chatorchestra.service;
 
+import com.guidely.chatorchestra.archive.ArchiveStore;
+import com.guidely.chatorchestra.cache.CachedConversation;
+import com.guidely.chatorchestra.cache.ConversationCache;
+import com.guidely.chatorchestra.compression.MessageContentCodec;
+import com.guidely.chatorchestra.config.EventsProperties;
+import com.guidely.chatorchestra.config.HistoryProperties;
+import com.guidely.chatorchestra.config.ListingProperties;
+import com.guidely.chatorchestra.dto.conversation.GetConversationResponse.MessageDto;
+import com.guidely.chatorchestra.dto.conversation.PostMessageResponse;
+import com.guidely.chatorchestra.event.ConversationEndedEvent;
+import com.guidely.chatorchestra.event.ConversationEventHub;
+import com.guidely.chatorchestra.event.MessageAppendedEvent;
+import com.guidely.chatorchestra.exception.ServiceOverloadedException;
+import com.guidely.chatorchestra.idempotency.IdempotencyStore;
+import com.guidely.chatorchestra.journal.MessageJournal;
+import com.guidely.chatorchestra.metrics.ConversationMetrics;
 import com.guidely.chatorchestra.model.Conversation;
 import com.guidely.chatorchestra.model.Message;
-import com.guidely.chatorchestra.model.enums.ConversationStatus;
 import com.guidely.chatorchestra.model.enums.MessageRole;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository.AppendState;
+import com.guidely.chatorchestra.repository.ConversationQueryRepository;
 import com.guidely.chatorchestra.repository.ConversationRepository;
+import com.guidely.chatorchestra.repository.ConversationVersionState;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -30,97 +64,252 @@ class ConversationServiceTest {
     @Mock
     private ConversationRepository conversationRepository;
 
+    @Mock
+    private ConversationJdbcRepository conversationJdbcRepository;
+
+    @Mock
+    private ConversationQueryRepository conversationQueryRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private MessageJdbcRepository messageJdbcRepository;
+
+    @Mock
+    private MessageIngestionPipeline messageIngestionPipeline;
+
+    @Mock
+    private MessageJournal messageJournal;
+
+    @Mock
+    private ConversationWriteLocks conversationWriteLocks;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ConversationCache conversationCache;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private ConversationEventHub conversationEventHub;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ConversationMetrics conversationMetrics;
+
+    @Mock
+    private MessageContentCodec messageContentCodec;
+
     private ConversationService conversationService;
 
     @BeforeEach
     void setUp() {
-        conversationService = new ConversationService(conversationRepository);
+        conversationService = new ConversationService(conversationRepository, conversationJdbcRepository,
+                conversationQueryRepository, messageRepository, messageJdbcRepository, new HistoryProperties(),
+                new ListingProperties(), new EventsProperties(), messageIngestionPipeline, messageJournal,
+                conversationWriteLocks, transactionTemplate, conversationCache, archiveStore, idempotencyStore,
+                conversationEventHub, eventPublisher, conversationMetrics, messageContentCodec);
     }
 
     @Test
     void startSession_ShouldCreateNewConversation() {
         // Given
-        String userId = "test-user";
-        Conversation savedConversation = Conversation.builder()
-                .sessionId(UUID.randomUUID())
-                .userId(userId)
-                .status(ConversationStatus.STARTED)
-                .startedAt(Instant.now())
-                .build();
-
-        when(conversationRepository.save(any(Conversation.class))).thenReturn(savedConversation);
+        LocalDateTime startedAt = LocalDateTime.of(2024, 5, 1, 10, 0);
+        runTransactionsInline();
+        when(conversationRepository.save(any(Conversation.class))).thenAnswer(invocation -> {
+            Conversation conversation = invocation.getArgument(0);
+            conversation.setId(1L);
+            conversation.setStartedAt(startedAt);
+            return conversation;
+        });
 
         // When
-        Conversation result = conversationService.startSession(userId, null);
+        Conversation result = conversationService.startSession(null);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getUserId()).isEqualTo(userId);
-        assertThat(result.getStatus()).isEqualTo(ConversationStatus.STARTED);
-        assertThat(result.getStartedAt()).isNotNull();
+        assertThat(result.getId()).isEqualTo(1L);
+        assertThat(result.getStartedAt()).isEqualTo(startedAt);
+        verify(conversationCache).putNew(1L, startedAt);
     }
 
     @Test
-    void appendMessage_ShouldAddMessageToConversation() {
+    void appendMessage_ShouldAssignNextSeqAndPublish() {
         // Given
-        UUID sessionId = UUID.randomUUID();
-        Conversation conversation = Conversation.builder()
-                .sessionId(sessionId)
-                .userId("test-user")
-                .status(ConversationStatus.STARTED)
-                .startedAt(Instant.now())
-                .build();
-
-        when(conversationRepository.findById(sessionId)).thenReturn(Optional.of(conversation));
-        when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
+        runTransactionsInline();
+        runWriteLocksInline();
+        when(conversationJdbcRepository.lockForAppend(1L)).thenReturn(Optional.of(AppendState.builder()
+                .id(1L)
+                .messageCount(2)
+                .build()));
+        when(conversationRepository.getReferenceById(1L)).thenReturn(Conversation.builder().id(1L).build());
+        when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            message.setId(10L);
+            return message;
+        });
 
         // When
-        var result = conversationService.appendMessage(sessionId, MessageRole.USER, "Hello", null);
+        PostMessageResponse result = conversationService.appendMessage(1L, "user", "Hello", "preview", null);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getSessionId()).isEqualTo(sessionId);
+        assertThat(result.getMessageId()).isEqualTo(10L);
+        assertThat(result.getSeq()).isEqualTo(3L);
         assertThat(result.getRole()).isEqualTo(MessageRole.USER);
-        assertThat(result.getContent()).isEqualTo("Hello");
-        assertThat(result.getAssistantPreview()).isEqualTo("This is a mock reply to: Hello");
+        assertThat(result.getAssistantPreview()).isEqualTo("preview");
+        verify(conversationJdbcRepository).incrementMessageCounters(eq(1L), eq(10L), any());
+        verify(conversationCache).appendMessage(eq(1L), any());
+        verify(eventPublisher).publishEvent(any(MessageAppendedEvent.class));
     }
 
     @Test
-    void appendMessage_ShouldThrowExceptionWhenConversationNotFound() {
+    void appendMessage_ShouldThrowExceptionWhenConversationEnded() {
         // Given
-        UUID sessionId = UUID.randomUUID();
-        when(conversationRepository.findById(sessionId)).thenReturn(Optional.empty());
+        runTransactionsInline();
+        runWriteLocksInline();
+        when(conversationJdbcRepository.lockForAppend(1L)).thenReturn(Optional.of(AppendState.builder()
+                .id(1L)
+                .endedAt(LocalDateTime.of(2024, 5, 1, 11, 0))
+                .messageCount(2)
+                .build()));
 
         // When & Then
-        assertThatThrownBy(() -> conversationService.appendMessage(sessionId, MessageRole.USER, "Hello", null))
-                .isInstanceOf(NoSuchElementException.class)
-                .hasMessage("Conversation not found: " + sessionId);
+        assertThatThrownBy(() -> conversationService.appendMessage(1L, "user", "Hello", null, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Conversation already ended: 1");
+        verify(messageRepository, never()).save(any());
+    }
+
+    @Test
+    void appendMessage_ShouldRejectUnstorableContentBeforeJournaling() throws Exception {
+        // Given
+        doThrow(new IllegalArgumentException("Content is too long: 70000 bytes"))
+                .when(messageContentCodec).requireStorable("too long");
+
+        // When & Then
+        assertThatThrownBy(() -> conversationService.appendMessage(1L, "user", "too long", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(messageJournal, never()).append(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getSession_ShouldRejectBothCursors() {
+        // When & Then
+        assertThatThrownBy(() -> conversationService.getSession(1L, 5L, 3L, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Only one of 'before' or 'after' can be specified");
+    }
+
+    @Test
+    void getSession_ShouldRejectLimitAboveMax() {
+        // When & Then
+        assertThatThrownBy(() -> conversationService.getSession(1L, null, null, 201))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("limit must be between 1 and 200");
+    }
+
+    @Test
+    void getSession_ShouldNotServeCachedEntryBehindTheDatabase() {
+        // Given: 이 노드의 캐시는 메시지 1개, DB에는 다른 노드가 저장한 메시지까지 2개
+        when(conversationCache.get(1L)).thenReturn(CachedConversation.builder()
+                .id(1L)
+                .total(1)
+                .tail(List.of(MessageDto.builder().messageId(5L).seq(1L).build()))
+                .build());
+        ConversationVersionState state = mock(ConversationVersionState.class);
+        when(state.getMessageCount()).thenReturn(2L);
+        when(state.getLastMessageId()).thenReturn(6L);
+        when(conversationRepository.findVersionById(1L)).thenReturn(Optional.of(state));
+        when(conversationRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> conversationService.getSession(1L, null, null, null))
+                .isInstanceOf(NoSuchElementException.class);
+        verify(conversationCache).evict(1L);
+        verify(conversationCache).read(isNull(), isNull(), isNull(), anyInt());
     }
 
     @Test
     void endSession_ShouldEndConversation() {
         // Given
-        UUID sessionId = UUID.randomUUID();
         Conversation conversation = Conversation.builder()
-                .sessionId(sessionId)
-                .userId("test-user")
-                .status(ConversationStatus.ACTIVE)
-                .startedAt(Instant.now())
+                .id(1L)
+                .startedAt(LocalDateTime.of(2024, 5, 1, 10, 0))
                 .build();
-
-        when(conversationRepository.findById(sessionId)).thenReturn(Optional.of(conversation));
-        when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
+        runTransactionsInline();
+        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
+        when(conversationRepository.save(conversation)).thenReturn(conversation);
 
         // When
-        Conversation result = conversationService.endSession(sessionId, "User ended conversation");
+        Conversation result = conversationService.endSession(1L, "User ended conversation");
 
         // Then
-        assertThat(result.getStatus()).isEqualTo(ConversationStatus.ENDED);
         assertThat(result.getEndedAt()).isNotNull();
-        assertThat(result.getReason()).isEqualTo("User ended conversation");
+        verify(conversationCache).markEnded(1L, result.getEndedAt());
+        verify(eventPublisher).publishEvent(any(ConversationEndedEvent.class));
+    }
+
+    @Test
+    void endSession_ShouldWaitForJournaledMessagesBeforeEnding() throws InterruptedException {
+        // Given
+        Conversation conversation = Conversation.builder()
+                .id(1L)
+                .startedAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .build();
+        when(messageJournal.isEnabled()).thenReturn(true);
+        when(messageJournal.awaitDrained(1L)).thenReturn(true);
+        runTransactionsInline();
+        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
+        when(conversationRepository.save(conversation)).thenReturn(conversation);
+
+        // When
+        conversationService.endSession(1L, "User ended conversation");
+
+        // Then
+        InOrder inOrder = inOrder(messageJournal, conversationRepository);
+        inOrder.verify(messageJournal).awaitDrained(1L);
+        inOrder.verify(conversationRepository).save(conversation);
+    }
+
+    @Test
+    void endSession_ShouldRejectWhenJournalIsNotDrained() throws InterruptedException {
+        // Given
+        when(messageJournal.isEnabled()).thenReturn(true);
+        when(messageJournal.awaitDrained(1L)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> conversationService.endSession(1L, "User ended conversation"))
+                .isInstanceOf(ServiceOverloadedException.class);
+        verify(conversationRepository, never()).save(any());
     }
-}
 
+    @Test
+    void endSession_ShouldThrowExceptionWhenConversationNotFound() {
+        // Given
+        runTransactionsInline();
+        when(conversationRepository.findById(1L)).thenReturn(Optional.empty());
 
+        // When & Then
+        assertThatThrownBy(() -> conversationService.endSession(1L, "User ended conversation"))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessage("Conversation not found: 1");
+    }
 
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
 
+    private void runWriteLocksInline() {
+        when(conversationWriteLocks.withLock(any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+    }
+}
@@ -0,0 +1,118 @@
+package com.guidely.chatorchestra.service;
+
+import com.guidely.chatorchestra.config.IngestionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConversationWriteLocks
+ */
+class ConversationWriteLocksTest {
+
+    @Test
+    void constructor_ShouldRoundStripesUpToPowerOfTwo() {
+        // When / Then
+        assertThat(locks(1).stripeCount()).isEqualTo(1);
+        assertThat(locks(1000).stripeCount()).isEqualTo(1024);
+        assertThat(locks(1024).stripeCount()).isEqualTo(1024);
+    }
+
+    @Test
+    void stripe_ShouldSpreadConsecutiveIds() {
+        // Given
+        ConversationWriteLocks locks = locks(1024);
+        Set<Integer> used = new HashSet<>();
+
+        // When
+        for (long id = 1; id <= 1024; id++) {
+            used.add(locks.stripe(id));
+        }
+
+        // Then
+        assertThat(used.size()).isGreaterThan(512);
+    }
+
+    @Test
+    void withLock_ShouldRunOneWriterPerConversationAtATime() throws Exception {
+        // Given
+        ConversationWriteLocks locks = locks(1024);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        long[] sequence = {0};
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        CompletableFuture<?>[] writers = new CompletableFuture<?>[8];
+        for (int t = 0; t < writers.length; t++) {
+            writers[t] = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    locks.withLock(42L, () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        sequence[0]++;
+                        inside.decrementAndGet();
+                        return null;
+                    });
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(writers).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(sequence[0]).isEqualTo(8_000);
+    }
+
+    @Test
+    void withLock_ShouldNotBlockConversationsOnOtherStripes() throws Exception {
+        // Given
+        ConversationWriteLocks locks = locks(1024);
+        long other = 2L;
+        while (locks.stripe(other) == locks.stripe(1L)) {
+            other++;
+        }
+        long otherId = other;
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> locks.withLock(1L, () -> {
+            held.countDown();
+            await(release);
+            return null;
+        }));
+        held.await(5, TimeUnit.SECONDS);
+
+        // When
+        Long written = CompletableFuture.supplyAsync(() -> locks.withLock(otherId, () -> otherId))
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(written).isEqualTo(otherId);
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    private static ConversationWriteLocks locks(int stripes) {
+        IngestionProperties properties = new IngestionProperties();
+        properties.setWriteLockStripes(stripes);
+        return new ConversationWriteLocks(properties, new SimpleMeterRegistry());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.guidely.chatorchestra.service;
+
+import com.guidely.chatorchestra.config.IngestionProperties;
+import com.guidely.chatorchestra.exception.ServiceOverloadedException;
+import com.guidely.chatorchestra.repository.ConversationJdbcRepository;
+import com.guidely.chatorchestra.repository.MessageJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit tests for MessageIngestionPipeline
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageIngestionPipelineTest {
+
+    @Mock
+    private MessageJdbcRepository messageJdbcRepository;
+
+    @Mock
+    private ConversationJdbcRepository conversationJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MessageIngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        IngestionProperties properties = new IngestionProperties();
+        properties.setEnabled(true);
+        pipeline = new MessageIngestionPipeline(properties, messageJdbcRepository, conversationJdbcRepository,
+                transactionTemplate, new SimpleMeterRegistry());
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    void submit_ShouldRejectOnceStopped() throws InterruptedException {
+        // Given
+        pipeline.stop();
+
+        // When & Then: 플러셔가 끝난 뒤 받은 메시지는 완료될 수 없으므로 기다리게 하지 않는다
+        assertThatThrownBy(() -> pipeline.submit(1L, "user", "Hello", null))
+                .isInstanceOf(ServiceOverloadedException.class);
+        verifyNoInteractions(transactionTemplate);
+    }
+}